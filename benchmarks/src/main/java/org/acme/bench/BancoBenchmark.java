@@ -0,0 +1,60 @@
+package org.acme.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.flywaydb.core.Flyway;
+
+/**
+ * Conexão com o Postgres usado pelos benchmarks.
+ *
+ * Roda as migrations do neo-core (classpath:db/migration) num schema
+ * separado ({@code neo_bench} por padrão) para não tocar nos dados da
+ * aplicação. Configuração via system properties:
+ * {@code neo.bench.jdbc.url}, {@code neo.bench.jdbc.user},
+ * {@code neo.bench.jdbc.password} e {@code neo.bench.schema}.
+ */
+public final class BancoBenchmark {
+
+    static final String URL = System.getProperty("neo.bench.jdbc.url", "jdbc:postgresql://localhost:5432/neo");
+    static final String USUARIO = System.getProperty("neo.bench.jdbc.user", "neo");
+    static final String SENHA = System.getProperty("neo.bench.jdbc.password", "neo");
+    static final String SCHEMA = System.getProperty("neo.bench.schema", "neo_bench");
+
+    private BancoBenchmark() {
+    }
+
+    /** Garante o schema de benchmark migrado até a última versão. */
+    public static void migrar() {
+        Flyway.configure()
+                .dataSource(URL, USUARIO, SENHA)
+                .schemas(SCHEMA)
+                .defaultSchema(SCHEMA)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    /** Abre uma conexão no schema de benchmark, com autocommit desligado. */
+    public static Connection conectar() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", USUARIO);
+        props.setProperty("password", SENHA);
+        props.setProperty("currentSchema", SCHEMA);
+        // mesmo ajuste usado pela aplicação (application.properties)
+        props.setProperty("reWriteBatchedInserts", "true");
+        Connection conn = DriverManager.getConnection(URL, props);
+        conn.setAutoCommit(false);
+        return conn;
+    }
+
+    public static void limpar(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("TRUNCATE TABLE neo_object RESTART IDENTITY");
+        }
+        conn.commit();
+    }
+}
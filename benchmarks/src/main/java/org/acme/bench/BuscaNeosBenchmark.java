@@ -0,0 +1,146 @@
+package org.acme.bench;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.domain.dtos.FiltroBuscaNeo;
+import org.acme.domain.models.NeoObject;
+import org.acme.repository.NeoBuscaSql;
+import org.acme.repository.NeoUpsertJdbc;
+import org.acme.service.NeoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latência da busca filtrada ({@link NeoBuscaSql}) conforme a tabela cresce.
+ *
+ * A tabela é populada com {@code linhas} NEOs sintéticos espalhados por
+ * dois anos; cada benchmark é uma consulta típica do dashboard. Com
+ * {@code indices=false} a sessão desliga index/bitmap scans, o que mostra
+ * o custo da varredura completa que a busca teria sem os índices do V4.
+ * Requer Postgres acessível (ver {@link BancoBenchmark}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BuscaNeosBenchmark {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final int SEMANAS = 104;
+    private static final String[] PLANETAS = { "Earth", "Earth", "Earth", "Mars", "Venus", "Mercury" };
+
+    @Param({ "10000", "100000", "1000000" })
+    int linhas;
+
+    @Param({ "true", "false" })
+    boolean indices;
+
+    private Connection conn;
+
+    @Setup(Level.Trial)
+    public void popular() throws SQLException {
+        BancoBenchmark.migrar();
+        conn = BancoBenchmark.conectar();
+        BancoBenchmark.limpar(conn);
+
+        Random rnd = new Random(7);
+        int porSemana = Math.max(1, linhas / SEMANAS);
+        int gerados = 0;
+        for (int s = 0; gerados < linhas; s++) {
+            int n = Math.min(porSemana, linhas - gerados);
+            List<NeoObject> lote = new ArrayList<>(n);
+            for (var neo : FeedSintetico.listar(FeedSintetico.gerar(n, INICIO.plusWeeks(s % SEMANAS), s))) {
+                NeoObject ent = NeoService.normalizar(neo, "raw/bench.csv");
+                ent.neoId = String.valueOf(3_000_000 + gerados + lote.size()); // ids do gerador se repetem entre semanas
+                ent.planetaAlvo = PLANETAS[rnd.nextInt(PLANETAS.length)];
+                lote.add(ent);
+            }
+            NeoUpsertJdbc.upsert(conn, lote);
+            conn.commit();
+            gerados += n;
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute("ANALYZE neo_object");
+            if (!indices) {
+                st.execute("SET enable_indexscan = off");
+                st.execute("SET enable_bitmapscan = off");
+                st.execute("SET enable_indexonlyscan = off");
+            }
+        }
+        conn.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws SQLException {
+        conn.close();
+    }
+
+    /** Perigosos com aproximação num mês, por data (índice parcial). */
+    @Benchmark
+    public int perigososNoMes() throws SQLException {
+        return executar(new FiltroBuscaNeo(null, null, null, null, null, null,
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), null, true),
+                NeoBuscaSql.Ordenacao.de("dataPrimeiraAproximacao"));
+    }
+
+    /** Os maiores acima de 1,5 km, do maior para o menor. */
+    @Benchmark
+    public int maioresPorDiametro() throws SQLException {
+        return executar(new FiltroBuscaNeo(1500.0, null, null, null, null, null, null, null, null, null),
+                NeoBuscaSql.Ordenacao.de("diametroMaxM,desc"));
+    }
+
+    /** Marte numa janela de uma semana, mais rápidos primeiro. */
+    @Benchmark
+    public int planetaNaSemanaPorVelocidade() throws SQLException {
+        return executar(new FiltroBuscaNeo(null, null, null, null, null, null,
+                LocalDate.of(2024, 6, 3), LocalDate.of(2024, 6, 9), "Mars", null),
+                NeoBuscaSql.Ordenacao.de("velocidadeKmS,desc"));
+    }
+
+    /** Faixa estreita de velocidade, por id. */
+    @Benchmark
+    public int faixaDeVelocidade() throws SQLException {
+        return executar(new FiltroBuscaNeo(null, null, 30.0, 30.5, null, null, null, null, null, null),
+                NeoBuscaSql.Ordenacao.PADRAO);
+    }
+
+    private int executar(FiltroBuscaNeo filtro, NeoBuscaSql.Ordenacao ordem) throws SQLException {
+        NeoBuscaSql.Consulta c = NeoBuscaSql.montar(filtro, ordem, 0, 50, i -> "?");
+        try (PreparedStatement ps = conn.prepareStatement(c.sql())) {
+            for (int i = 0; i < c.parametros().size(); i++) {
+                ps.setObject(i + 1, c.parametros().get(i));
+            }
+            int n = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    n++;
+                }
+            }
+            conn.commit();
+            return n;
+        }
+    }
+}
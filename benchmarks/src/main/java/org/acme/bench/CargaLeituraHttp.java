@@ -0,0 +1,168 @@
+package org.acme.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Carga HTTP nas leituras da API: compara {@code /api/neos} (JAX-RS em
+ * thread de worker + JDBC) com {@code /api/reativo/neos} (event loop +
+ * cliente reativo do Postgres) nos mesmos três caminhos: listar por cursor,
+ * obter por id e search.
+ *
+ * Não é JMH: a medida é de ponta a ponta contra uma instância já no ar.
+ * Cada um dos {@code concorrencia} clientes manda a próxima requisição assim
+ * que recebe a resposta da anterior (carga fechada), então a vazão mostra
+ * quanto o servidor atende com aquele número de requisições em voo e os
+ * percentis mostram a cauda. Configuração por system properties:
+ *
+ * <ul>
+ * <li>{@code neo.carga.url} (padrão {@code http://localhost:8080});</li>
+ * <li>{@code neo.carga.concorrencia} (padrão 64);</li>
+ * <li>{@code neo.carga.aquecimento} e {@code neo.carga.duracao}, em segundos
+ * (padrão 10 e 30);</li>
+ * <li>{@code neo.carga.ids}: maior id usado no obter (padrão 10000);</li>
+ * <li>{@code neo.carga.cenarios}: subconjunto de {@code listar,obter,busca}.</li>
+ * </ul>
+ */
+public final class CargaLeituraHttp {
+
+    private static final String URL = System.getProperty("neo.carga.url", "http://localhost:8080");
+    private static final int CONCORRENCIA = Integer.getInteger("neo.carga.concorrencia", 64);
+    private static final int AQUECIMENTO_S = Integer.getInteger("neo.carga.aquecimento", 10);
+    private static final int DURACAO_S = Integer.getInteger("neo.carga.duracao", 30);
+    private static final int IDS = Integer.getInteger("neo.carga.ids", 10_000);
+    private static final String CENARIOS = System.getProperty("neo.carga.cenarios", "listar,obter,busca");
+
+    private static final String[] PREFIXOS = { "/api/neos", "/api/reativo/neos" };
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private CargaLeituraHttp() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CargaLeituraHttp carga = new CargaLeituraHttp();
+        System.out.printf("%s, %d clientes, %ds de aquecimento, %ds de medida%n", URL, CONCORRENCIA, AQUECIMENTO_S,
+                DURACAO_S);
+        System.out.printf("%-8s %-20s %10s %9s %9s %9s %9s %9s %7s%n",
+                "cenário", "endpoint", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms", "erros");
+        for (String cenario : CENARIOS.split(",")) {
+            for (String prefixo : PREFIXOS) {
+                Supplier<String> caminho = caminho(cenario.trim(), prefixo);
+                carga.executar(caminho, AQUECIMENTO_S);
+                Resultado r = carga.executar(caminho, DURACAO_S);
+                System.out.printf("%-8s %-20s %10.0f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n", cenario.trim(), prefixo,
+                        r.vazao(), r.percentil(0.50), r.percentil(0.90), r.percentil(0.99), r.percentil(0.999),
+                        r.percentil(1.0), r.erros());
+            }
+        }
+    }
+
+    /** Caminho (com query) de cada requisição do cenário. */
+    private static Supplier<String> caminho(String cenario, String prefixo) {
+        return switch (cenario) {
+            case "listar" -> () -> prefixo + "?tamanho=50";
+            case "obter" -> () -> prefixo + "/" + (1 + ThreadLocalRandom.current().nextInt(IDS));
+            case "busca" -> () -> prefixo + "/search?planetaAlvo=Earth&velocidadeDe="
+                    + ThreadLocalRandom.current().nextInt(5, 30) + "&ordenar=velocidadeKmS,desc&tamanho=20";
+            default -> throw new IllegalArgumentException("Cenário desconhecido: " + cenario);
+        };
+    }
+
+    private Resultado executar(Supplier<String> caminho, int segundos) throws InterruptedException {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        CountDownLatch terminados = new CountDownLatch(CONCORRENCIA);
+        Cliente[] clientes = new Cliente[CONCORRENCIA];
+        long t0 = System.nanoTime();
+        for (int i = 0; i < CONCORRENCIA; i++) {
+            clientes[i] = new Cliente(caminho, fim, terminados);
+            clientes[i].proxima();
+        }
+        terminados.await();
+        double decorrido = (System.nanoTime() - t0) / 1e9;
+
+        int total = 0;
+        long erros = 0;
+        for (Cliente c : clientes) {
+            total += c.n;
+            erros += c.erros;
+        }
+        long[] latencias = new long[total];
+        int pos = 0;
+        for (Cliente c : clientes) {
+            System.arraycopy(c.latencias, 0, latencias, pos, c.n);
+            pos += c.n;
+        }
+        Arrays.sort(latencias);
+        return new Resultado(latencias, total / decorrido, erros);
+    }
+
+    /**
+     * Um cliente da carga fechada. Só há uma requisição dele em voo por vez,
+     * então os campos não precisam de sincronização além da que o
+     * {@link java.util.concurrent.CompletableFuture} já dá entre as etapas.
+     */
+    private final class Cliente {
+
+        private final Supplier<String> caminho;
+        private final long fim;
+        private final CountDownLatch terminados;
+        private long[] latencias = new long[4096];
+        private int n;
+        private long erros;
+
+        Cliente(Supplier<String> caminho, long fim, CountDownLatch terminados) {
+            this.caminho = caminho;
+            this.fim = fim;
+            this.terminados = terminados;
+        }
+
+        void proxima() {
+            if (System.nanoTime() - fim >= 0) {
+                terminados.countDown();
+                return;
+            }
+            HttpRequest req = HttpRequest.newBuilder(URI.create(URL + caminho.get()))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            long inicio = System.nanoTime();
+            http.sendAsync(req, HttpResponse.BodyHandlers.discarding()).whenComplete((resp, falha) -> {
+                long latencia = System.nanoTime() - inicio;
+                if (falha != null || resp.statusCode() != 200) {
+                    erros++;
+                } else {
+                    if (n == latencias.length) {
+                        latencias = Arrays.copyOf(latencias, n * 2);
+                    }
+                    latencias[n++] = latencia;
+                }
+                proxima();
+            });
+        }
+    }
+
+    private record Resultado(long[] latencias, double vazao, long erros) {
+
+        /** Em milissegundos; {@code q = 1.0} é o máximo. */
+        double percentil(double q) {
+            if (latencias.length == 0) {
+                return Double.NaN;
+            }
+            int i = (int) Math.ceil(q * latencias.length) - 1;
+            return latencias[Math.max(0, i)] / 1e6;
+        }
+    }
+}
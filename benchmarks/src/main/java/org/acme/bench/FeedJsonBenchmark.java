@@ -0,0 +1,72 @@
+package org.acme.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.domain.dtos.FeedResponse;
+import org.acme.service.FeedStreamParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Desserialização de um /feed do NeoWs ({@link FeedSintetico#json}, com
+ * todos os campos que a NASA manda): o {@link FeedResponse} inteiro de uma
+ * vez ({@code readValue}) contra o {@link FeedStreamParser}, que a
+ * importação usa e que materializa um NEO por vez.
+ *
+ * O score é o tempo por feed. Não requer infraestrutura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FeedJsonBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({ "100", "1000", "10000" })
+    int neos;
+
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void gerar() {
+        json = FeedSintetico.json(FeedSintetico.gerar(neos, LocalDate.of(2025, 1, 1), 42L));
+    }
+
+    @Benchmark
+    public FeedResponse feedResponseCompleto() throws IOException {
+        return MAPPER.readValue(json, FeedResponse.class);
+    }
+
+    @Benchmark
+    public int feedStreamParser(Blackhole bh) throws IOException {
+        int lidos = 0;
+        try (FeedStreamParser parser = new FeedStreamParser(new ByteArrayInputStream(json), MAPPER)) {
+            FeedResponse.Neo neo;
+            while ((neo = parser.proximo()) != null) {
+                bh.consume(neo);
+                bh.consume(parser.diaAtual());
+                lidos++;
+            }
+        }
+        return lidos;
+    }
+}
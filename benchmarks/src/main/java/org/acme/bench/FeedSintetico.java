@@ -0,0 +1,138 @@
+package org.acme.bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.acme.domain.dtos.FeedResponse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Gera feeds NeoWs sintéticos e determinísticos (mesma semente = mesmo feed)
+ * com a mesma forma do JSON real da NASA.
+ */
+public final class FeedSintetico {
+
+    private static final String[] MESES = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private FeedSintetico() {
+    }
+
+    /**
+     * @param neos   total de NEOs no feed
+     * @param inicio primeiro dia do feed; os NEOs são distribuídos em 7 dias
+     * @param seed   semente do gerador
+     */
+    public static FeedResponse gerar(int neos, LocalDate inicio, long seed) {
+        Random rnd = new Random(seed);
+        FeedResponse feed = new FeedResponse();
+        feed.elementCount = neos;
+        feed.nearEarthObjects = new LinkedHashMap<>();
+
+        for (int i = 0; i < neos; i++) {
+            LocalDate dia = inicio.plusDays(i % 7);
+            feed.nearEarthObjects
+                    .computeIfAbsent(dia.toString(), d -> new ArrayList<>())
+                    .add(neo(2_000_000 + i, dia, rnd));
+        }
+        return feed;
+    }
+
+    /**
+     * O feed como o JSON que a NASA devolve: além dos campos mapeados em
+     * {@link FeedResponse}, os que o parser ignora (links, diâmetro em outras
+     * unidades, distância de aproximação...), para que o custo de pular
+     * campos entre na medição.
+     */
+    public static byte[] json(FeedResponse feed) {
+        ObjectNode raiz = JSON.valueToTree(feed);
+        raiz.putObject("links")
+                .put("next", "http://api.nasa.gov/neo/rest/v1/feed?start_date=2025-01-08&end_date=2025-01-15")
+                .put("previous", "http://api.nasa.gov/neo/rest/v1/feed?start_date=2024-12-25&end_date=2025-01-01")
+                .put("self", "http://api.nasa.gov/neo/rest/v1/feed?start_date=2025-01-01&end_date=2025-01-08");
+        raiz.get("near_earth_objects").forEach(dia -> dia.forEach(n -> completar((ObjectNode) n)));
+        try {
+            return JSON.writeValueAsBytes(raiz);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void completar(ObjectNode neo) {
+        String id = neo.get("id").asText();
+        neo.putObject("links").put("self", "http://api.nasa.gov/neo/rest/v1/neo/" + id);
+        neo.put("neo_reference_id", id);
+        neo.put("nasa_jpl_url", "https://ssd.jpl.nasa.gov/tools/sbdb_lookup.html#/?sstr=" + id);
+        neo.put("is_sentry_object", false);
+
+        ObjectNode diametro = (ObjectNode) neo.get("estimated_diameter");
+        JsonNode metros = diametro.get("meters");
+        double min = metros.get("estimated_diameter_min").asDouble();
+        double max = metros.get("estimated_diameter_max").asDouble();
+        diametro.set("kilometers", faixa(min / 1000, max / 1000));
+        diametro.set("miles", faixa(min / 1609.344, max / 1609.344));
+        diametro.set("feet", faixa(min * 3.28084, max * 3.28084));
+
+        for (JsonNode ca : neo.get("close_approach_data")) {
+            ObjectNode aproximacao = (ObjectNode) ca;
+            aproximacao.put("close_approach_date", aproximacao.get("close_approach_date_full").asText().substring(0, 11));
+            aproximacao.put("epoch_date_close_approach", 1735689600000L);
+            ObjectNode velocidade = (ObjectNode) aproximacao.get("relative_velocity");
+            double kms = Double.parseDouble(velocidade.get("kilometers_per_second").asText());
+            velocidade.put("kilometers_per_hour", String.valueOf(kms * 3600));
+            velocidade.put("miles_per_hour", String.valueOf(kms * 2236.936));
+            aproximacao.putObject("miss_distance")
+                    .put("astronomical", "0.2604391387")
+                    .put("lunar", "101.3108249543")
+                    .put("kilometers", "38960651.808519229")
+                    .put("miles", "24208767.2416470602");
+        }
+    }
+
+    private static ObjectNode faixa(double min, double max) {
+        ObjectNode n = JSON.createObjectNode();
+        n.put("estimated_diameter_min", min);
+        n.put("estimated_diameter_max", max);
+        return n;
+    }
+
+    public static List<FeedResponse.Neo> listar(FeedResponse feed) {
+        List<FeedResponse.Neo> todos = new ArrayList<>(feed.elementCount);
+        feed.nearEarthObjects.values().forEach(todos::addAll);
+        return todos;
+    }
+
+    private static FeedResponse.Neo neo(int id, LocalDate dia, Random rnd) {
+        FeedResponse.Neo n = new FeedResponse.Neo();
+        n.id = String.valueOf(id);
+        n.name = "(" + (1990 + rnd.nextInt(35)) + " " + (char) ('A' + rnd.nextInt(26)) + (char) ('A' + rnd.nextInt(26))
+                + rnd.nextInt(100) + ")";
+        n.absoluteMagnitudeH = 15.0 + rnd.nextDouble() * 15.0;
+        n.hazardous = rnd.nextDouble() < 0.1;
+
+        double min = 5.0 + rnd.nextDouble() * 800.0;
+        n.estimatedDiameter = new FeedResponse.EstimatedDiameter();
+        n.estimatedDiameter.meters = new FeedResponse.EstimatedDiameter.Range();
+        n.estimatedDiameter.meters.min = min;
+        n.estimatedDiameter.meters.max = min * 2.236;
+
+        FeedResponse.CloseApproachData ca = new FeedResponse.CloseApproachData();
+        ca.orbitingBody = "Earth";
+        ca.approachDateFull = String.format(Locale.US, "%d-%s-%02d %02d:%02d",
+                dia.getYear(), MESES[dia.getMonthValue() - 1], dia.getDayOfMonth(), rnd.nextInt(24), rnd.nextInt(60));
+        ca.relativeVelocity = new FeedResponse.CloseApproachData.RelativeVelocity();
+        ca.relativeVelocity.kmPerSec = String.valueOf(1.0 + rnd.nextDouble() * 40.0);
+        n.closeApproachData = List.of(ca);
+        return n;
+    }
+}
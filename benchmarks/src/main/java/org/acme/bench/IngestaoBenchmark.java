@@ -0,0 +1,115 @@
+package org.acme.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.domain.dtos.FeedResponse;
+import org.acme.domain.models.NeoObject;
+import org.acme.service.ArmazenamentoMinioService.CsvNeoData;
+import org.acme.service.NeoService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+
+/**
+ * O que a importação faz com cada NEO já lido do feed, sem banco nem MinIO:
+ * <ul>
+ * <li>{@code normalizar}: {@link NeoService#normalizar}, mapeamento dos
+ * campos para {@link NeoObject} com o parse da velocidade e da data de
+ * aproximação ({@code comData=false} zera a data nos fixtures, então a
+ * diferença entre os dois é o custo do parse da data);</li>
+ * <li>{@code csvBruto}: {@link CsvNeoData#de} e a linha do CSV bruto
+ * ({@code raw/}), com o mesmo schema do {@code EscritorCsvBruto}, escrita
+ * num stream que só conta bytes (contador {@code bytes}).</li>
+ * </ul>
+ * O score é o tempo por lote de {@code neos}. Não requer infraestrutura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IngestaoBenchmark {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final ObjectWriter CSV_WRITER = CSV_MAPPER
+            .writer(CSV_MAPPER.schemaFor(CsvNeoData.class).withHeader());
+    private static final String DIA = "2025-01-01";
+
+    @Param({ "1000", "10000" })
+    int neos;
+
+    @Param({ "true", "false" })
+    boolean comData;
+
+    private List<FeedResponse.Neo> lista;
+
+    /** Tamanho do CSV gerado, reportado ao lado do score. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamanho {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void gerar() {
+        lista = FeedSintetico.listar(FeedSintetico.gerar(neos, LocalDate.parse(DIA), 42L));
+        if (!comData) {
+            lista.forEach(n -> n.closeApproachData.get(0).approachDateFull = null);
+        }
+    }
+
+    @Benchmark
+    public List<NeoObject> normalizar() {
+        List<NeoObject> lote = new ArrayList<>(lista.size());
+        for (FeedResponse.Neo n : lista) {
+            lote.add(NeoService.normalizar(n, "raw/2025-01-01/bench.csv"));
+        }
+        return lote;
+    }
+
+    @Benchmark
+    public long csvBruto(Tamanho t) throws IOException {
+        ContadorBytes out = new ContadorBytes();
+        try (SequenceWriter w = CSV_WRITER.writeValues(out)) {
+            for (FeedResponse.Neo n : lista) {
+                w.write(CsvNeoData.de(n, DIA));
+            }
+        }
+        t.bytes = out.bytes;
+        return out.bytes;
+    }
+
+    private static final class ContadorBytes extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.acme.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.service.ArmazenamentoMinioService.CsvNeoData;
+import org.acme.service.NeoParquet;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.jboss.logmanager.Level;
+import org.jboss.logmanager.Logger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * CSV bruto ({@code raw/}) contra o lake Parquet ({@code lake/neo/}) para as
+ * mesmas linhas {@link CsvNeoData}.
+ *
+ * Os arquivos são gerados uma vez em memória (o que o MinIO guardaria); o
+ * tamanho sai no contador {@code bytes} de cada benchmark e o score é o
+ * tempo de varrer o arquivo inteiro somando velocidade e perigosos, que é o
+ * acesso típico do treino/analytics. No Parquet:
+ * <ul>
+ * <li>{@code scanParquetCompleto}: registros Avro inteiros ({@code AvroParquetReader});</li>
+ * <li>{@code scanParquetProjecao}: registros Avro só com as duas colunas;</li>
+ * <li>{@code scanParquetColunar}: as duas colunas direto para arrays
+ * ({@link NeoParquet#lerColunas}), caminho usado pelo treino.</li>
+ * </ul>
+ * Não requer infraestrutura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LakeFormatoBenchmark {
+
+    /**
+     * Fora do Quarkus o LogManager do JBoss fica sem configuração e o
+     * parquet-hadoop formataria um log de debug por registro lido.
+     */
+    private static final Logger LOG_PARQUET = Logger.getLogger("org.apache.parquet");
+
+    static {
+        LOG_PARQUET.setLevel(Level.INFO);
+    }
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema CSV_SCHEMA = CSV_MAPPER.schemaFor(CsvNeoData.class).withHeader();
+
+    @Param({ "10000", "100000" })
+    int linhas;
+
+    @Param({ "SNAPPY", "ZSTD" })
+    CompressionCodecName compressao;
+
+    private byte[] csv;
+    private byte[] parquet;
+
+    /** Tamanho do arquivo lido, reportado ao lado do score. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamanho {
+        public long bytes;
+    }
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void gerar() throws IOException {
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        List<CsvNeoData> dados = FeedSintetico.listar(FeedSintetico.gerar(linhas, inicio, 42L)).stream()
+                .map(n -> CsvNeoData.de(n, inicio.toString()))
+                .toList();
+
+        csv = CSV_MAPPER.writer(CSV_SCHEMA).writeValueAsBytes(dados);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ParquetWriter<GenericRecord> w = NeoParquet.abrirWriter(NeoParquet.saida(out), compressao)) {
+            for (CsvNeoData d : dados) {
+                w.write(NeoParquet.registro(d));
+            }
+        }
+        parquet = out.toByteArray();
+    }
+
+    @Benchmark
+    public double scanCsv(Tamanho t) throws IOException {
+        t.bytes = csv.length;
+        double soma = 0;
+        try (MappingIterator<CsvNeoData> it = CSV_MAPPER.readerFor(CsvNeoData.class).with(CSV_SCHEMA)
+                .readValues(csv)) {
+            while (it.hasNext()) {
+                CsvNeoData d = it.next();
+                soma += acumular(d.ehPotencialmentePerigoso, d.velocidadeKmS);
+            }
+        }
+        return soma;
+    }
+
+    @Benchmark
+    public double scanParquetCompleto(Tamanho t) throws IOException {
+        t.bytes = parquet.length;
+        return scanParquet(new Configuration(false));
+    }
+
+    @Benchmark
+    public double scanParquetProjecao(Tamanho t) throws IOException {
+        t.bytes = parquet.length;
+        return scanParquet(NeoParquet.projecao(NeoParquet.COL_PERIGOSO, NeoParquet.COL_VELOCIDADE));
+    }
+
+    @Benchmark
+    public double scanParquetColunar(Tamanho t) throws IOException {
+        t.bytes = parquet.length;
+        NeoParquet.Colunas c = NeoParquet.lerColunas(NeoParquet.entrada(parquet),
+                NeoParquet.COL_PERIGOSO, NeoParquet.COL_VELOCIDADE);
+        boolean[] perigoso = c.booleans(NeoParquet.COL_PERIGOSO);
+        double[] velocidade = c.doubles(NeoParquet.COL_VELOCIDADE);
+        double soma = 0;
+        for (int i = 0; i < c.linhas; i++) {
+            soma += acumular(perigoso[i], Double.isNaN(velocidade[i]) ? null : velocidade[i]);
+        }
+        return soma;
+    }
+
+    private double scanParquet(Configuration conf) throws IOException {
+        double soma = 0;
+        try (ParquetReader<GenericRecord> r = AvroParquetReader.<GenericRecord>builder(NeoParquet.entrada(parquet))
+                .withConf(conf).build()) {
+            GenericRecord rec;
+            while ((rec = r.read()) != null) {
+                soma += acumular((Boolean) rec.get(NeoParquet.COL_PERIGOSO),
+                        (Double) rec.get(NeoParquet.COL_VELOCIDADE));
+            }
+        }
+        return soma;
+    }
+
+    private static double acumular(boolean perigoso, Double velocidade) {
+        return (velocidade == null ? 0 : velocidade) + (perigoso ? 1 : 0);
+    }
+}
@@ -0,0 +1,68 @@
+package org.acme.bench;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.acme.domain.dtos.NeoObjectResponse;
+import org.acme.domain.mapper.NeoObjectMapper;
+import org.acme.domain.mapper.NeoObjectMapperImpl;
+import org.acme.domain.models.NeoObject;
+import org.acme.service.NeoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapeamento das entidades para a resposta da API
+ * ({@link NeoObjectMapper#toResponseList}, gerado pelo MapStruct) com o
+ * link {@code self} de cada item, como nas listagens do NeoController.
+ *
+ * O score é o tempo por página de {@code neos}. Não requer infraestrutura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NeoMapperBenchmark {
+
+    private static final String BASE = "http://localhost:8080/api/neos/";
+
+    @Param({ "20", "500", "10000" })
+    int neos;
+
+    private final NeoObjectMapper mapper = new NeoObjectMapperImpl();
+    private final Function<NeoObject, URI> self = n -> URI.create(BASE + n.id);
+    private List<NeoObject> entidades;
+
+    @Setup(Level.Trial)
+    public void gerar() {
+        List<NeoObject> lista = FeedSintetico.listar(FeedSintetico.gerar(neos, LocalDate.of(2025, 1, 1), 42L))
+                .stream()
+                .map(n -> NeoService.normalizar(n, "raw/2025-01-01/bench.csv"))
+                .toList();
+        long id = 1;
+        for (NeoObject n : lista) {
+            n.id = id++;
+        }
+        entidades = lista;
+    }
+
+    @Benchmark
+    public List<NeoObjectResponse> toResponseList() {
+        return mapper.toResponseList(entidades, self);
+    }
+}
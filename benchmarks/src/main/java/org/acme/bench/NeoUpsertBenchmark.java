@@ -0,0 +1,142 @@
+package org.acme.bench;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.domain.dtos.FeedResponse;
+import org.acme.domain.models.NeoObject;
+import org.acme.repository.NeoUpsertJdbc;
+import org.acme.service.NeoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput de importação: upsert em lote ({@link NeoUpsertJdbc}) contra o
+ * caminho antigo do {@code normalizarPersistir}, que fazia um SELECT por
+ * {@code neo_id} e depois um INSERT ou UPDATE por NEO.
+ *
+ * O score é o tempo para importar {@code linhas} NEOs numa transação;
+ * {@code existentes} é a fração que já está na tabela (caminho de update).
+ * Requer Postgres acessível (ver {@link BancoBenchmark}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NeoUpsertBenchmark {
+
+    @Param({ "1000", "10000" })
+    int linhas;
+
+    @Param({ "0.0", "1.0" })
+    double existentes;
+
+    private Connection conn;
+    private List<NeoObject> neos;
+
+    @Setup(Level.Trial)
+    public void abrir() throws SQLException {
+        BancoBenchmark.migrar();
+        conn = BancoBenchmark.conectar();
+
+        FeedResponse feed = FeedSintetico.gerar(linhas, LocalDate.of(2025, 1, 1), 42L);
+        neos = FeedSintetico.listar(feed).stream()
+                .map(n -> NeoService.normalizar(n, "raw/2025-01-01/bench.csv"))
+                .toList();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepararTabela() throws SQLException {
+        BancoBenchmark.limpar(conn);
+        int jaExistem = (int) (linhas * existentes);
+        if (jaExistem > 0) {
+            NeoUpsertJdbc.upsert(conn, neos.subList(0, jaExistem));
+            conn.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public int upsertEmLote() throws SQLException {
+        int n = NeoUpsertJdbc.upsert(conn, neos);
+        conn.commit();
+        return n;
+    }
+
+    @Benchmark
+    public int porLinha() throws SQLException {
+        int n = 0;
+        try (PreparedStatement select = conn.prepareStatement("SELECT id FROM neo_object WHERE neo_id = ?");
+                PreparedStatement insert = conn.prepareStatement("""
+                        INSERT INTO neo_object (neo_id, nome, magnitude_absoluta, diametro_min_m, diametro_max_m,
+                                                eh_potencialmente_perigoso, data_primeira_aproximacao, velocidade_km_s,
+                                                planeta_alvo, origem_json_s3_key, criado_em)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """);
+                PreparedStatement update = conn.prepareStatement("""
+                        UPDATE neo_object SET nome = ?, magnitude_absoluta = ?, diametro_min_m = ?, diametro_max_m = ?,
+                                              eh_potencialmente_perigoso = ?, data_primeira_aproximacao = ?,
+                                              velocidade_km_s = ?, planeta_alvo = ?, origem_json_s3_key = ?
+                        WHERE id = ?
+                        """)) {
+            for (NeoObject neo : neos) {
+                Long id = null;
+                select.setString(1, neo.neoId);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (rs.next()) {
+                        id = rs.getLong(1);
+                    }
+                }
+
+                if (id == null) {
+                    insert.setString(1, neo.neoId);
+                    bindCampos(insert, 2, neo);
+                    insert.setObject(11, neo.criadoEm, Types.TIMESTAMP_WITH_TIMEZONE);
+                    insert.executeUpdate();
+                } else {
+                    bindCampos(update, 1, neo);
+                    update.setLong(10, id);
+                    update.executeUpdate();
+                }
+                n++;
+            }
+        }
+        conn.commit();
+        return n;
+    }
+
+    private static void bindCampos(PreparedStatement ps, int i, NeoObject n) throws SQLException {
+        ps.setString(i, n.nome);
+        ps.setObject(i + 1, n.magnitudeAbsoluta, Types.DOUBLE);
+        ps.setObject(i + 2, n.diametroMinM, Types.DOUBLE);
+        ps.setObject(i + 3, n.diametroMaxM, Types.DOUBLE);
+        ps.setBoolean(i + 4, n.ehPotencialmentePerigoso);
+        ps.setObject(i + 5, n.dataPrimeiraAproximacao, Types.TIMESTAMP_WITH_TIMEZONE);
+        ps.setObject(i + 6, n.velocidadeKmS, Types.DOUBLE);
+        ps.setString(i + 7, n.planetaAlvo);
+        ps.setString(i + 8, n.origemJsonS3Key);
+    }
+}
@@ -0,0 +1,139 @@
+package org.acme.ia.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import weka.classifiers.CostMatrix;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.classifiers.trees.RandomForest;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+/**
+ * Pontuação do modelo-ia ({@link MLInferenceService#predict} e
+ * {@link MLInferenceService#predictLote}) com um modelo treinado no setup
+ * do mesmo jeito que o {@link MLTrainingService} (RandomForest dentro de
+ * CostSensitiveClassifier), sem S3.
+ *
+ * {@code pontuacao} escolhe o caminho: {@code compilada} publica o
+ * snapshot com a {@link FlorestaCompilada}, {@code weka} sem ela. As
+ * entradas têm ~5% de valores faltantes, como no aquecimento. O score do
+ * {@code predict} é por linha; o do {@code predictLote}, por lote.
+ *
+ * Fica no pacote do serviço porque a montagem do snapshot
+ * ({@code publicar}, campos de config) é package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InferenciaBenchmark {
+
+    private static final int ENTRADAS = 4096;
+
+    @Param({ "100" })
+    int arvores;
+
+    @Param({ "compilada", "weka" })
+    String pontuacao;
+
+    private MLInferenceService service;
+    private List<MLInferenceService.FeaturesInput> entradas;
+    private int proxima;
+
+    /** Lote do {@code predictLote}, em estado próprio para o parâmetro não multiplicar o {@code predict}. */
+    @State(Scope.Benchmark)
+    public static class Lote {
+        @Param({ "1000", "10000" })
+        int linhas;
+
+        List<MLInferenceService.FeaturesInput> entradas;
+
+        @Setup(Level.Trial)
+        public void montar(InferenciaBenchmark bench) {
+            entradas = new ArrayList<>(linhas);
+            for (int i = 0; i < linhas; i++) {
+                entradas.add(bench.entradas.get(i % ENTRADAS));
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void treinar() throws Exception {
+        Random rnd = new Random(42);
+        Instances treino = DatasetColunar.cabecalho(5000);
+        for (int i = 0; i < 5000; i++) {
+            double diametro = rnd.nextDouble() * 1000;
+            double velocidade = rnd.nextDouble() * 40;
+            boolean perigoso = diametro > 400 && velocidade > 15 || rnd.nextInt(10) == 0;
+            treino.add(new DenseInstance(1.0, new double[] {
+                    15 + rnd.nextDouble() * 15, diametro, diametro * 2, velocidade, perigoso ? 1 : 0 }));
+        }
+        RandomForest rf = new RandomForest();
+        rf.setNumIterations(arvores);
+        rf.setSeed(123);
+        CostMatrix custo = new CostMatrix(2);
+        custo.setCell(1, 0, 15.0);
+        custo.setCell(0, 1, 3.0);
+        CostSensitiveClassifier csc = new CostSensitiveClassifier();
+        csc.setClassifier(rf);
+        csc.setCostMatrix(custo);
+        csc.setMinimizeExpectedCost(false);
+        csc.buildClassifier(treino);
+
+        service = new MLInferenceService();
+        service.TAU = 0.5;
+        service.instanciasAquecimento = 1000;
+        service.tamanhoBloco = 512;
+        service.registry = new SimpleMeterRegistry();
+        service.init(); // sem S3: só sobe o pool de pontuação
+        FlorestaCompilada floresta = "compilada".equals(pontuacao) ? FlorestaCompilada.compilar(csc) : null;
+        service.publicar(ModeloSnapshot.de(csc, floresta, new Instances(treino, 0), 0.5, "models/bench"));
+
+        entradas = new ArrayList<>(ENTRADAS);
+        for (int i = 0; i < ENTRADAS; i++) {
+            MLInferenceService.FeaturesInput f = new MLInferenceService.FeaturesInput();
+            f.magnitudeAbsoluta = rnd.nextInt(20) == 0 ? null : 15 + rnd.nextDouble() * 15;
+            f.diametroMinM = rnd.nextInt(20) == 0 ? null : rnd.nextDouble() * 1000;
+            f.diametroMaxM = f.diametroMinM == null ? null : f.diametroMinM * 2;
+            f.velocidadeKmS = rnd.nextInt(20) == 0 ? null : rnd.nextDouble() * 40;
+            entradas.add(f);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        service.encerrar();
+    }
+
+    @Benchmark
+    public MLInferenceService.PredictionResult predict() throws Exception {
+        proxima = (proxima + 1) & (ENTRADAS - 1);
+        return service.predict(entradas.get(proxima));
+    }
+
+    @Benchmark
+    public MLInferenceService.PredictionBatchResult predictLote(Lote lote) throws Exception {
+        return service.predictLote(lote.entradas);
+    }
+}
@@ -3,11 +3,19 @@ let diameterHistogram, velocityScatter, distanceScatter, monthlyApproaches, corr
 
 async function loadAnalytics() {
     try {
-        const neos = await fetchAPI(API.getNeos(0, 200)); // Load more data for better analytics
+        // Agregados do catálogo inteiro vêm prontos do servidor (/api/neos/stats);
+        // a página de NEOs só alimenta os gráficos de dispersão.
+        const [resumo, histograma, mensal, correlacoes, amostra] = await Promise.all([
+            fetchAPI(API.statsResumo()),
+            fetchAPI(API.statsHistograma('diametroMaxM')),
+            fetchAPI(API.statsMensal()),
+            fetchAPI(API.statsCorrelacoes()),
+            fetchAPI(API.getNeos(0, 200))
+        ]);
         
-        updateAdvancedStats(neos);
-        initializeCharts(neos);
-        updateStatsTable(neos);
+        updateAdvancedStats(resumo);
+        initializeCharts(histograma, mensal, correlacoes, amostra);
+        updateStatsTable(resumo);
         
     } catch (error) {
         console.error('Error loading analytics:', error);
@@ -15,22 +23,19 @@ async function loadAnalytics() {
     }
 }
 
-function updateAdvancedStats(neos) {
-    // Calculate average diameter
-    const diameters = neos.map(n => n.diametroMaxM || 0);
-    const avgDiameter = diameters.reduce((a, b) => a + b, 0) / diameters.length;
-    
-    // Calculate average velocity
-    const velocities = neos.map(n => parseFloat(n.velocidadeKmS || 0) * 3600);
-    const avgVelocity = velocities.reduce((a, b) => a + b, 0) / velocities.length;
+function grupoResumo(resumo, grupo) {
+    return resumo.find(r => r.grupo === grupo) || { total: 0, proporcaoPerigosos: 0 };
+}
+
+function updateAdvancedStats(resumo) {
+    const todos = grupoResumo(resumo, 'todos');
+    const avgDiameter = todos.diametroMedioM || 0;
+    const avgVelocity = (todos.velocidadeMediaKmS || 0) * 3600;
     
     // Mock closest distance
-    const avgDiameterForDistance = diameters.reduce((a, b) => a + b, 0) / diameters.length;
-    const closestDistance = avgDiameterForDistance * 50000;
+    const closestDistance = avgDiameter * 50000;
     
-    // Calculate risk score (simple formula for demonstration)
-    const dangerousCount = neos.filter(n => n.ehPotencialmentePerigoso).length;
-    const riskScore = (dangerousCount / neos.length * 100).toFixed(1);
+    const riskScore = (todos.proporcaoPerigosos * 100).toFixed(1);
     
     document.getElementById('avgDiameter').textContent = utils.formatNumber(avgDiameter);
     document.getElementById('avgVelocity').textContent = utils.formatNumber(avgVelocity);
@@ -38,30 +43,18 @@ function updateAdvancedStats(neos) {
     document.getElementById('riskScore').textContent = riskScore + '%';
 }
 
-function initializeCharts(neos) {
-    createDiameterHistogram(neos);
-    createVelocityScatter(neos);
-    createDistanceScatter(neos);
-    createMonthlyApproaches(neos);
-    createCorrelationMatrix(neos);
+function initializeCharts(histograma, mensal, correlacoes, amostra) {
+    createDiameterHistogram(histograma);
+    createVelocityScatter(amostra);
+    createDistanceScatter(amostra);
+    createMonthlyApproaches(mensal);
+    createCorrelationMatrix(correlacoes);
 }
 
-function createDiameterHistogram(neos) {
+function createDiameterHistogram(histograma) {
     const ctx = document.getElementById('diameterHistogram').getContext('2d');
     
-    // Bin diameters into ranges
-    const diameters = neos.map(n => n.diametroMaxM || 0);
-    const bins = [0, 50, 100, 200, 500, 1000, 2000, 5000];
-    const binCounts = new Array(bins.length - 1).fill(0);
-    
-    diameters.forEach(d => {
-        for (let i = 0; i < bins.length - 1; i++) {
-            if (d >= bins[i] && d < bins[i + 1]) {
-                binCounts[i]++;
-                break;
-            }
-        }
-    });
+    const bins = histograma.limites;
     
     diameterHistogram = new Chart(ctx, {
         type: 'bar',
@@ -69,7 +62,7 @@ function createDiameterHistogram(neos) {
             labels: bins.slice(0, -1).map((b, i) => `${b}-${bins[i + 1]}m`),
             datasets: [{
                 label: 'Número de NEOs',
-                data: binCounts,
+                data: histograma.contagens,
                 backgroundColor: chartColors.primary,
                 borderRadius: 6
             }]
@@ -205,21 +198,12 @@ function createDistanceScatter(neos) {
     });
 }
 
-function createMonthlyApproaches(neos) {
+function createMonthlyApproaches(mensal) {
     const ctx = document.getElementById('monthlyApproaches').getContext('2d');
     
-    // Group by month
-    const monthCounts = {};
-    neos.forEach(n => {
-        const date = n.dataPrimeiraAproximacao;
-        if (date) {
-            const month = date.substring(0, 7); // YYYY-MM
-            monthCounts[month] = (monthCounts[month] || 0) + 1;
-        }
-    });
-    
-    const sortedMonths = Object.keys(monthCounts).sort();
-    const counts = sortedMonths.map(m => monthCounts[m]);
+    // Já vem agrupado por mês (YYYY-MM) e em ordem cronológica
+    const sortedMonths = mensal.map(m => m.mes);
+    const counts = mensal.map(m => m.total);
     
     monthlyApproaches = new Chart(ctx, {
         type: 'line',
@@ -254,30 +238,29 @@ function createMonthlyApproaches(neos) {
     });
 }
 
-function createCorrelationMatrix(neos) {
+function createCorrelationMatrix(correlacoes) {
     const ctx = document.getElementById('correlationMatrix').getContext('2d');
     
-    // Mock correlation data for demonstration
-    const features = ['Diâmetro', 'Velocidade', 'Distância', 'Perigo'];
-    const correlationData = [
-        [1.0, 0.45, -0.23, 0.67],
-        [0.45, 1.0, -0.15, 0.52],
-        [-0.23, -0.15, 1.0, -0.38],
-        [0.67, 0.52, -0.38, 1.0]
-    ];
+    // Linha da flag de perigo na matriz de Pearson calculada no servidor
+    const nomes = {
+        magnitudeAbsoluta: 'Magnitude',
+        diametroMinM: 'Diâmetro mín.',
+        diametroMaxM: 'Diâmetro',
+        velocidadeKmS: 'Velocidade'
+    };
+    const iPerigo = correlacoes.variaveis.indexOf('ehPotencialmentePerigoso');
+    const pares = correlacoes.variaveis
+        .map((v, i) => ({ label: `${nomes[v] || v}-Perigo`, valor: correlacoes.matriz[iPerigo][i] }))
+        .filter((p, i) => i !== iPerigo && correlacoes.variaveis[i] !== 'diametroMinM');
     
     correlationMatrix = new Chart(ctx, {
         type: 'bar',
         data: {
-            labels: ['Diâmetro-Perigo', 'Velocidade-Perigo', 'Distância-Perigo'],
+            labels: pares.map(p => p.label),
             datasets: [{
                 label: 'Correlação',
-                data: [0.67, 0.52, -0.38],
-                backgroundColor: [
-                    chartColors.success,
-                    chartColors.warning,
-                    chartColors.danger
-                ],
+                data: pares.map(p => p.valor),
+                backgroundColor: pares.map(p => (p.valor || 0) >= 0 ? chartColors.success : chartColors.danger),
                 borderRadius: 6
             }]
         },
@@ -299,31 +282,25 @@ function createCorrelationMatrix(neos) {
     });
 }
 
-function updateStatsTable(neos) {
+function updateStatsTable(resumo) {
     const tbody = document.getElementById('statsTableBody');
     
-    const dangerous = neos.filter(n => n.ehPotencialmentePerigoso);
-    const safe = neos.filter(n => !n.ehPotencialmentePerigoso);
-    
-    const calcStats = (subset) => {
-        const diameters = subset.map(n => n.diametroMaxM || 0);
-        const velocities = subset.map(n => parseFloat(n.velocidadeKmS || 0) * 3600);
-        const distances = subset.map(n => (n.diametroMaxM || 0) * 100000);
-        
+    const calcStats = (grupo) => {
+        const r = grupoResumo(resumo, grupo);
         return {
-            count: subset.length,
-            avgDiameter: diameters.reduce((a, b) => a + b, 0) / diameters.length,
-            maxDiameter: Math.max(...diameters),
-            avgVelocity: velocities.reduce((a, b) => a + b, 0) / velocities.length,
-            maxVelocity: Math.max(...velocities),
-            minDistance: Math.min(...distances.filter(d => d > 0)),
-            avgDistance: distances.reduce((a, b) => a + b, 0) / distances.length
+            count: r.total,
+            avgDiameter: r.diametroMedioM,
+            maxDiameter: r.maiorDiametroM,
+            avgVelocity: r.velocidadeMediaKmS != null ? r.velocidadeMediaKmS * 3600 : null,
+            maxVelocity: r.maiorVelocidadeKmS != null ? r.maiorVelocidadeKmS * 3600 : null,
+            minDistance: r.menorDiametroM != null ? r.menorDiametroM * 100000 : null,
+            avgDistance: r.diametroMedioM != null ? r.diametroMedioM * 100000 : null
         };
     };
     
-    const allStats = calcStats(neos);
-    const dangerStats = calcStats(dangerous);
-    const safeStats = calcStats(safe);
+    const allStats = calcStats('todos');
+    const dangerStats = calcStats('perigosos');
+    const safeStats = calcStats('seguros');
     
     tbody.innerHTML = `
         <tr>
@@ -14,7 +14,28 @@ const API = {
         }
         return url;
     },
+    // Paginação por cursor: sem 'pagina', o token da próxima página vem em X-Next-Cursor
+    getNeosCursor: (cursor = null, size = 20, dangerous = null) => {
+        let url = `${API_CONFIG.NEO_CORE_URL}/api/neos?tamanho=${size}`;
+        if (cursor) {
+            url += `&cursor=${encodeURIComponent(cursor)}`;
+        }
+        if (dangerous !== null) {
+            url += `&perigoso=${dangerous}`;
+        }
+        return url;
+    },
     getNeoById: (id) => `${API_CONFIG.NEO_CORE_URL}/api/neos/${id}`,
+    statsResumo: () => `${API_CONFIG.NEO_CORE_URL}/api/neos/stats/resumo`,
+    statsHistograma: (campo, limites = null) => {
+        let url = `${API_CONFIG.NEO_CORE_URL}/api/neos/stats/histograma?campo=${campo}`;
+        if (limites) {
+            url += `&limites=${limites.join(',')}`;
+        }
+        return url;
+    },
+    statsMensal: () => `${API_CONFIG.NEO_CORE_URL}/api/neos/stats/mensal`,
+    statsCorrelacoes: () => `${API_CONFIG.NEO_CORE_URL}/api/neos/stats/correlacoes`,
     
     // ML Service endpoints
     trainModel: () => `${API_CONFIG.ML_SERVICE_URL}/ml/train`,
@@ -97,6 +118,28 @@ async function fetchAPI(url, options = {}) {
     }
 }
 
+// Like fetchAPI, also returning the next-page cursor (X-Next-Cursor header)
+async function fetchPagina(url) {
+    try {
+        const response = await fetch(url, {
+            headers: { 'Content-Type': 'application/json' }
+        });
+        
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+        
+        return {
+            itens: await response.json(),
+            proximoCursor: response.headers.get('X-Next-Cursor')
+        };
+    } catch (error) {
+        console.error('API Error:', error);
+        utils.showToast('Erro ao conectar com a API: ' + error.message, 'error');
+        throw error;
+    }
+}
+
 // Chart.js default configuration
 Chart.defaults.color = '#cbd5e1';
 Chart.defaults.borderColor = '#334155';
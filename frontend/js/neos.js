@@ -1,5 +1,8 @@
 // NEOs page logic
 let currentPage = 0;
+// cursores[i] = token da página i (null na primeira); o próximo vem do servidor
+let cursores = [null];
+let proximoCursor = null;
 let pageSize = 20;
 let filterDanger = '';
 let filterName = '';
@@ -14,8 +17,11 @@ async function loadNeos() {
             </div>
         `;
         
-        const neos = await fetchAPI(API.getNeos(currentPage, pageSize, filterDanger !== '' ? filterDanger : null));
+        const pagina = await fetchPagina(API.getNeosCursor(cursores[currentPage], pageSize,
+            filterDanger !== '' ? filterDanger : null));
+        const neos = pagina.itens;
         allNeos = neos;
+        proximoCursor = pagina.proximoCursor;
         
         displayNeos(neos);
         updatePagination();
@@ -99,7 +105,7 @@ function updatePagination() {
     document.getElementById('totalPages').textContent = '?'; // Unknown total pages
     
     document.getElementById('prevBtn').disabled = currentPage === 0;
-    document.getElementById('nextBtn').disabled = allNeos.length < pageSize;
+    document.getElementById('nextBtn').disabled = !proximoCursor;
 }
 
 function previousPage() {
@@ -110,8 +116,9 @@ function previousPage() {
 }
 
 function nextPage() {
-    if (allNeos.length >= pageSize) {
+    if (proximoCursor) {
         currentPage++;
+        cursores[currentPage] = proximoCursor;
         loadNeos();
     }
 }
@@ -121,6 +128,7 @@ function applyFilters() {
     filterName = document.getElementById('filterName').value;
     pageSize = parseInt(document.getElementById('pageSize').value);
     currentPage = 0;
+    cursores = [null];
     loadNeos();
 }
 
@@ -132,6 +140,7 @@ function clearFilters() {
     filterName = '';
     pageSize = 20;
     currentPage = 0;
+    cursores = [null];
     loadNeos();
 }
 
@@ -189,6 +198,12 @@ async function showNeoDetails(id) {
                     <strong>Magnitude Absoluta:</strong>
                     <span>${neo.magnitudeAbsoluta || '-'}</span>
                 </div>
+                <div class="info-item">
+                    <strong>Probabilidade (modelo):</strong>
+                    <span>${neo.probabilidadePerigo != null
+                        ? utils.formatNumber(neo.probabilidadePerigo * 100) + '% (' + neo.versaoModelo + ')'
+                        : '-'}</span>
+                </div>
             </div>
         `;
         
@@ -0,0 +1,90 @@
+package org.acme.ia.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.SdkHttpHeaders;
+
+/**
+ * Latência e bytes de cada chamada do {@link S3ClientProducer cliente S3},
+ * por operação do SDK ({@code PutObject}, {@code GetObject},
+ * {@code ListObjectsV2}...), com os mesmos nomes que o neo-core usa nos
+ * uploads dele ({@code org.acme.service.MetricasNeo}):
+ *
+ * <ul>
+ * <li>{@code s3.requisicoes}: timer com {@code operacao} e {@code resultado}
+ * ({@code sucesso}/{@code erro}), com histograma para os percentis;</li>
+ * <li>{@code s3.bytes}: Content-Length enviado no {@code PutObject} e recebido
+ * no {@code GetObject}.</li>
+ * </ul>
+ */
+public class MetricasS3Interceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> INICIO = new ExecutionAttribute<>("neo.metricas.inicio");
+
+    private final MeterRegistry registry;
+
+    public MetricasS3Interceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes atributos) {
+        atributos.putAttribute(INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes atributos) {
+        String operacao = atributos.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        registrar(operacao, "sucesso", atributos);
+        if ("PutObject".equals(operacao)) {
+            bytes(operacao, context.httpRequest());
+        } else if ("GetObject".equals(operacao)) {
+            bytes(operacao, context.httpResponse());
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes atributos) {
+        registrar(atributos.getAttribute(SdkExecutionAttribute.OPERATION_NAME), "erro", atributos);
+    }
+
+    private void registrar(String operacao, String resultado, ExecutionAttributes atributos) {
+        Long inicio = atributos.getAttribute(INICIO);
+        if (inicio == null) {
+            return;
+        }
+        Timer.builder("s3.requisicoes")
+                .description("Chamadas ao S3/MinIO")
+                .tag("operacao", operacao == null ? "desconhecida" : operacao)
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(registry)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    private void bytes(String operacao, SdkHttpHeaders cabecalhos) {
+        cabecalhos.firstMatchingHeader("Content-Length").ifPresent(valor -> {
+            try {
+                DistributionSummary.builder("s3.bytes")
+                        .description("Bytes enviados (PutObject) e recebidos (GetObject)")
+                        .baseUnit("bytes")
+                        .tag("operacao", operacao)
+                        .register(registry)
+                        .record(Long.parseLong(valor));
+            } catch (NumberFormatException e) {
+                // sem tamanho conhecido (chunked): só a latência é registrada
+            }
+        });
+    }
+}
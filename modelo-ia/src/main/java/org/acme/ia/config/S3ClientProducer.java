@@ -3,8 +3,11 @@ import java.net.URI;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
@@ -29,6 +32,10 @@ public class S3ClientProducer {
     @ConfigProperty(name = "minio.region")
     String region;
 
+    // latência e bytes por operação (s3.requisicoes / s3.bytes), ver MetricasS3Interceptor
+    @Inject
+    MeterRegistry registry;
+
     @Produces
     @ApplicationScoped
     public S3Client s3Client() {
@@ -42,6 +49,7 @@ public class S3ClientProducer {
             .credentialsProvider(StaticCredentialsProvider.create(
                 AwsBasicCredentials.create(accessKey, secretKey)))
             .httpClientBuilder(UrlConnectionHttpClient.builder())
+            .overrideConfiguration(c -> c.addExecutionInterceptor(new MetricasS3Interceptor(registry)))
             .build();
     }
 }
@@ -1,13 +1,28 @@
 package org.acme.ia.controller;
 
+import java.io.InputStream;
+import java.net.URI;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 
+import org.acme.ia.service.AjusteJob;
+import org.acme.ia.service.AjusteModeloService;
 import org.acme.ia.service.MLInferenceService;
 import org.acme.ia.service.MLTrainingService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 
 @Path("/ml")
 @Produces(MediaType.APPLICATION_JSON)
@@ -16,6 +31,11 @@ public class MLResource {
 
     @Inject MLTrainingService training;
     @Inject MLInferenceService inference;
+    @Inject AjusteModeloService ajuste;
+    @Inject ObjectMapper mapper;
+
+    @ConfigProperty(name = "ml.predict.lote.max-linhas", defaultValue = "100000")
+    int maxLinhasLote;
 
     @POST
     @Path("/train/all")
@@ -23,6 +43,13 @@ public class MLResource {
         return training.treinarComTodosBuckets();
     }
 
+    /** Só os arquivos ainda fora do models/manifest.json, somando árvores ao último modelo. */
+    @POST
+    @Path("/train/incremental")
+    public MLTrainingService.TrainingResult treinarIncremental() throws Exception {
+        return training.treinarIncremental();
+    }
+
     @POST
     @Path("/train")
     public MLTrainingService.TrainingResult treinar(TrainRequest req) throws Exception {
@@ -32,6 +59,29 @@ public class MLResource {
         return training.treinar(req.inicio, req.fim);
     }
 
+    /**
+     * Enfileira a busca de hiperparâmetros e retorna 202 com o job; o
+     * andamento e as tentativas ficam em GET /ml/tune/{id}.
+     */
+    @POST
+    @Path("/tune")
+    public Response ajustar(AjusteModeloService.Requisicao req, @Context UriInfo uriInfo) {
+        AjusteJob job;
+        try {
+            job = ajuste.submeter(req);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        URI status = uriInfo.getAbsolutePathBuilder().path(job.id).build();
+        return Response.accepted(job).location(status).build();
+    }
+
+    @GET
+    @Path("/tune/{id}")
+    public AjusteJob statusAjuste(@PathParam("id") String id) {
+        return ajuste.buscar(id).orElseThrow(() -> new NotFoundException("Ajuste não encontrado"));
+    }
+
     @POST
     @Path("/reload")
     public String reload() throws Exception {
@@ -45,6 +95,45 @@ public class MLResource {
         return inference.predict(in);
     }
 
+    // ===== predição em lote: array JSON ou NDJSON (um FeaturesInput por linha) =====
+    @POST
+    @Path("/predict/batch")
+    public MLInferenceService.PredictionBatchResult predictBatch(List<MLInferenceService.FeaturesInput> linhas)
+            throws Exception {
+        if (linhas == null || linhas.isEmpty()) {
+            throw new BadRequestException("Informe ao menos uma linha de features.");
+        }
+        validarTamanho(linhas.size());
+        return inference.predictLote(linhas);
+    }
+
+    @POST
+    @Path("/predict/batch")
+    @Consumes("application/x-ndjson")
+    public MLInferenceService.PredictionBatchResult predictBatchNdjson(InputStream corpo) throws Exception {
+        List<MLInferenceService.FeaturesInput> linhas = new ArrayList<>();
+        try (MappingIterator<MLInferenceService.FeaturesInput> it = mapper
+                .readerFor(MLInferenceService.FeaturesInput.class).readValues(corpo)) {
+            while (it.hasNext()) {
+                linhas.add(it.next());
+                validarTamanho(linhas.size());
+            }
+        } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+            throw new BadRequestException("NDJSON inválido na linha " + (linhas.size() + 1) + ": "
+                    + e.getMessage());
+        }
+        if (linhas.isEmpty()) {
+            throw new BadRequestException("Informe ao menos uma linha de features.");
+        }
+        return inference.predictLote(linhas);
+    }
+
+    private void validarTamanho(int linhas) {
+        if (linhas > maxLinhasLote) {
+            throw new BadRequestException("Lote acima do limite de " + maxLinhasLote + " linhas.");
+        }
+    }
+
     // ===== DTO de entrada do /train =====
     public static class TrainRequest {
         public LocalDate inicio;
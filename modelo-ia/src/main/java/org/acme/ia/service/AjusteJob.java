@@ -0,0 +1,93 @@
+package org.acme.ia.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Job do /ml/tune: estado, andamento e o resultado de cada tentativa,
+ * serializado direto no GET /ml/tune/{id}.
+ */
+public class AjusteJob {
+
+    public enum Status { PENDENTE, EXECUTANDO, CONCLUIDO, FALHOU }
+
+    /**
+     * Uma combinação avaliada. {@code threshold} e {@code custo} são os do
+     * melhor threshold para essa floresta na validação.
+     */
+    public record Tentativa(int arvores, int profundidade, double pesoFn, double threshold, double custo,
+            double auc, long treinoMs) {
+    }
+
+    public final String id = UUID.randomUUID().toString();
+    public final Instant criadoEm = Instant.now();
+    public volatile Instant iniciadoEm;
+    public volatile Instant finalizadoEm;
+    public volatile Status status = Status.PENDENTE;
+    public volatile String erro;
+    public volatile int totalTentativas;
+    public volatile Integer instanciasTreino;
+    public volatile Integer instanciasValidacao;
+    /** Configuração vencedora e o modelo gravado com ela. */
+    public volatile ConfiguracaoModelo melhor;
+    public volatile String modelKey;
+
+    private final AtomicInteger concluidas = new AtomicInteger();
+    private final List<Tentativa> tentativas = new ArrayList<>();
+
+    public void iniciar() {
+        iniciadoEm = Instant.now();
+        status = Status.EXECUTANDO;
+    }
+
+    public void registrar(Tentativa t) {
+        synchronized (tentativas) {
+            tentativas.add(t);
+        }
+        concluidas.incrementAndGet();
+    }
+
+    public void concluir(ConfiguracaoModelo melhor, String modelKey) {
+        this.melhor = melhor;
+        this.modelKey = modelKey;
+        finalizadoEm = Instant.now();
+        status = Status.CONCLUIDO;
+    }
+
+    public void falhar(String mensagem) {
+        finalizadoEm = Instant.now();
+        erro = mensagem;
+        status = Status.FALHOU;
+    }
+
+    @JsonProperty
+    public int getTentativasConcluidas() {
+        return concluidas.get();
+    }
+
+    /** Tentativas concluídas, da de menor custo para a de maior. */
+    @JsonProperty
+    public List<Tentativa> getTentativas() {
+        synchronized (tentativas) {
+            List<Tentativa> ordenadas = new ArrayList<>(tentativas);
+            ordenadas.sort(Comparator.comparingDouble(Tentativa::custo));
+            return ordenadas;
+        }
+    }
+
+    @JsonProperty
+    public Long getDuracaoMs() {
+        if (iniciadoEm == null) {
+            return null;
+        }
+        Instant ate = finalizadoEm != null ? finalizadoEm : Instant.now();
+        return Duration.between(iniciadoEm, ate).toMillis();
+    }
+}
@@ -0,0 +1,330 @@
+package org.acme.ia.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.core.Instances;
+
+/**
+ * Busca de hiperparâmetros (/ml/tune): número de árvores, profundidade
+ * máxima e peso do custo de falso negativo no treino, em grade ou numa
+ * amostra aleatória dela ({@code maxTentativas}).
+ *
+ * O histórico é carregado e dividido (70/30) uma vez só; as tentativas
+ * rodam em paralelo sobre o mesmo {@link Instances} de treino, que o Weka
+ * só lê (o CostSensitiveClassifier copia antes de repesar). Para cada
+ * floresta o threshold não precisa de novo treino: as probabilidades da
+ * validação são ordenadas uma vez e todos os cortes avaliados, ficando o
+ * de menor {@code ml.cost.fn * FN + ml.cost.fp * FP}.
+ *
+ * A vencedora vai para {@link ConfiguracaoModelo#KEY} e o job termina com
+ * um /ml/train/all, que já treina com ela; daí em diante todo treino usa
+ * a configuração ajustada. Os últimos {@code ml.tune.jobs-retidos} jobs
+ * finalizados continuam consultáveis.
+ */
+@ApplicationScoped
+public class AjusteModeloService {
+
+    private static final int SEED = 123;
+
+    @Inject
+    MLTrainingService treino;
+
+    @ConfigProperty(name = "ml.cost.fn", defaultValue = "15.0")
+    double custoFn;
+
+    @ConfigProperty(name = "ml.cost.fp", defaultValue = "3.0")
+    double custoFp;
+
+    @ConfigProperty(name = "ml.tune.threads", defaultValue = "0")
+    int threads;
+
+    @ConfigProperty(name = "ml.tune.arvores", defaultValue = "50,100,200")
+    List<Integer> arvores;
+
+    @ConfigProperty(name = "ml.tune.profundidades", defaultValue = "0,8,16")
+    List<Integer> profundidades;
+
+    @ConfigProperty(name = "ml.tune.pesos-fn", defaultValue = "1,3,5,10")
+    List<Double> pesosFn;
+
+    @ConfigProperty(name = "ml.tune.max-tentativas", defaultValue = "0")
+    int maxTentativas;
+
+    @ConfigProperty(name = "ml.tune.jobs-retidos", defaultValue = "50")
+    int jobsRetidos;
+
+    private final Map<String, AjusteJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        // um ajuste por vez: cada um já ocupa todos os núcleos
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(4), r -> {
+            Thread t = new Thread(r, "ml-tune");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /** Espaço de busca; listas nulas ou vazias usam as de {@code ml.tune.*}. */
+    public static class Requisicao {
+        public List<Integer> arvores;
+        public List<Integer> profundidades;
+        public List<Double> pesosFn;
+        public Integer maxTentativas;
+    }
+
+    record Combinacao(int arvores, int profundidade, double pesoFn) {
+    }
+
+    public AjusteJob submeter(Requisicao req) {
+        Requisicao r = req == null ? new Requisicao() : req;
+        List<Combinacao> combinacoes = combinacoes(
+                ouPadrao(r.arvores, arvores), ouPadrao(r.profundidades, profundidades), ouPadrao(r.pesosFn, pesosFn),
+                r.maxTentativas != null ? r.maxTentativas : maxTentativas);
+
+        AjusteJob job = new AjusteJob();
+        job.totalTentativas = combinacoes.size();
+        try {
+            executor.execute(() -> executar(job, combinacoes));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Já há ajustes demais na fila; tente novamente mais tarde.", 60L);
+        }
+        jobs.put(job.id, job);
+        descartarAntigos();
+        Log.infof("Ajuste %s enfileirado: %d tentativas", job.id, combinacoes.size());
+        return job;
+    }
+
+    public Optional<AjusteJob> buscar(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /** Mantém no máximo {@code jobsRetidos} jobs finalizados, removendo os mais antigos. */
+    private void descartarAntigos() {
+        long finalizados = jobs.values().stream().filter(j -> j.finalizadoEm != null).count();
+        if (finalizados <= jobsRetidos) {
+            return;
+        }
+        Iterator<AjusteJob> antigos = jobs.values().stream()
+                .filter(j -> j.finalizadoEm != null)
+                .sorted(Comparator.comparing(j -> j.criadoEm))
+                .limit(finalizados - jobsRetidos)
+                .iterator();
+        antigos.forEachRemaining(j -> jobs.remove(j.id));
+    }
+
+    private static <T> List<T> ouPadrao(List<T> valores, List<T> padrao) {
+        return valores == null || valores.isEmpty() ? padrao : valores;
+    }
+
+    /** Grade completa, ou {@code max} combinações sorteadas dela (seed fixa). */
+    static List<Combinacao> combinacoes(List<Integer> arvores, List<Integer> profundidades, List<Double> pesosFn,
+            int max) {
+        List<Combinacao> grade = new ArrayList<>();
+        for (int a : arvores) {
+            for (int p : profundidades) {
+                for (double w : pesosFn) {
+                    if (a < 1 || p < 0 || w <= 0) {
+                        throw new IllegalArgumentException("Combinação inválida: árvores=" + a
+                                + ", profundidade=" + p + ", pesoFn=" + w);
+                    }
+                    grade.add(new Combinacao(a, p, w));
+                }
+            }
+        }
+        if (max > 0 && max < grade.size()) {
+            Collections.shuffle(grade, new Random(SEED));
+            return new ArrayList<>(grade.subList(0, max));
+        }
+        return grade;
+    }
+
+    private void executar(AjusteJob job, List<Combinacao> combinacoes) {
+        job.iniciar();
+        int paralelas = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(paralelas, r -> {
+            Thread t = new Thread(r, "ml-tune-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Instances all = treino.carregarHistorico();
+            MLTrainingService.StratifiedSplit split = treino.dividirTreinoTeste(all);
+            job.instanciasTreino = split.train.numInstances();
+            job.instanciasValidacao = split.test.numInstances();
+
+            List<Future<AjusteJob.Tentativa>> emAndamento = new ArrayList<>(combinacoes.size());
+            for (Combinacao c : combinacoes) {
+                emAndamento.add(pool.submit(() -> {
+                    AjusteJob.Tentativa t = avaliar(split.train, split.test, c);
+                    job.registrar(t);
+                    return t;
+                }));
+            }
+            AjusteJob.Tentativa melhor = null;
+            for (Future<AjusteJob.Tentativa> f : emAndamento) {
+                AjusteJob.Tentativa t = aguardar(f);
+                if (melhor == null || t.custo() < melhor.custo()) {
+                    melhor = t; // no empate fica a primeira na ordem da grade
+                }
+            }
+
+            ConfiguracaoModelo cfg = new ConfiguracaoModelo(melhor.arvores(), melhor.profundidade(),
+                    melhor.pesoFn(), melhor.threshold(), melhor.custo(), Instant.now());
+            treino.gravarJson(ConfiguracaoModelo.KEY, cfg);
+            Log.infof("Ajuste %s: vencedora %s; treinando modelo com ela", job.id, cfg);
+
+            MLTrainingService.TrainingResult modelo = treino.treinarComTodosBuckets();
+            job.concluir(cfg, modelo.modelKey);
+            Log.infof("Ajuste %s concluído em %d ms: %s", job.id, job.getDuracaoMs(), modelo.modelKey);
+        } catch (Exception e) {
+            Log.errorf(e, "Ajuste %s falhou", job.id);
+            job.falhar(e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private AjusteJob.Tentativa avaliar(Instances treinoSplit, Instances validacao, Combinacao c) throws Exception {
+        long t0 = System.nanoTime();
+        ConfiguracaoModelo cfg = new ConfiguracaoModelo(c.arvores(), c.profundidade(), c.pesoFn(), 0, 0, null);
+        // uma thread por tentativa: o paralelismo está entre as tentativas
+        CostSensitiveClassifier csc = treino.novoModelo(treinoSplit, c.arvores(), SEED, 1, cfg);
+        csc.buildClassifier(treinoSplit);
+        long treinoMs = (System.nanoTime() - t0) / 1_000_000;
+
+        int idxTrue = validacao.classAttribute().indexOfValue("true");
+        double[] p = new double[validacao.numInstances()];
+        boolean[] y = new boolean[p.length];
+        for (int i = 0; i < p.length; i++) {
+            p[i] = csc.distributionForInstance(validacao.instance(i))[idxTrue];
+            y[i] = (int) validacao.instance(i).classValue() == idxTrue;
+        }
+        Limiar limiar = melhorThreshold(p, y, custoFn, custoFp);
+        return new AjusteJob.Tentativa(c.arvores(), c.profundidade(), c.pesoFn(), limiar.threshold(),
+                limiar.custo(), auc(p, y), treinoMs);
+    }
+
+    private static <T> T aguardar(Future<T> f) throws Exception {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        }
+    }
+
+    record Limiar(double threshold, double custo) {
+    }
+
+    /**
+     * Threshold de menor custo para as probabilidades {@code p} com rótulos
+     * {@code y} (perigoso se {@code p >= threshold}). Ordena uma vez e
+     * percorre os cortes entre valores distintos, do mais alto ao mais
+     * baixo; o threshold fica no meio do intervalo escolhido.
+     */
+    static Limiar melhorThreshold(double[] p, boolean[] y, double custoFn, double custoFp) {
+        int n = p.length;
+        int positivos = 0;
+        for (boolean perigoso : y) {
+            positivos += perigoso ? 1 : 0;
+        }
+        Integer[] idx = new Integer[n];
+        Arrays.setAll(idx, i -> i);
+        Arrays.sort(idx, (a, b) -> Double.compare(p[b], p[a]));
+
+        double fn = positivos;
+        double fp = 0;
+        double melhorCusto = fn * custoFn;
+        double melhorThreshold = n == 0 ? 1.0 : Math.nextUp(p[idx[0]]); // ninguém perigoso
+        int i = 0;
+        while (i < n) {
+            double v = p[idx[i]];
+            while (i < n && p[idx[i]] == v) {
+                if (y[idx[i]]) fn--;
+                else fp++;
+                i++;
+            }
+            double custo = fn * custoFn + fp * custoFp;
+            if (custo < melhorCusto) {
+                melhorCusto = custo;
+                melhorThreshold = i < n ? (v + p[idx[i]]) / 2 : 0.0;
+            }
+        }
+        return new Limiar(melhorThreshold, melhorCusto);
+    }
+
+    /** Custo de decidir por {@code p >= threshold}. */
+    static double custo(double[] p, boolean[] y, double threshold, double custoFn, double custoFp) {
+        double total = 0;
+        for (int i = 0; i < p.length; i++) {
+            boolean predito = p[i] >= threshold;
+            if (y[i] && !predito) total += custoFn;
+            else if (!y[i] && predito) total += custoFp;
+        }
+        return total;
+    }
+
+    /** Área sob a curva ROC pela estatística de Mann-Whitney (empates contam meio). */
+    static double auc(double[] p, boolean[] y) {
+        Integer[] idx = new Integer[p.length];
+        Arrays.setAll(idx, i -> i);
+        Arrays.sort(idx, (a, b) -> Double.compare(p[a], p[b]));
+        double somaPostos = 0;
+        long positivos = 0;
+        int i = 0;
+        while (i < idx.length) {
+            int j = i;
+            while (j < idx.length && p[idx[j]] == p[idx[i]]) {
+                j++;
+            }
+            double posto = (i + j + 1) / 2.0; // média dos postos i+1..j
+            for (int k = i; k < j; k++) {
+                if (y[idx[k]]) {
+                    somaPostos += posto;
+                    positivos++;
+                }
+            }
+            i = j;
+        }
+        long negativos = p.length - positivos;
+        if (positivos == 0 || negativos == 0) {
+            return Double.NaN;
+        }
+        return (somaPostos - positivos * (positivos + 1) / 2.0) / (positivos * negativos);
+    }
+}
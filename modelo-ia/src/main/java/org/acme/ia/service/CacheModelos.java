@@ -0,0 +1,94 @@
+package org.acme.ia.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+
+/**
+ * Cópia local dos artefatos de modelo, chaveada pelo ETag do S3.
+ *
+ * Cada objeto vira {@code <nome>-<etag><sufixo>} em
+ * {@code ml.modelo.cache-dir}. Se o arquivo já existe o conteúdo é o
+ * mesmo do bucket e nada é baixado, inclusive depois de um restart; se
+ * não existe, o download vai para um temporário no mesmo diretório (com
+ * {@code If-Match} no ETag, para não gravar outra versão sob esse nome) e
+ * só aparece com o nome final depois de completo.
+ */
+@ApplicationScoped
+public class CacheModelos {
+
+    @Inject
+    S3Client s3;
+
+    @ConfigProperty(name = "neo.minio.bucket")
+    String bucket;
+
+    @ConfigProperty(name = "ml.modelo.cache-dir", defaultValue = "${java.io.tmpdir}/neows-modelos")
+    Path diretorio;
+
+    /** Caminho local de {@code key}; baixa só se o ETag atual ainda não está em cache. */
+    public Path obter(String key) throws IOException {
+        String etag = s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build()).eTag();
+        Path local = diretorio.resolve(nomeLocal(key, etag));
+        if (Files.exists(local)) {
+            Log.debugf("%s (ETag %s) já está em cache: %s", key, etag, local);
+            return local;
+        }
+
+        Files.createDirectories(diretorio);
+        Path tmp = Files.createTempFile(diretorio, "download-", ".tmp");
+        try {
+            long t0 = System.nanoTime();
+            Files.delete(tmp); // getObject(…, Path) exige que o destino não exista
+            s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).ifMatch(etag).build(), tmp);
+            Files.move(tmp, local, StandardCopyOption.ATOMIC_MOVE);
+            Log.infof("%s baixado para o cache em %d ms (%d KB)", key, (System.nanoTime() - t0) / 1_000_000,
+                    Files.size(local) / 1024);
+            return local;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Remove do cache as versões de artefatos com {@code sufixo} que não são
+     * {@code manter}. Um arquivo ainda mapeado por um snapshot anterior some
+     * do diretório mas continua legível até o mapeamento ser liberado (no
+     * Windows a remoção falha e fica para a próxima limpeza).
+     */
+    public void limpar(String sufixo, Path manter) {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*" + sufixo)) {
+            for (Path p : arquivos) {
+                if (!p.equals(manter)) {
+                    try {
+                        Files.delete(p);
+                    } catch (IOException e) {
+                        Log.debugf("Não removi %s do cache: %s", p, e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.warnf("Falha ao limpar o cache de modelos em %s: %s", diretorio, e.getMessage());
+        }
+    }
+
+    /** {@code models/weka-rf-csc-1.forest} + ETag {@code "ab12"} → {@code weka-rf-csc-1-ab12.forest}. */
+    static String nomeLocal(String key, String etag) {
+        String nome = key.substring(key.lastIndexOf('/') + 1);
+        int ponto = nome.lastIndexOf('.');
+        String base = ponto > 0 ? nome.substring(0, ponto) : nome;
+        String sufixo = ponto > 0 ? nome.substring(ponto) : "";
+        return base + "-" + etag.replaceAll("[^A-Za-z0-9-]", "") + sufixo;
+    }
+}
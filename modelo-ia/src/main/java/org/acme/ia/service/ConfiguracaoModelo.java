@@ -0,0 +1,24 @@
+package org.acme.ia.service;
+
+import java.time.Instant;
+
+/**
+ * Hiperparâmetros vencedores do /ml/tune. Ficam em {@link #KEY}, de onde
+ * os treinos seguintes ({@link MLTrainingService}) passam a ler a floresta
+ * e o peso de custo, e em {@code <modelo>}{@link #SUFIXO}, de onde a
+ * inferência tira o threshold daquele modelo.
+ *
+ * Com configuração, o custo entra no treino (instâncias "true" pesam
+ * {@code pesoFn} vezes mais) e a floresta devolve probabilidade de
+ * verdade; o threshold é o que minimizou
+ * {@code ml.cost.fn * FN + ml.cost.fp * FP} na validação.
+ *
+ * @param profundidade profundidade máxima das árvores (0 = sem limite)
+ * @param custo        custo total na validação com o threshold escolhido
+ */
+public record ConfiguracaoModelo(int arvores, int profundidade, double pesoFn, double threshold, double custo,
+        Instant ajustadoEm) {
+
+    public static final String KEY = "models/tuning.json";
+    public static final String SUFIXO = ".tuning.json";
+}
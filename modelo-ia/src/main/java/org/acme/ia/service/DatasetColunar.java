@@ -0,0 +1,143 @@
+package org.acme.ia.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.acme.service.ArmazenamentoMinioService.CsvNeoData;
+import org.acme.service.NeoParquet;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+/**
+ * Monta o dataset de treino direto em colunas primitivas, sem CSV
+ * consolidado em disco nem inferência de tipos do {@code CSVLoader}.
+ *
+ * Fontes: arquivos do lake ({@link NeoParquet}), lidos só nas colunas
+ * usadas, e CSVs brutos antigos, lidos já tipados em {@link CsvNeoData}.
+ * O schema é fixo: as quatro features que o /ml/predict recebe e a classe
+ * nominal {false, true}. Valores ausentes viram NaN (missing no Weka).
+ */
+public class DatasetColunar {
+
+    public static final String CLASSE = NeoParquet.COL_PERIGOSO;
+    public static final String[] FEATURES = {
+            NeoParquet.COL_MAGNITUDE,
+            NeoParquet.COL_DIAMETRO_MIN,
+            NeoParquet.COL_DIAMETRO_MAX,
+            NeoParquet.COL_VELOCIDADE };
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final ObjectReader CSV_READER = CSV_MAPPER.readerFor(CsvNeoData.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private final double[][] colunas = new double[FEATURES.length][];
+    private boolean[] classe;
+    private int linhas;
+
+    public DatasetColunar(int capacidadeInicial) {
+        int cap = Math.max(16, capacidadeInicial);
+        for (int f = 0; f < FEATURES.length; f++) {
+            colunas[f] = new double[cap];
+        }
+        classe = new boolean[cap];
+    }
+
+    /** Cabeçalho do dataset (sem instâncias), com a classe já definida. */
+    public static Instances cabecalho(int capacidade) {
+        ArrayList<Attribute> atributos = new ArrayList<>(FEATURES.length + 1);
+        for (String f : FEATURES) {
+            atributos.add(new Attribute(f));
+        }
+        atributos.add(new Attribute(CLASSE, List.of("false", "true")));
+        Instances header = new Instances("neows", atributos, capacidade);
+        header.setClassIndex(FEATURES.length);
+        return header;
+    }
+
+    public int linhas() {
+        return linhas;
+    }
+
+    /** Adiciona um arquivo do lake inteiro (todas as linhas são do dia da partição). */
+    public void adicionarParquet(byte[] arquivo) throws IOException {
+        String[] nomes = Arrays.copyOf(FEATURES, FEATURES.length + 1);
+        nomes[FEATURES.length] = CLASSE;
+        NeoParquet.Colunas lidas = NeoParquet.lerColunas(NeoParquet.entrada(arquivo), nomes);
+
+        garantirCapacidade(linhas + lidas.linhas);
+        for (int f = 0; f < FEATURES.length; f++) {
+            System.arraycopy(lidas.doubles(FEATURES[f]), 0, colunas[f], linhas, lidas.linhas);
+        }
+        System.arraycopy(lidas.booleans(CLASSE), 0, classe, linhas, lidas.linhas);
+        linhas += lidas.linhas;
+    }
+
+    /**
+     * Adiciona as linhas de um CSV bruto cujo dia ({@code criadoEm}) passe
+     * no filtro. Retorna quantas linhas entraram.
+     */
+    public int adicionarCsv(InputStream csv, Predicate<String> diaAceito) throws IOException {
+        int antes = linhas;
+        try (MappingIterator<CsvNeoData> it = CSV_READER.readValues(csv)) {
+            while (it.hasNext()) {
+                CsvNeoData d = it.next();
+                if (!diaAceito.test(d.criadoEm)) {
+                    continue;
+                }
+                garantirCapacidade(linhas + 1);
+                colunas[0][linhas] = valor(d.magnitudeAbsoluta);
+                colunas[1][linhas] = valor(d.diametroMinM);
+                colunas[2][linhas] = valor(d.diametroMaxM);
+                colunas[3][linhas] = valor(d.velocidadeKmS);
+                classe[linhas] = d.ehPotencialmentePerigoso;
+                linhas++;
+            }
+        }
+        return linhas - antes;
+    }
+
+    /**
+     * Gera as instâncias numa passada pelas colunas. Cada linha precisa do
+     * seu próprio array: o {@code copy()} do DenseInstance feito pelo
+     * {@code Instances.add} compartilha o array de valores em vez de copiar.
+     */
+    public Instances paraInstances() {
+        Instances data = cabecalho(linhas);
+        for (int i = 0; i < linhas; i++) {
+            double[] linha = new double[FEATURES.length + 1];
+            for (int f = 0; f < FEATURES.length; f++) {
+                linha[f] = colunas[f][i];
+            }
+            linha[FEATURES.length] = classe[i] ? 1 : 0;
+            data.add(new DenseInstance(1.0, linha));
+        }
+        return data;
+    }
+
+    private void garantirCapacidade(int minimo) {
+        if (minimo <= classe.length) {
+            return;
+        }
+        int nova = Math.max(minimo, classe.length + (classe.length >> 1));
+        for (int f = 0; f < FEATURES.length; f++) {
+            colunas[f] = Arrays.copyOf(colunas[f], nova);
+        }
+        classe = Arrays.copyOf(classe, nova);
+    }
+
+    private static double valor(Double v) {
+        return v == null ? Utils.missingValue() : v;
+    }
+}
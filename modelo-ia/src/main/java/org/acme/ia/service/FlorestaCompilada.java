@@ -0,0 +1,551 @@
+package org.acme.ia.service;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.CostMatrix;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.classifiers.trees.RandomForest;
+import weka.classifiers.trees.RandomTree;
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * Floresta do modelo achatada em arrays primitivos, pontuada sem passar
+ * pelo grafo de objetos do Weka ({@code CostSensitiveClassifier} →
+ * {@code RandomForest} → {@code RandomTree}) e sem alocar por predição.
+ *
+ * Todas as árvores ficam nos mesmos arrays, indexados por nó:
+ * {@link #atributo} (-1 = folha), {@link #corte}, os dois filhos
+ * ({@code valor < corte} e {@code valor >= corte}), a proporção de treino
+ * de cada lado (usada quando o valor falta) e o deslocamento da
+ * distribuição de classes do nó em {@link #distribuicoes}, já normalizada
+ * (-1 = nó sem distribuição). {@link #raizes} aponta o primeiro nó de cada
+ * árvore.
+ *
+ * Os arrays são vistas sobre o próprio conteúdo do arquivo
+ * {@code .forest} (formato abaixo), então {@link #mapear} só valida o
+ * cabeçalho: o resto é paginado do disco conforme as árvores são
+ * percorridas, e o tempo de carga não depende do tamanho do modelo.
+ *
+ * A pontuação reproduz a do Weka 3.8 operação por operação (mesma ordem de
+ * somas e divisões), então as probabilidades saem idênticas:
+ * <ul>
+ * <li>um nó devolve o resultado do filho seguido ou, se o filho não tem
+ * distribuição, a sua própria, ou seja, vale a do nó mais fundo do caminho
+ * que tenha uma;</li>
+ * <li>com o valor faltando ({@code NaN}), o nó devolve a soma dos dois
+ * filhos ponderada pelas proporções;</li>
+ * <li>a floresta soma as árvores na ordem e normaliza (se a soma não for
+ * zero);</li>
+ * <li>com {@code minimizeExpectedCost}, a distribuição vira 0/1 na classe
+ * de menor custo esperado.</li>
+ * </ul>
+ * Só suporta atributos numéricos e classe nominal, que é o que o
+ * {@link MLTrainingService} treina; o resto é recusado em
+ * {@link #compilar} e a inferência segue pelo Weka.
+ *
+ * <h2>Formato {@code .forest} (versão {@value #VERSAO_FORMATO}, little-endian)</h2>
+ * <pre>
+ * cabeçalho, 12 ints: mágico "NEOF", versão, classes, profundidade máxima,
+ *                     árvores, nós, doubles de distribuição, flags
+ *                     (bit 0 = tem matriz de custo), atributos, índice da
+ *                     classe, bytes de metadados, reservado
+ * metadados:          nomes dos atributos e valores da classe, cada um
+ *                     int tamanho + UTF-8, completados até múltiplo de 8
+ * ints:               raízes[árvores], atributo, filhoMenor, filhoMaior,
+ *                     distribuição[nós], completados até múltiplo de 8
+ * doubles:            custos[classes²] (se houver), corte, propMenor,
+ *                     propMaior[nós], distribuições
+ * </pre>
+ */
+public final class FlorestaCompilada {
+
+    static final int MAGICO = 0x4E454F46; // "NEOF"
+    static final int VERSAO_FORMATO = 2;
+    private static final int CAMPOS_CABECALHO = 12;
+    private static final int FLAG_CUSTOS = 1;
+
+    // retornos de avaliar() além de um deslocamento em distribuicoes
+    private static final int SEM_DISTRIBUICAO = -1;
+    private static final int NO_BUFFER = -2;
+
+    private final ByteBuffer conteudo;
+    private final int numClasses;
+    private final int profundidadeMaxima;
+    private final String[] atributos;
+    private final int indiceClasse;
+    private final String[] valoresClasse;
+    private final IntBuffer raizes;
+    private final IntBuffer atributo;
+    private final IntBuffer filhoMenor;
+    private final IntBuffer filhoMaior;
+    private final IntBuffer distribuicao;
+    /** Custo [real][predito] ou {@code null} sem minimizeExpectedCost. */
+    private final DoubleBuffer custos;
+    private final DoubleBuffer corte;
+    private final DoubleBuffer propMenor;
+    private final DoubleBuffer propMaior;
+    private final DoubleBuffer distribuicoes;
+
+    /** Buffers da pontuação: somas da floresta, custos e um bloco por nível de valor faltante. */
+    private final ThreadLocal<double[]> trabalho;
+
+    private FlorestaCompilada(ByteBuffer conteudo) throws IOException {
+        ByteBuffer b = conteudo.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (b.remaining() < CAMPOS_CABECALHO * Integer.BYTES || b.getInt(0) != MAGICO) {
+            throw new IOException("Não é um arquivo .forest");
+        }
+        int versao = b.getInt(4);
+        if (versao != VERSAO_FORMATO) {
+            throw new IOException("Versão de .forest não suportada: " + versao + " (esperada " + VERSAO_FORMATO + ")");
+        }
+        this.conteudo = b;
+        numClasses = b.getInt(8);
+        profundidadeMaxima = b.getInt(12);
+        int arvores = b.getInt(16);
+        int nos = b.getInt(20);
+        int numDistribuicoes = b.getInt(24);
+        boolean temCustos = (b.getInt(28) & FLAG_CUSTOS) != 0;
+        int numAtributos = b.getInt(32);
+        indiceClasse = b.getInt(36);
+        int bytesMetadados = b.getInt(40);
+
+        long esperado = tamanho(numClasses, arvores, nos, numDistribuicoes, temCustos, bytesMetadados);
+        if (esperado != b.remaining()) {
+            throw new IOException(".forest com " + b.remaining() + " bytes, esperados " + esperado);
+        }
+
+        int pos = CAMPOS_CABECALHO * Integer.BYTES;
+        ByteBuffer meta = b.slice(pos, bytesMetadados).order(ByteOrder.LITTLE_ENDIAN);
+        atributos = lerStrings(meta, numAtributos);
+        valoresClasse = lerStrings(meta, numClasses);
+        pos += bytesMetadados;
+
+        raizes = ints(b, pos, arvores);
+        pos += arvores * Integer.BYTES;
+        atributo = ints(b, pos, nos);
+        pos += nos * Integer.BYTES;
+        filhoMenor = ints(b, pos, nos);
+        pos += nos * Integer.BYTES;
+        filhoMaior = ints(b, pos, nos);
+        pos += nos * Integer.BYTES;
+        distribuicao = ints(b, pos, nos);
+        pos = alinhar(pos + nos * Integer.BYTES);
+        custos = temCustos ? doubles(b, pos, numClasses * numClasses) : null;
+        pos += temCustos ? numClasses * numClasses * Double.BYTES : 0;
+        corte = doubles(b, pos, nos);
+        pos += nos * Double.BYTES;
+        propMenor = doubles(b, pos, nos);
+        pos += nos * Double.BYTES;
+        propMaior = doubles(b, pos, nos);
+        pos += nos * Double.BYTES;
+        distribuicoes = doubles(b, pos, numDistribuicoes);
+
+        int tamanho = numClasses * (profundidadeMaxima + 4);
+        trabalho = ThreadLocal.withInitial(() -> new double[tamanho]);
+    }
+
+    /** Floresta sobre o conteúdo de um {@code .forest} já em memória. */
+    public static FlorestaCompilada ler(ByteBuffer conteudo) throws IOException {
+        return new FlorestaCompilada(conteudo);
+    }
+
+    /**
+     * Floresta sobre o arquivo mapeado em memória. O mapeamento continua
+     * válido depois que o canal fecha e é liberado junto com a floresta.
+     */
+    public static FlorestaCompilada mapear(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return new FlorestaCompilada(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /** O {@code .forest} inteiro, para gravar ou enviar (somente leitura). */
+    public ByteBuffer conteudo() {
+        return conteudo.asReadOnlyBuffer().position(0);
+    }
+
+    public int arvores() {
+        return raizes.limit();
+    }
+
+    public int nos() {
+        return atributo.limit();
+    }
+
+    /**
+     * Header Weka equivalente ao do treino (atributos numéricos e a classe
+     * nominal), para a inferência resolver índices sem desserializar o
+     * {@code .header}.
+     */
+    public Instances cabecalho() {
+        ArrayList<Attribute> lista = new ArrayList<>(atributos.length);
+        for (int i = 0; i < atributos.length; i++) {
+            lista.add(i == indiceClasse ? new Attribute(atributos[i], List.of(valoresClasse))
+                    : new Attribute(atributos[i]));
+        }
+        Instances header = new Instances("neows", lista, 0);
+        header.setClassIndex(indiceClasse);
+        return header;
+    }
+
+    /**
+     * Probabilidade de {@code classe} para uma linha. {@code valores} é
+     * indexado como os atributos do header do modelo, com {@code NaN} onde
+     * o valor falta; a posição da classe é ignorada.
+     *
+     * @return a probabilidade, ou {@code NaN} se {@code classe} não existe
+     */
+    public double probabilidade(double[] valores, int classe) {
+        if (classe < 0 || classe >= numClasses) {
+            return Double.NaN;
+        }
+        int k = numClasses;
+        double[] buf = trabalho.get();
+        // buf[0..k) = somas da floresta; buf[k..2k) = custos; buf[2k..) = pilha dos nós com valor faltante
+        for (int j = 0; j < k; j++) {
+            buf[j] = 0.0;
+        }
+        int arvores = raizes.limit();
+        for (int t = 0; t < arvores; t++) {
+            int r = avaliar(raizes.get(t), valores, buf, 2 * k);
+            if (r >= 0) {
+                for (int j = 0; j < k; j++) {
+                    buf[j] = buf[j] + distribuicoes.get(r + j);
+                }
+            } else if (r == NO_BUFFER) {
+                for (int j = 0; j < k; j++) {
+                    buf[j] = buf[j] + buf[2 * k + j];
+                }
+            }
+            // SEM_DISTRIBUICAO: o Weka não chega aqui (a raiz sempre tem distribuição)
+        }
+
+        double soma = 0.0;
+        for (int j = 0; j < k; j++) {
+            soma += buf[j];
+        }
+        if (!(soma - 0.0 < 1e-6 && 0.0 - soma < 1e-6)) { // Utils.eq(soma, 0)
+            for (int j = 0; j < k; j++) {
+                buf[j] /= soma;
+            }
+        }
+        if (custos == null) {
+            return buf[classe];
+        }
+
+        // CostMatrix.expectedCosts + Utils.minIndex
+        int melhor = 0;
+        for (int x = 0; x < k; x++) {
+            double c = 0.0;
+            for (int y = 0; y < k; y++) {
+                c = c + buf[y] * custos.get(y * k + x);
+            }
+            buf[k + x] = c;
+            if (x == 0 || c < buf[k + melhor]) {
+                melhor = x;
+            }
+        }
+        return classe == melhor ? 1.0 : 0.0;
+    }
+
+    /**
+     * Distribuição da subárvore de {@code no}: devolve o deslocamento em
+     * {@link #distribuicoes}, {@link #NO_BUFFER} se ela foi somada em
+     * {@code buf[off..off+k)} (valor faltante no caminho) ou
+     * {@link #SEM_DISTRIBUICAO}.
+     */
+    private int avaliar(int no, double[] valores, double[] buf, int off) {
+        int maisFundo = SEM_DISTRIBUICAO;
+        while (true) {
+            int d = distribuicao.get(no);
+            if (d >= 0) {
+                maisFundo = d;
+            }
+            int a = atributo.get(no);
+            if (a < 0) {
+                return maisFundo;
+            }
+            double v = valores[a];
+            if (Double.isNaN(v)) {
+                return somarFilhos(no, valores, buf, off);
+            }
+            no = v < corte.get(no) ? filhoMenor.get(no) : filhoMaior.get(no);
+        }
+    }
+
+    private int somarFilhos(int no, double[] valores, double[] buf, int off) {
+        int k = numClasses;
+        for (int j = 0; j < k; j++) {
+            buf[off + j] = 0.0;
+        }
+        somarFilho(filhoMenor.get(no), propMenor.get(no), valores, buf, off);
+        somarFilho(filhoMaior.get(no), propMaior.get(no), valores, buf, off);
+        return NO_BUFFER;
+    }
+
+    private void somarFilho(int filho, double prop, double[] valores, double[] buf, int off) {
+        int k = numClasses;
+        int r = avaliar(filho, valores, buf, off + k);
+        if (r >= 0) {
+            for (int j = 0; j < k; j++) {
+                buf[off + j] = buf[off + j] + prop * distribuicoes.get(r + j);
+            }
+        } else if (r == NO_BUFFER) {
+            for (int j = 0; j < k; j++) {
+                buf[off + j] = buf[off + j] + prop * buf[off + k + j];
+            }
+        }
+    }
+
+    /**
+     * Quantas instâncias de {@code amostra} saem com alguma probabilidade
+     * diferente (bit a bit) da do classificador Weka de origem.
+     */
+    public int divergencias(Classifier weka, Instances amostra) throws Exception {
+        int divergentes = 0;
+        for (Instance inst : amostra) {
+            double[] esperado = weka.distributionForInstance(inst);
+            double[] valores = inst.toDoubleArray();
+            for (int c = 0; c < esperado.length; c++) {
+                if (Double.compare(esperado[c], probabilidade(valores, c)) != 0) {
+                    divergentes++;
+                    break;
+                }
+            }
+        }
+        return divergentes;
+    }
+
+    // ===== compilação a partir do Weka =====
+
+    /**
+     * Achata um {@code RandomForest}, puro ou dentro de um
+     * {@code CostSensitiveClassifier}. O Weka não expõe as árvores, então os
+     * campos são lidos por reflexão.
+     *
+     * @throws IllegalArgumentException se o modelo tem algo que o formato não
+     *                                  representa (outro classificador,
+     *                                  atributo nominal, árvore ZeroR)
+     */
+    public static FlorestaCompilada compilar(Classifier classificador) throws Exception {
+        double[] custos = null;
+        Classifier base = classificador;
+        if (classificador instanceof CostSensitiveClassifier csc) {
+            base = csc.getClassifier();
+            if (csc.getMinimizeExpectedCost()) {
+                CostMatrix m = csc.getCostMatrix();
+                custos = new double[m.size() * m.size()];
+                for (int y = 0; y < m.size(); y++) {
+                    for (int x = 0; x < m.size(); x++) {
+                        custos[y * m.size() + x] = m.getElement(y, x);
+                    }
+                }
+            }
+        }
+        if (!(base instanceof RandomForest rf)) {
+            throw new IllegalArgumentException("Só RandomForest é compilável, veio " + base.getClass().getName());
+        }
+
+        Classifier[] arvores = (Classifier[]) campo(rf, "m_Classifiers");
+        int numArvores = (int) campo(rf, "m_NumIterations");
+        Construtor c = new Construtor();
+        int[] raizes = new int[numArvores];
+        for (int t = 0; t < numArvores; t++) {
+            RandomTree arvore = (RandomTree) arvores[t];
+            if (campo(arvore, "m_zeroR") != null) {
+                throw new IllegalArgumentException("Árvore " + t + " é um ZeroR");
+            }
+            Instances info = (Instances) campo(arvore, "m_Info");
+            if (c.info == null) {
+                c.info = info;
+            } else if (!c.info.equalHeaders(info)) {
+                throw new IllegalArgumentException("Árvore " + t + " com header diferente: " + c.info.equalHeadersMsg(info));
+            }
+            raizes[t] = c.adicionar(campo(arvore, "m_Tree"), 0);
+        }
+        if (c.info == null) {
+            throw new IllegalArgumentException("Floresta sem árvores");
+        }
+        if (custos != null && custos.length != c.info.numClasses() * c.info.numClasses()) {
+            throw new IllegalArgumentException("Matriz de custo não bate com o número de classes");
+        }
+        return new FlorestaCompilada(c.codificar(raizes, custos));
+    }
+
+    /** Acumula os nós em listas na ordem de visita (pré-ordem, filho "<" primeiro). */
+    private static final class Construtor {
+        Instances info;
+        int profundidadeMaxima;
+        final List<int[]> nos = new ArrayList<>();       // atributo, menor, maior, distribuicao
+        final List<double[]> valores = new ArrayList<>(); // corte, propMenor, propMaior
+        final List<Double> distribuicoes = new ArrayList<>();
+
+        int adicionar(Object arvore, int profundidade) throws Exception {
+            profundidadeMaxima = Math.max(profundidadeMaxima, profundidade);
+            int atributo = (int) campo(arvore, "m_Attribute");
+            double[] classes = (double[]) campo(arvore, "m_ClassDistribution");
+
+            int indice = nos.size();
+            int[] no = { atributo, -1, -1, -1 };
+            double[] v = new double[3];
+            nos.add(no);
+            valores.add(v);
+
+            if (classes != null) {
+                double soma = 0;
+                for (double d : classes) {
+                    soma += d;
+                }
+                if (Double.isNaN(soma) || soma == 0) {
+                    throw new IllegalArgumentException("Distribuição de classes sem peso num nó");
+                }
+                no[3] = distribuicoes.size();
+                for (double d : classes) {
+                    distribuicoes.add(d / soma);
+                }
+            }
+            if (atributo < 0) {
+                return indice;
+            }
+            if (!info.attribute(atributo).isNumeric()) {
+                throw new IllegalArgumentException("Atributo nominal " + info.attribute(atributo).name());
+            }
+            Object[] filhos = (Object[]) campo(arvore, "m_Successors");
+            double[] prop = (double[]) campo(arvore, "m_Prop");
+            v[0] = (double) campo(arvore, "m_SplitPoint");
+            v[1] = prop[0];
+            v[2] = prop[1];
+            no[1] = adicionar(filhos[0], profundidade + 1);
+            no[2] = adicionar(filhos[1], profundidade + 1);
+            return indice;
+        }
+
+        /** Serializa no formato {@code .forest} descrito na classe. */
+        ByteBuffer codificar(int[] raizes, double[] custos) {
+            int numClasses = info.numClasses();
+            String[] nomes = new String[info.numAttributes()];
+            for (int i = 0; i < nomes.length; i++) {
+                nomes[i] = info.attribute(i).name();
+            }
+            String[] classes = new String[numClasses];
+            for (int i = 0; i < numClasses; i++) {
+                classes[i] = info.classAttribute().value(i);
+            }
+            byte[] meta = metadados(nomes, classes);
+            int n = nos.size();
+
+            long total = tamanho(numClasses, raizes.length, n, distribuicoes.size(), custos != null, meta.length);
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Floresta grande demais para um .forest: " + total + " bytes");
+            }
+            ByteBuffer b = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+            b.putInt(MAGICO).putInt(VERSAO_FORMATO).putInt(numClasses).putInt(profundidadeMaxima)
+                    .putInt(raizes.length).putInt(n).putInt(distribuicoes.size())
+                    .putInt(custos != null ? FLAG_CUSTOS : 0).putInt(nomes.length).putInt(info.classIndex())
+                    .putInt(meta.length).putInt(0);
+            b.put(meta);
+            for (int r : raizes) {
+                b.putInt(r);
+            }
+            for (int campo = 0; campo < 4; campo++) {
+                for (int[] no : nos) {
+                    b.putInt(no[campo]);
+                }
+            }
+            b.position(alinhar(b.position()));
+            if (custos != null) {
+                for (double c : custos) {
+                    b.putDouble(c);
+                }
+            }
+            for (int campo = 0; campo < 3; campo++) {
+                for (double[] v : valores) {
+                    b.putDouble(v[campo]);
+                }
+            }
+            for (double d : distribuicoes) {
+                b.putDouble(d);
+            }
+            return b.flip();
+        }
+    }
+
+    private static Object campo(Object alvo, String nome) throws ReflectiveOperationException {
+        for (Class<?> c = alvo.getClass(); c != null; c = c.getSuperclass()) {
+            try {
+                Field f = c.getDeclaredField(nome);
+                f.setAccessible(true);
+                return f.get(alvo);
+            } catch (NoSuchFieldException e) {
+                // sobe na hierarquia
+            }
+        }
+        throw new NoSuchFieldException(alvo.getClass().getName() + "." + nome);
+    }
+
+    // ===== layout do .forest =====
+
+    private static long tamanho(int numClasses, int arvores, int nos, int numDistribuicoes, boolean temCustos,
+            int bytesMetadados) {
+        long ints = CAMPOS_CABECALHO * (long) Integer.BYTES + bytesMetadados + (arvores + 4L * nos) * Integer.BYTES;
+        long doubles = (temCustos ? (long) numClasses * numClasses : 0) + 3L * nos + numDistribuicoes;
+        return alinhar(ints) + doubles * Double.BYTES;
+    }
+
+    private static int alinhar(int pos) {
+        return (pos + 7) & ~7;
+    }
+
+    private static long alinhar(long pos) {
+        return (pos + 7) & ~7L;
+    }
+
+    private static byte[] metadados(String[] nomes, String[] classes) {
+        List<byte[]> strings = new ArrayList<>();
+        int total = 0;
+        for (String[] grupo : new String[][] { nomes, classes }) {
+            for (String s : grupo) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                strings.add(utf8);
+                total += Integer.BYTES + utf8.length;
+            }
+        }
+        ByteBuffer b = ByteBuffer.allocate(alinhar(total)).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[] s : strings) {
+            b.putInt(s.length).put(s);
+        }
+        return b.array();
+    }
+
+    private static String[] lerStrings(ByteBuffer meta, int n) {
+        String[] s = new String[n];
+        for (int i = 0; i < n; i++) {
+            byte[] utf8 = new byte[meta.getInt()];
+            meta.get(utf8);
+            s[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+
+    private static IntBuffer ints(ByteBuffer b, int pos, int n) {
+        return b.slice(pos, n * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static DoubleBuffer doubles(ByteBuffer b, int pos, int n) {
+        return b.slice(pos, n * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+}
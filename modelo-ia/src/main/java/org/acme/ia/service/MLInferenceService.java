@@ -1,13 +1,36 @@
 package org.acme.ia.service;
 
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -21,23 +44,76 @@ import weka.core.Instance;
 import weka.core.Instances;
 import weka.core.SerializationHelper;
 
+/**
+ * Inferência com troca de modelo sem parada.
+ *
+ * O modelo em uso é um {@link ModeloSnapshot} imutável numa
+ * {@link AtomicReference}. Um modelo novo é baixado, desserializado e
+ * aquecido (o JIT compila o caminho das árvores com instâncias sintéticas)
+ * fora do caminho das requisições e só então publicado com um único
+ * {@code set}; as predições em andamento terminam com o snapshot antigo.
+ * Um job verifica {@code models/} a cada {@code ml.modelo.poll-intervalo}.
+ *
+ * Predição em lote ({@link #predictLote}): o lote é dividido em blocos de
+ * {@code ml.predict.lote.tamanho-bloco} linhas, pontuados em paralelo num
+ * pool do tamanho do número de núcleos, cada bloco reaproveitando uma
+ * única instância e os índices de atributo já resolvidos no snapshot.
+ *
+ * A pontuação usa a {@link FlorestaCompilada} do snapshot e só cai no
+ * Weka se o modelo não é compilável. Com {@code .forest} no bucket, a
+ * carga é só mapear o arquivo do cache local ({@link CacheModelos}, baixado
+ * uma vez por ETag), sem desserializar {@code .model}/{@code .header}, e
+ * não depende do tamanho do modelo. Modelos anteriores ao {@code .forest}
+ * são desserializados e compilados aqui; nesse caso o aquecimento confere
+ * as duas pontuações e descarta a compilada se alguma probabilidade
+ * divergir.
+ *
+ * Métricas: {@code ml.predict} e {@code ml.predict.lote} (latência por
+ * {@code versao} do modelo, com histograma) e {@code ml.predict.lote.linhas}.
+ */
 @ApplicationScoped
 public class MLInferenceService {
 
+    // faixas plausíveis das features para o aquecimento (fora delas as árvores quase não ramificam)
+    private static final Map<String, double[]> FAIXAS_AQUECIMENTO = Map.of(
+            "magnitudeAbsoluta", new double[] { 10, 35 },
+            "diametroMinM", new double[] { 1, 5_000 },
+            "diametroMaxM", new double[] { 2, 10_000 },
+            "velocidadeKmS", new double[] { 0.5, 70 });
+
     @Inject S3Client s3;
+    @Inject ObjetosS3Service objetos;
+    @Inject CacheModelos cache;
+    @Inject ObjectMapper mapper;
+    @Inject MeterRegistry registry;
 
     @ConfigProperty(name = "neo.minio.bucket")
     String bucket;
 
-    // <<< (1) Threshold configurável. Se não tiver no application.properties, usa 0.80 por padrão.
+    // <<< (1) Threshold configurável. Se não tiver no application.properties, usa 0.60 por padrão.
     @ConfigProperty(name = "ml.threshold", defaultValue = "0.60")
     double TAU;
 
-    private volatile Classifier model;
-    private volatile Instances header; // estrutura de atributos
+    @ConfigProperty(name = "ml.modelo.aquecimento", defaultValue = "5000")
+    int instanciasAquecimento;
+
+    @ConfigProperty(name = "ml.predict.lote.tamanho-bloco", defaultValue = "512")
+    int tamanhoBloco;
+
+    private final AtomicReference<ModeloSnapshot> atual = new AtomicReference<>();
+    private ExecutorService pontuacao;
+    // timers por versão do modelo, resolvidos uma vez (o registry monta o id a cada busca)
+    private final Map<String, Timer> timersPredict = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timersLote = new ConcurrentHashMap<>();
 
     @PostConstruct
     void init() {
+        AtomicInteger seq = new AtomicInteger();
+        pontuacao = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "ml-predict-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
         try {
             carregarModeloMaisRecente();
         } catch (Exception e) {
@@ -45,72 +121,325 @@ public class MLInferenceService {
         }
     }
 
-    public synchronized void carregarModeloMaisRecente() throws Exception {
-        ListObjectsV2Response res = s3.listObjectsV2(ListObjectsV2Request.builder()
-                .bucket(bucket).prefix("models/").build());
+    @PreDestroy
+    void encerrar() {
+        pontuacao.shutdownNow();
+    }
+
+    /** Versão publicada no momento, se houver. */
+    public Optional<ModeloSnapshot> modeloAtual() {
+        return Optional.ofNullable(atual.get());
+    }
+
+    @Scheduled(every = "${ml.modelo.poll-intervalo:60s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void verificarNovoModelo() {
+        try {
+            carregarModeloMaisRecente();
+        } catch (Exception e) {
+            Log.warnf(e, "Falha ao verificar/carregar novo modelo; seguindo com %s",
+                    modeloAtual().map(ModeloSnapshot::versao).orElse("nenhum"));
+        }
+    }
 
-        var latestModel = res.contents().stream()
-                .filter(o -> o.key().endsWith(".model"))
+    /**
+     * Publica o modelo mais recente de {@code models/}, se for diferente do
+     * atual. Sincronizado só entre carregamentos (poll e /ml/reload); o
+     * {@link #predict} nunca espera por ele.
+     */
+    public synchronized void carregarModeloMaisRecente() throws Exception {
+        var latestModel = objetos.listar("models/", ".model").stream()
                 .max(Comparator.comparing(S3Object::lastModified))
                 .orElseThrow(() -> new IllegalStateException("Nenhum modelo .model em models/."));
 
         String base = latestModel.key().substring(0, latestModel.key().length() - ".model".length());
-        String headerKey = base + ".header";
+        ModeloSnapshot anterior = atual.get();
+        if (anterior != null && anterior.versao().equals(base)) {
+            Log.debugf("Modelo %s já está em uso.", base);
+            return;
+        }
 
-        Path tmpModel = Files.createTempFile("neows-weka-", ".model");
-        try (InputStream is = s3.getObject(GetObjectRequest.builder()
-                .bucket(bucket).key(latestModel.key()).build())) {
-            Files.copy(is, tmpModel, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        long t0 = System.nanoTime();
+        double threshold = thresholdDoAjuste(base).orElse(TAU);
+        Optional<Path> arquivoFloresta = florestaEmCache(base);
+        ModeloSnapshot novo = null;
+        if (arquivoFloresta.isPresent()) {
+            try {
+                FlorestaCompilada floresta = FlorestaCompilada.mapear(arquivoFloresta.get());
+                novo = ModeloSnapshot.de(null, floresta, floresta.cabecalho(), threshold, base);
+            } catch (IOException | RuntimeException e) {
+                Log.warnf("%s ilegível (%s); carregando %s pelo Weka", arquivoFloresta.get(), e.getMessage(),
+                        latestModel.key());
+            }
         }
-        Path tmpHeader = Files.createTempFile("neows-weka-", ".header");
-        try (InputStream is = s3.getObject(GetObjectRequest.builder()
-                .bucket(bucket).key(headerKey).build())) {
-            Files.copy(is, tmpHeader, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        if (novo == null) {
+            Classifier model = (Classifier) ler(latestModel.key());
+            Instances header = (Instances) ler(base + ".header");
+            novo = ModeloSnapshot.de(model, compilar(base, model), header, threshold, base);
         }
 
-        this.model  = (Classifier) SerializationHelper.read(tmpModel.toString());
-        this.header = (Instances)  SerializationHelper.read(tmpHeader.toString());
+        long t1 = System.nanoTime();
+        publicar(novo);
+        long t2 = System.nanoTime();
 
-        Files.deleteIfExists(tmpModel);
-        Files.deleteIfExists(tmpHeader);
+        Log.infof("Modelo carregado: %s (%s %d ms, aquecimento %d ms com %d instâncias; anterior: %s)",
+                base, novo.classificador() == null ? "mapeado do cache em" : "desserializado em",
+                (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, instanciasAquecimento,
+                anterior == null ? "nenhum" : anterior.versao());
+        arquivoFloresta.ifPresent(p -> cache.limpar(MLTrainingService.SUFIXO_FLORESTA, p));
+        Log.infof("Threshold em uso: %.3f (%s)", threshold,
+                threshold == TAU ? "ml.threshold" : base + ConfiguracaoModelo.SUFIXO);
+    }
 
-        Log.info("Modelo carregado: " + latestModel.key());
-        Log.infof("Threshold (TAU) carregado da config: %.3f", TAU);
+    /** Threshold gravado pelo /ml/tune junto do modelo, se ele foi treinado com configuração ajustada. */
+    private Optional<Double> thresholdDoAjuste(String base) throws Exception {
+        try {
+            byte[] json = s3.getObjectAsBytes(GetObjectRequest.builder().bucket(bucket)
+                    .key(base + ConfiguracaoModelo.SUFIXO).build()).asByteArray();
+            return Optional.of(mapper.readValue(json, ConfiguracaoModelo.class).threshold());
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
     }
 
-    public PredictionResult predict(FeaturesInput in) throws Exception {
-        if (model == null || header == null) {
-            throw new IllegalStateException("Modelo não carregado. Treine/Carregue primeiro.");
+    /** O {@code .forest} do modelo no cache local, se o treino gravou um. */
+    private Optional<Path> florestaEmCache(String base) {
+        String key = base + MLTrainingService.SUFIXO_FLORESTA;
+        try {
+            return Optional.of(cache.obter(key));
+        } catch (NoSuchKeyException e) {
+            Log.infof("%s sem %s; carregando pelo Weka", base, MLTrainingService.SUFIXO_FLORESTA);
+        } catch (IOException | S3Exception e) {
+            Log.warnf("Falha ao trazer %s para o cache (%s); carregando pelo Weka", key, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /** Floresta compilada do classificador já desserializado; {@code null} se não for compilável. */
+    private static FlorestaCompilada compilar(String base, Classifier model) {
+        try {
+            return FlorestaCompilada.compilar(model);
+        } catch (Exception e) {
+            Log.warnf("Modelo %s não compilável (%s); predição pelo Weka", base, e.getMessage());
+            return null;
         }
+    }
 
-        // Monta a instância com o mesmo schema do header
+    /** Aquece e só então publica o snapshot. */
+    void publicar(ModeloSnapshot novo) throws Exception {
+        atual.set(aquecer(novo));
+    }
+
+    private Object ler(String key) throws Exception {
+        byte[] bytes = s3.getObjectAsBytes(GetObjectRequest.builder().bucket(bucket).key(key).build()).asByteArray();
+        return SerializationHelper.read(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Passa instâncias sintéticas pelo modelo antes de publicá-lo, para que
+     * as primeiras requisições não paguem interpretação/compilação. Com
+     * floresta compilada, confere cada probabilidade com a do Weka; havendo
+     * divergência devolve o snapshot sem ela.
+     */
+    private ModeloSnapshot aquecer(ModeloSnapshot m) throws Exception {
+        Random rnd = new Random(42);
+        Instances header = m.header();
         Instance inst = new DenseInstance(header.numAttributes());
         inst.setDataset(header);
+        double soma = 0;
+        int divergentes = 0;
+        for (int n = 0; n < instanciasAquecimento; n++) {
+            for (int i = 0; i < header.numAttributes(); i++) {
+                if (i == header.classIndex()) {
+                    continue;
+                }
+                Attribute a = header.attribute(i);
+                double[] faixa = FAIXAS_AQUECIMENTO.get(a.name());
+                if (rnd.nextInt(20) == 0) {
+                    inst.setMissing(a);
+                } else if (a.isNominal() && a.numValues() > 0) {
+                    inst.setValue(a, rnd.nextInt(a.numValues()));
+                } else if (faixa != null) {
+                    inst.setValue(a, faixa[0] + rnd.nextDouble() * (faixa[1] - faixa[0]));
+                } else {
+                    inst.setMissing(a);
+                }
+            }
+            double compilada = m.floresta() != null
+                    ? m.floresta().probabilidade(inst.toDoubleArray(), m.idxClasseTrue())
+                    : Double.NaN;
+            if (m.classificador() == null) {
+                soma += compilada; // veio só do .forest, conferido contra o Weka no treino
+                continue;
+            }
+            double p = probabilidadeWeka(m, inst);
+            if (m.floresta() != null && Double.compare(p, compilada) != 0) {
+                divergentes++;
+            }
+            soma += p;
+        }
+        Log.debugf("Aquecimento de %s concluído (checksum %.3f)", m.versao(), soma);
+        if (divergentes > 0) {
+            Log.errorf("Floresta compilada de %s divergiu do Weka em %d de %d instâncias; predição pelo Weka",
+                    m.versao(), divergentes, instanciasAquecimento);
+            return m.semFloresta();
+        }
+        return m;
+    }
 
-        setIfExists(inst, "magnitudeAbsoluta", in.magnitudeAbsoluta);
-        setIfExists(inst, "diametroMinM",      in.diametroMinM);
-        setIfExists(inst, "diametroMaxM",      in.diametroMaxM);
-        setIfExists(inst, "velocidadeKmS",     in.velocidadeKmS);
+    public PredictionResult predict(FeaturesInput in) throws Exception {
+        long t0 = System.nanoTime();
+        ModeloSnapshot m = snapshotCarregado();
 
         // Em vez de aceitar o rótulo "seco", usamos a distribuição de probabilidades
-        double[] dist = model.distributionForInstance(inst);
-        int idxTrue = header.classAttribute().indexOfValue("true");
-        double pTrue = (idxTrue >= 0 && idxTrue < dist.length) ? dist[idxTrue] : Double.NaN;
-
-        // <<< (1) Decisão por threshold: se pTrue >= TAU, marcamos como perigoso ("true").
-        boolean perigoso = !Double.isNaN(pTrue) && pTrue >= TAU;
+        double pTrue = m.floresta() != null
+                ? probabilidadeTrue(m, in, novosValores(m))
+                : probabilidadeTrue(m, in, novaInstancia(m));
 
         PredictionResult out = new PredictionResult();
-        out.preditoPerigoso = perigoso;
+        // <<< (1) Decisão por threshold: se pTrue >= threshold, marcamos como perigoso ("true").
+        out.preditoPerigoso = !Double.isNaN(pTrue) && pTrue >= m.threshold();
         out.probabilidadePerigoso = pTrue;
+        out.versaoModelo = m.versao();
+        timer(timersPredict, "ml.predict", m.versao(), Duration.ofMillis(100))
+                .record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
         return out;
     }
 
-    private void setIfExists(Instance inst, String attrName, Double value) {
-        Attribute a = header.attribute(attrName);
-        if (a != null) {
-            if (value == null) inst.setMissing(a);
-            else inst.setValue(a, value);
+    /**
+     * Pontua um lote inteiro com o mesmo snapshot (mesma versão para todas
+     * as linhas). A ordem dos resultados é a da entrada.
+     */
+    public PredictionBatchResult predictLote(List<FeaturesInput> linhas) throws Exception {
+        long t0 = System.nanoTime();
+        ModeloSnapshot m = snapshotCarregado();
+        int n = linhas.size();
+        double[] probabilidades = new double[n];
+
+        List<CompletableFuture<Void>> blocos = new ArrayList<>();
+        for (int ini = 0; ini < n; ini += tamanhoBloco) {
+            int de = ini;
+            int ate = Math.min(n, ini + tamanhoBloco);
+            blocos.add(CompletableFuture.runAsync(() -> pontuarBloco(m, linhas, probabilidades, de, ate), pontuacao));
+        }
+        try {
+            CompletableFuture.allOf(blocos.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        }
+
+        PredictionBatchResult out = new PredictionBatchResult();
+        out.versaoModelo = m.versao();
+        out.threshold = m.threshold();
+        out.resultados = new ArrayList<>(n);
+        for (double p : probabilidades) {
+            PredictionResult r = new PredictionResult();
+            r.preditoPerigoso = !Double.isNaN(p) && p >= m.threshold();
+            r.probabilidadePerigoso = p;
+            out.resultados.add(r);
+        }
+        timer(timersLote, "ml.predict.lote", m.versao(), Duration.ofMinutes(1))
+                .record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        registry.summary("ml.predict.lote.linhas").record(n);
+        return out;
+    }
+
+    private Timer timer(Map<String, Timer> timers, String nome, String versao, Duration maximo) {
+        Timer t = timers.get(versao);
+        if (t == null) {
+            t = timers.computeIfAbsent(versao, v -> Timer.builder(nome)
+                    .description("Latência da predição por versão do modelo")
+                    .tag("versao", v)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(maximo)
+                    .register(registry));
+        }
+        return t;
+    }
+
+    private void pontuarBloco(ModeloSnapshot m, List<FeaturesInput> linhas, double[] destino, int de, int ate) {
+        // um vetor (ou instância) por bloco: o classificador só lê os valores
+        try {
+            if (m.floresta() != null) {
+                double[] valores = novosValores(m);
+                for (int i = de; i < ate; i++) {
+                    destino[i] = probabilidadeTrue(m, linhas.get(i), valores);
+                }
+            } else {
+                Instance inst = novaInstancia(m);
+                for (int i = de; i < ate; i++) {
+                    destino[i] = probabilidadeTrue(m, linhas.get(i), inst);
+                }
+            }
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private ModeloSnapshot snapshotCarregado() {
+        ModeloSnapshot m = atual.get();
+        if (m == null) {
+            throw new IllegalStateException("Modelo não carregado. Treine/Carregue primeiro.");
+        }
+        return m;
+    }
+
+    // Monta a instância com o mesmo schema do header
+    private static Instance novaInstancia(ModeloSnapshot m) {
+        Instance inst = new DenseInstance(m.header().numAttributes());
+        inst.setDataset(m.header());
+        return inst;
+    }
+
+    // vetor no formato da FlorestaCompilada: posições do header, NaN = faltante (como numa DenseInstance nova)
+    private static double[] novosValores(ModeloSnapshot m) {
+        double[] valores = new double[m.header().numAttributes()];
+        Arrays.fill(valores, Double.NaN);
+        return valores;
+    }
+
+    private static double probabilidadeTrue(ModeloSnapshot m, FeaturesInput in, double[] valores) {
+        preencher(valores, m.idxFeatures(), in);
+        return m.floresta().probabilidade(valores, m.idxClasseTrue());
+    }
+
+    private static double probabilidadeTrue(ModeloSnapshot m, FeaturesInput in, Instance inst) throws Exception {
+        preencher(inst, m.idxFeatures(), in);
+        return probabilidadeWeka(m, inst);
+    }
+
+    private static double probabilidadeWeka(ModeloSnapshot m, Instance inst) throws Exception {
+        double[] dist = m.classificador().distributionForInstance(inst);
+        int idxTrue = m.idxClasseTrue();
+        return (idxTrue >= 0 && idxTrue < dist.length) ? dist[idxTrue] : Double.NaN;
+    }
+
+    // mesma ordem de ModeloSnapshot.FEATURES
+    private static void preencher(Instance inst, int[] idx, FeaturesInput in) {
+        set(inst, idx[0], in.magnitudeAbsoluta);
+        set(inst, idx[1], in.diametroMinM);
+        set(inst, idx[2], in.diametroMaxM);
+        set(inst, idx[3], in.velocidadeKmS);
+    }
+
+    private static void preencher(double[] valores, int[] idx, FeaturesInput in) {
+        set(valores, idx[0], in.magnitudeAbsoluta);
+        set(valores, idx[1], in.diametroMinM);
+        set(valores, idx[2], in.diametroMaxM);
+        set(valores, idx[3], in.velocidadeKmS);
+    }
+
+    private static void set(Instance inst, int idx, Double value) {
+        if (idx >= 0) {
+            if (value == null) inst.setMissing(idx);
+            else inst.setValue(idx, value);
+        }
+    }
+
+    private static void set(double[] valores, int idx, Double value) {
+        if (idx >= 0) {
+            valores[idx] = value == null ? Double.NaN : value;
         }
     }
 
@@ -121,8 +450,15 @@ public class MLInferenceService {
         public Double diametroMaxM;
         public Double velocidadeKmS;
     }
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PredictionResult {
         public boolean preditoPerigoso;
         public double probabilidadePerigoso;
+        public String versaoModelo;
+    }
+    public static class PredictionBatchResult {
+        public String versaoModelo;
+        public double threshold;
+        public List<PredictionResult> resultados;
     }
 }
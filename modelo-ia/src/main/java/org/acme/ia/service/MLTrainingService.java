@@ -3,33 +3,67 @@ package org.acme.ia.service;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
 
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
-import java.io.InputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import org.acme.service.JanelaFeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import weka.classifiers.AggregateableEvaluation;
 import weka.classifiers.Evaluation;
 import weka.classifiers.meta.CostSensitiveClassifier;
 import weka.classifiers.CostMatrix;
 import weka.classifiers.trees.RandomForest;
 import weka.core.Instances;
 import weka.core.SerializationHelper;
-import weka.core.converters.CSVLoader;
 
+/**
+ * Treino do modelo (RandomForest + custo) a partir do lake e dos CSVs
+ * brutos. {@link #treinarIncremental} acrescenta árvores treinadas só nos
+ * arquivos que ainda não estão no {@link ManifestoTreino}, em vez de
+ * refazer a floresta sobre o histórico inteiro.
+ *
+ * A duração de cada etapa (carregar, dividir, treinar, avaliar, salvar)
+ * vai para o timer {@code ml.treino.etapa}, com a tag {@code etapa}.
+ */
 @ApplicationScoped
 public class MLTrainingService {
 
     @Inject
     S3Client s3;
 
+    @Inject
+    ObjetosS3Service objetos;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    MeterRegistry registry;
+
     @ConfigProperty(name = "neo.minio.bucket")
     String bucket;
 
@@ -40,127 +74,406 @@ public class MLTrainingService {
     @ConfigProperty(name = "ml.cost.fp", defaultValue = "3.0")
     double COST_FP;
 
-    // coluna de classe no CSV
-    private static final String RESPONSE_COLUMN = "ehPotencialmentePerigoso";
+    // incremental: árvores por rodada (mínimo) e tamanho a partir do qual refaz a floresta do zero
+    @ConfigProperty(name = "ml.incremental.min-arvores", defaultValue = "5")
+    int minArvoresIncremento;
+
+    @ConfigProperty(name = "ml.incremental.max-arvores", defaultValue = "300")
+    int maxArvores;
+
+    @ConfigProperty(name = "ml.incremental.min-instancias", defaultValue = "50")
+    int minInstanciasIncremento;
+
+    // threads para construir as árvores (0 = um por núcleo) e folds da validação cruzada (0 = só holdout)
+    @ConfigProperty(name = "ml.treino.threads", defaultValue = "0")
+    int threadsTreino;
+
+    @ConfigProperty(name = "ml.avaliacao.folds", defaultValue = "0")
+    int folds;
+
+    private static final String PREFIXO_LAKE = "lake/neo/";
+    /** Floresta achatada gravada ao lado de {@code .model}/{@code .header}. */
+    static final String SUFIXO_FLORESTA = ".forest";
+    private static final int AMOSTRA_CONFERENCIA = 2000;
+    private static final int ARVORES = 100;
+    private static final int SEED = 123;
 
     public TrainingResult treinar(LocalDate start, LocalDate end) throws Exception {
         Log.infof("Treino (WEKA): %s a %s", start, end);
+        List<S3Object> parquets = listarLakeNoIntervalo(start, end);
         List<S3Object> csvs = listarCsvsNoIntervalo(start, end);
-        if (csvs.isEmpty())
-            throw new IllegalStateException("Nenhum CSV no período.");
-        return executarTreinamento(csvs);
+        if (parquets.isEmpty() && csvs.isEmpty())
+            throw new IllegalStateException("Nenhum dado (lake ou CSV) no período.");
+        String inicio = start.toString();
+        String fim = end.toString();
+        return executarTreinamento(parquets, csvs, dia -> dia.compareTo(inicio) >= 0 && dia.compareTo(fim) <= 0);
     }
 
     public TrainingResult treinarComTodosBuckets() throws Exception {
-        Log.info("Treino (WEKA): usando TODOS os CSVs do bucket");
+        Log.info("Treino (WEKA): usando TODO o histórico do bucket");
+        List<S3Object> parquets = listarTodoOLake();
         List<S3Object> csvs = listarTodosOsCsvs();
-        if (csvs.isEmpty())
-            throw new IllegalStateException("Nenhum CSV encontrado no bucket.");
-        return executarTreinamento(csvs);
+        if (parquets.isEmpty() && csvs.isEmpty())
+            throw new IllegalStateException("Nenhum dado (lake ou CSV) encontrado no bucket.");
+        TrainingResult r = executarTreinamento(parquets, csvs, dia -> true);
+
+        Set<String> usados = new TreeSet<>();
+        parquets.forEach(o -> usados.add(o.key()));
+        csvs.forEach(o -> usados.add(o.key()));
+        gravarManifesto(new ManifestoTreino(baseDoModelo(r.modelKey), r.arvores, r.instanciasTreino, usados,
+                Instant.now()));
+        return r;
     }
 
-    private TrainingResult executarTreinamento(List<S3Object> csvs) throws Exception {
-        // 1️⃣ Consolidar todos os CSVs em um único arquivo
-        Path consolidadoCsv = consolidarCsvs(csvs);
+    /**
+     * Treina só com os arquivos do lake e CSVs que ainda não estão no
+     * manifesto e soma as árvores novas às do modelo anterior (a floresta
+     * vota pela média das árvores, então juntar duas florestas é juntar as
+     * listas). O número de árvores novas é proporcional à fração de dados
+     * novos, para que um dia de dados não pese tanto quanto o histórico.
+     *
+     * Sem manifesto, ou quando a floresta passaria de
+     * {@code ml.incremental.max-arvores}, refaz tudo com
+     * {@link #treinarComTodosBuckets}. Com menos de
+     * {@code ml.incremental.min-instancias} instâncias novas não treina e
+     * deixa os arquivos para a próxima rodada.
+     */
+    public TrainingResult treinarIncremental() throws Exception {
+        Optional<ManifestoTreino> lido = lerManifesto();
+        if (lido.isEmpty()) {
+            Log.info("Treino incremental: sem manifesto, treinando com todo o histórico");
+            return treinarComTodosBuckets();
+        }
+        ManifestoTreino manifesto = lido.get();
 
-        // 2️⃣ Carregar o arquivo consolidado em um objeto Instances (WEKA)
-        Instances all = carregarDataset(consolidadoCsv);
+        List<S3Object> lake = listarTodoOLake();
+        List<S3Object> csvs = listarTodosOsCsvs();
+        List<S3Object> parquetsNovos = naoUsados(lake, manifesto);
+        List<S3Object> csvsNovos = naoUsados(csvs, manifesto);
+        if (parquetsNovos.isEmpty() && csvsNovos.isEmpty()) {
+            Log.infof("Treino incremental: nada novo desde %s", manifesto.modelo());
+            return TrainingResult.semAlteracao(manifesto, "Nenhum arquivo novo desde o último treino.");
+        }
+
+        // dias que já têm lake (mesmo que antigo) não são relidos do CSV
+        Set<String> diasNoLake = lake.stream().map(o -> diaDaParticao(o.key())).collect(Collectors.toSet());
+        Instances novos = etapa("carregar",
+                () -> carregarDataset(parquetsNovos, csvsNovos, dia -> !diasNoLake.contains(dia)));
+        Set<String> arquivosNovos = new TreeSet<>();
+        parquetsNovos.forEach(o -> arquivosNovos.add(o.key()));
+        csvsNovos.forEach(o -> arquivosNovos.add(o.key()));
+
+        if (novos.numInstances() == 0) {
+            // só CSVs de dias já cobertos pelo lake: marca como lidos e segue com o mesmo modelo
+            gravarManifesto(manifesto.com(manifesto.modelo(), 0, 0, arquivosNovos));
+            return TrainingResult.semAlteracao(manifesto, "Arquivos novos sem linhas fora do lake.");
+        }
+        if (novos.numInstances() < minInstanciasIncremento) {
+            Log.infof("Treino incremental: só %d instâncias novas (mínimo %d), aguardando mais dados",
+                    novos.numInstances(), minInstanciasIncremento);
+            return TrainingResult.semAlteracao(manifesto, "Poucas instâncias novas: " + novos.numInstances());
+        }
+
+        StratifiedSplit split = etapa("dividir", () -> dividirTreinoTeste(novos));
+        int arvoresNovas = arvoresParaIncremento(manifesto.arvores(), manifesto.instancias(),
+                split.train.numInstances(), minArvoresIncremento);
+        if (manifesto.arvores() + arvoresNovas > maxArvores) {
+            Log.infof("Treino incremental: %d + %d árvores passaria de %d, refazendo do zero",
+                    manifesto.arvores(), arvoresNovas, maxArvores);
+            return treinarComTodosBuckets();
+        }
 
-        // 3️⃣ Separar treino e teste (70/30)
-        StratifiedSplit split = dividirTreinoTeste(all);
+        long t0 = System.nanoTime();
+        // o incremento é treinado como o modelo anterior foi (mesma profundidade e peso de custo)
+        ConfiguracaoModelo cfg = lerJson(manifesto.modelo() + ConfiguracaoModelo.SUFIXO, ConfiguracaoModelo.class)
+                .orElse(null);
+        CostSensitiveClassifier modelo = etapa("treinar", () -> {
+            CostSensitiveClassifier anterior = (CostSensitiveClassifier) lerObjeto(manifesto.modelo() + ".model");
+            CostSensitiveClassifier incremento = novoModelo(split.train, arvoresNovas, SEED + manifesto.arvores(),
+                    threads(), cfg);
+            incremento.buildClassifier(split.train);
+            return mesclar(anterior, (RandomForest) incremento.getClassifier());
+        });
+        Log.infof("Treino incremental: %d árvores novas com %d instâncias (%d arquivos) em %d ms; total %d árvores",
+                arvoresNovas, split.train.numInstances(), arquivosNovos.size(),
+                (System.nanoTime() - t0) / 1_000_000, manifesto.arvores() + arvoresNovas);
+
+        // avaliado só nos 30% dos dados novos que ficaram fora do incremento
+        String avaliacao = etapa("avaliar", () -> avaliarModelo(modelo, split.train, split.test, cfg));
+        String modelKey = etapa("salvar", () -> salvarModelo(modelo, split.train, cfg));
+        ManifestoTreino atualizado = manifesto.com(baseDoModelo(modelKey), arvoresNovas,
+                split.train.numInstances(), arquivosNovos);
+        gravarManifesto(atualizado);
+
+        TrainingResult r = new TrainingResult(avaliacao, modelKey);
+        r.incremental = true;
+        r.arvores = atualizado.arvores();
+        r.instanciasTreino = split.train.numInstances();
+        r.arquivosNovos = arquivosNovos.size();
+        return r;
+    }
+
+    /**
+     * Árvores do incremento na mesma proporção árvores/instância do modelo
+     * atual, com um mínimo para o incremento não ficar instável.
+     */
+    static int arvoresParaIncremento(int arvoresAtuais, long instanciasAtuais, long instanciasNovas, int minimo) {
+        if (instanciasAtuais <= 0) {
+            return Math.max(minimo, arvoresAtuais);
+        }
+        long proporcional = Math.round((double) arvoresAtuais * instanciasNovas / instanciasAtuais);
+        return (int) Math.max(minimo, proporcional);
+    }
+
+    /**
+     * Soma as árvores de {@code incremento} à floresta dentro de
+     * {@code anterior}. Com minimizeExpectedCost o custo é aplicado sobre a
+     * distribuição da floresta; sem ele (modelo ajustado) já entrou no treino
+     * de cada floresta. Nos dois casos a matriz de custo continua valendo.
+     */
+    static CostSensitiveClassifier mesclar(CostSensitiveClassifier anterior, RandomForest incremento)
+            throws Exception {
+        RandomForest floresta = (RandomForest) anterior.getClassifier();
+        floresta.aggregate(incremento);
+        floresta.finalizeAggregation();
+        return anterior;
+    }
+
+    private TrainingResult executarTreinamento(List<S3Object> parquets, List<S3Object> csvs,
+            Predicate<String> diaNoPeriodo) throws Exception {
+        // 1️⃣ Carregar lake (Parquet) + CSVs antigos direto em um objeto Instances (WEKA)
+        Instances all = etapa("carregar", () -> carregarDataset(parquets, csvs, diaNoPeriodo));
+        ConfiguracaoModelo cfg = lerJson(ConfiguracaoModelo.KEY, ConfiguracaoModelo.class).orElse(null);
+
+        // 2️⃣ Separar treino e teste (70/30)
+        StratifiedSplit split = etapa("dividir", () -> dividirTreinoTeste(all));
         Instances train = split.train;
         Instances test = split.test;
 
-        // 4️⃣ Treinar modelo com RandomForest + CostSensitive
-        CostSensitiveClassifier modeloTreinado = treinarModelo(train, all);
-
-        // 5️⃣ Avaliar modelo com dados de teste
-        String avaliacao = avaliarModelo(modeloTreinado, train, test);
-
-        // 6️⃣ Salvar modelo e cabeçalho no MinIO
-        String modelKey = salvarModelo(modeloTreinado, train);
-
-        return new TrainingResult(avaliacao, modelKey);
-    }
-
-    private Path consolidarCsvs(List<S3Object> csvs) throws Exception {
-        Path consolidado = Files.createTempFile("neows-consolidated-", ".csv");
-        boolean primeiraLinha = true;
-
-        try (var writer = Files.newBufferedWriter(consolidado)) {
-            for (S3Object obj : csvs) {
-                Log.info("Lendo: " + obj.key());
-                try (InputStream is = s3.getObject(GetObjectRequest.builder()
-                        .bucket(bucket).key(obj.key()).build());
-                        var reader = new java.io.BufferedReader(new java.io.InputStreamReader(is))) {
-                    String linha;
-                    boolean primeiraLinhaArquivo = true;
-
-                    while ((linha = reader.readLine()) != null) {
-                        if (primeiraLinhaArquivo) {
-                            if (primeiraLinha) {
-                                writer.write(linha);
-                                writer.newLine();
-                                primeiraLinha = false;
-                            }
-                            primeiraLinhaArquivo = false;
-                        } else {
-                            writer.write(linha);
-                            writer.newLine();
-                        }
-                    }
-                }
-            }
-        }
-        return consolidado;
+        // 3️⃣ Treinar modelo com RandomForest + CostSensitive
+        CostSensitiveClassifier modeloTreinado = etapa("treinar", () -> treinarModelo(train, all, cfg));
+
+        // 4️⃣ Avaliar modelo com dados de teste (e, se configurado, k-fold sobre tudo)
+        String avaliacao = etapa("avaliar", () -> {
+            String holdout = avaliarModelo(modeloTreinado, train, test, cfg);
+            return folds > 1 ? holdout + validacaoCruzada(all, folds, cfg) : holdout;
+        });
+
+        // 5️⃣ Salvar modelo e cabeçalho no MinIO
+        String modelKey = etapa("salvar", () -> salvarModelo(modeloTreinado, train, cfg));
+
+        TrainingResult r = new TrainingResult(avaliacao, modelKey);
+        r.arvores = cfg == null ? ARVORES : cfg.arvores();
+        r.instanciasTreino = train.numInstances();
+        r.arquivosNovos = parquets.size() + csvs.size();
+        return r;
     }
 
-    private Instances carregarDataset(Path consolidadoCsv) throws Exception {
-        CSVLoader loader = new CSVLoader();
-        loader.setSource(consolidadoCsv.toFile());
-        Instances all = loader.getDataSet();
-        Files.deleteIfExists(consolidadoCsv);
+    /** Executa uma etapa do treino registrando a duração em {@code ml.treino.etapa}. */
+    private <T> T etapa(String nome, Callable<T> execucao) throws Exception {
+        Timer.Sample amostra = Timer.start(registry);
+        try {
+            return execucao.call();
+        } finally {
+            amostra.stop(Timer.builder("ml.treino.etapa")
+                    .description("Duração de cada etapa do treino")
+                    .tag("etapa", nome)
+                    .register(registry));
+        }
+    }
 
-        int classIndex = all.attribute(RESPONSE_COLUMN).index();
-        all.setClassIndex(classIndex);
+    /**
+     * Lê os arquivos do lake só nas colunas do modelo e, para os dias que
+     * ainda não estão no lake (importados antes dele existir), as linhas dos
+     * CSVs brutos. Tudo vai para colunas primitivas e dali para Instances,
+     * sem arquivo intermediário. Os downloads correm em paralelo
+     * ({@link ObjetosS3Service#baixarEmOrdem}), mas os arquivos entram no
+     * dataset na ordem das keys, então o resultado é determinístico.
+     */
+    private Instances carregarDataset(List<S3Object> parquets, List<S3Object> csvs,
+            Predicate<String> diaNoPeriodo) throws Exception {
+        long t0 = System.nanoTime();
+        Set<String> diasNoLake = parquets.stream()
+                .map(o -> diaDaParticao(o.key()))
+                .collect(Collectors.toSet());
+
+        Predicate<String> diaSoNoCsv = dia -> diaNoPeriodo.test(dia) && !diasNoLake.contains(dia);
+        List<S3Object> arquivos = new ArrayList<>(parquets.size() + csvs.size());
+        arquivos.addAll(parquets);
+        arquivos.addAll(csvs);
+
+        DatasetColunar dataset = new DatasetColunar(1024);
+        objetos.baixarEmOrdem(arquivos, (obj, conteudo) -> {
+            Log.debug("Lendo: " + obj.key());
+            if (obj.key().endsWith(".parquet")) {
+                dataset.adicionarParquet(conteudo);
+            } else {
+                dataset.adicionarCsv(new ByteArrayInputStream(conteudo), diaSoNoCsv);
+            }
+        });
 
-        Log.infof("Dataset: %d instâncias, %d atributos, classe=%s",
-                all.numInstances(), all.numAttributes(), all.classAttribute().name());
+        Instances all = dataset.paraInstances();
+        Log.infof("Dataset: %d instâncias, %d atributos, classe=%s (%d arquivos do lake, %d CSVs, %d ms)",
+                all.numInstances(), all.numAttributes(), all.classAttribute().name(),
+                parquets.size(), csvs.size(), (System.nanoTime() - t0) / 1_000_000);
 
         return all;
     }
 
-    private StratifiedSplit dividirTreinoTeste(Instances all) throws Exception {
+    /** Todo o histórico (lake + CSVs antigos) num único Instances, para o /ml/tune. */
+    Instances carregarHistorico() throws Exception {
+        List<S3Object> parquets = listarTodoOLake();
+        List<S3Object> csvs = listarTodosOsCsvs();
+        if (parquets.isEmpty() && csvs.isEmpty())
+            throw new IllegalStateException("Nenhum dado (lake ou CSV) encontrado no bucket.");
+        return carregarDataset(parquets, csvs, dia -> true);
+    }
+
+    StratifiedSplit dividirTreinoTeste(Instances all) throws Exception {
         long seed = 123L;
         double trainRatio = 0.70;
         return stratifiedHoldout(all, trainRatio, seed);
     }
 
-    private CostSensitiveClassifier treinarModelo(Instances train, Instances all) throws Exception {
+    int threads() {
+        return threadsTreino > 0 ? threadsTreino : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Floresta que constrói as árvores em {@code threads} threads (pool do
+     * próprio Weka). Cada árvore tem bag e seed derivados só do índice dela,
+     * então o modelo é o mesmo com qualquer número de threads.
+     */
+    private static RandomForest novaFloresta(int arvores, int seed, int threads) {
         RandomForest rf = new RandomForest();
-        rf.setNumIterations(100);
-        rf.setSeed(123);
+        rf.setNumIterations(arvores);
+        rf.setSeed(seed);
+        rf.setNumExecutionSlots(threads);
+        return rf;
+    }
+
+    private CostSensitiveClassifier treinarModelo(Instances train, Instances all, ConfiguracaoModelo cfg)
+            throws Exception {
+        long t0 = System.nanoTime();
+        int arvores = cfg == null ? ARVORES : cfg.arvores();
+        CostSensitiveClassifier csc = novoModelo(all, arvores, SEED, threads(), cfg);
+        csc.buildClassifier(train);
+        Log.infof("Floresta de %d árvores construída em %d ms (%d threads%s)", arvores,
+                (System.nanoTime() - t0) / 1_000_000, threads(), cfg == null ? "" : ", configuração do /ml/tune");
+        return csc;
+    }
+
+    /**
+     * RandomForest + matriz de custo, ainda não treinado. Sem configuração
+     * usa {@code ml.cost.*} com minimizeExpectedCost (decisão 0/1 pelo
+     * menor custo esperado). Com ela, a profundidade e o peso do custo
+     * ajustados, com o custo aplicado como peso no treino, para a saída
+     * continuar sendo probabilidade e o threshold do ajuste valer.
+     */
+    CostSensitiveClassifier novoModelo(Instances all, int arvores, int seed, int threads, ConfiguracaoModelo cfg) {
+        RandomForest rf = novaFloresta(arvores, seed, threads);
+        if (cfg != null) {
+            rf.setMaxDepth(cfg.profundidade());
+        }
 
         var clsAttr = all.classAttribute();
         int idxFalse = clsAttr.indexOfValue("false");
         int idxTrue = clsAttr.indexOfValue("true");
 
         CostMatrix cm = new CostMatrix(2);
-        cm.setElement(idxTrue, idxFalse, COST_FN);
-        cm.setElement(idxFalse, idxTrue, COST_FP);
+        cm.setElement(idxTrue, idxFalse, cfg == null ? COST_FN : cfg.pesoFn());
+        cm.setElement(idxFalse, idxTrue, cfg == null ? COST_FP : 1.0);
         cm.setElement(idxFalse, idxFalse, 0.0);
         cm.setElement(idxTrue, idxTrue, 0.0);
 
         CostSensitiveClassifier csc = new CostSensitiveClassifier();
         csc.setClassifier(rf);
         csc.setCostMatrix(cm);
-        csc.setMinimizeExpectedCost(true);
-        csc.buildClassifier(train);
-
+        csc.setMinimizeExpectedCost(cfg == null);
         return csc;
     }
 
-    private String avaliarModelo(CostSensitiveClassifier csc, Instances train, Instances test) throws Exception {
+    /**
+     * Validação cruzada estratificada em {@code k} folds, com os folds
+     * treinados e avaliados em paralelo. As threads de árvore são divididas
+     * entre os folds para o total ficar em {@link #threads()}. O relatório
+     * traz o resultado agregado e o tempo e as métricas de cada fold.
+     */
+    String validacaoCruzada(Instances all, int k, ConfiguracaoModelo cfg) throws Exception {
+        long t0 = System.nanoTime();
+        Instances dados = new Instances(all);
+        dados.randomize(new Random(SEED));
+        dados.stratify(k);
+
+        int paralelos = Math.min(k, threads());
+        int threadsPorFold = Math.max(1, threads() / paralelos);
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(paralelos, r -> {
+            Thread t = new Thread(r, "ml-fold-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<ResultadoFold> resultados = new ArrayList<>(k);
+        try {
+            List<Future<ResultadoFold>> emAndamento = new ArrayList<>(k);
+            for (int i = 0; i < k; i++) {
+                int fold = i;
+                emAndamento.add(pool.submit(() -> avaliarFold(dados, k, fold, threadsPorFold, cfg)));
+            }
+            for (Future<ResultadoFold> f : emAndamento) {
+                try {
+                    resultados.add(f.get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ex ? ex : e;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        AggregateableEvaluation total = new AggregateableEvaluation(dados);
+        resultados.forEach(r -> total.aggregate(r.avaliacao()));
+        int idxTrue = dados.classAttribute().indexOfValue("true");
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n=== Validação cruzada (%d folds, %d em paralelo, %d ms) ===%n", k, paralelos,
+                (System.nanoTime() - t0) / 1_000_000));
+        sb.append(total.toSummaryString()).append('\n');
+        sb.append(total.toMatrixString()).append('\n');
+        if (idxTrue >= 0) {
+            sb.append(String.format("AUC (classe positiva='true'): %.4f%n", total.areaUnderROC(idxTrue)));
+        }
+        sb.append("\nfold  treino(ms)  avaliação(ms)  acurácia(%)  recall(true)\n");
+        for (ResultadoFold r : resultados) {
+            sb.append(String.format("%4d  %10d  %13d  %11.2f  %12.4f%n", r.fold() + 1, r.treinoMs(),
+                    r.avaliacaoMs(), r.avaliacao().pctCorrect(),
+                    idxTrue >= 0 ? r.avaliacao().recall(idxTrue) : Double.NaN));
+        }
+
+        Log.info(sb.toString());
+        return sb.toString();
+    }
+
+    private ResultadoFold avaliarFold(Instances dados, int k, int fold, int threads, ConfiguracaoModelo cfg)
+            throws Exception {
+        Instances treino = dados.trainCV(k, fold, new Random(SEED + fold));
+        Instances teste = dados.testCV(k, fold);
+
+        long t0 = System.nanoTime();
+        CostSensitiveClassifier csc = novoModelo(dados, cfg == null ? ARVORES : cfg.arvores(), SEED, threads, cfg);
+        csc.buildClassifier(treino);
+        long t1 = System.nanoTime();
+        Evaluation eval = new Evaluation(treino);
+        eval.evaluateModel(csc, teste);
+        long t2 = System.nanoTime();
+        return new ResultadoFold(fold, eval, (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000);
+    }
+
+    private record ResultadoFold(int fold, Evaluation avaliacao, long treinoMs, long avaliacaoMs) {
+    }
+
+    private String avaliarModelo(CostSensitiveClassifier csc, Instances train, Instances test,
+            ConfiguracaoModelo cfg) throws Exception {
         Evaluation eval = new Evaluation(train);
         eval.evaluateModel(csc, test);
 
@@ -174,13 +487,26 @@ public class MLTrainingService {
         if (idxTrueVal >= 0) {
             double auc = eval.areaUnderROC(idxTrueVal);
             sb.append(String.format("\nAUC (classe positiva='true'): %.4f\n", auc));
+            if (cfg != null) {
+                // a matriz acima decide pela maior probabilidade; a inferência usa o threshold do ajuste
+                double[] p = new double[test.numInstances()];
+                boolean[] y = new boolean[test.numInstances()];
+                for (int i = 0; i < p.length; i++) {
+                    p[i] = csc.distributionForInstance(test.instance(i))[idxTrueVal];
+                    y[i] = (int) test.instance(i).classValue() == idxTrueVal;
+                }
+                sb.append(String.format("Custo com threshold %.4f do /ml/tune: %.1f (FN=%.1f, FP=%.1f)\n",
+                        cfg.threshold(), AjusteModeloService.custo(p, y, cfg.threshold(), COST_FN, COST_FP),
+                        COST_FN, COST_FP));
+            }
         }
 
         Log.info(sb.toString());
         return sb.toString();
     }
 
-    private String salvarModelo(CostSensitiveClassifier csc, Instances train) throws Exception {
+    /** Grava modelo e header (e, com configuração, o {@code .tuning.json} com o threshold) no MinIO. */
+    String salvarModelo(CostSensitiveClassifier csc, Instances train, ConfiguracaoModelo cfg) throws Exception {
         Path tmpModel = Files.createTempFile("neows-weka-", ".model");
         Path tmpHeader = Files.createTempFile("neows-weka-", ".header");
 
@@ -192,18 +518,91 @@ public class MLTrainingService {
         String modelKey = "models/weka-rf-csc-" + ts + ".model";
         String headerKey = "models/weka-rf-csc-" + ts + ".header";
 
-        s3.putObject(PutObjectRequest.builder().bucket(bucket).key(modelKey)
-                .contentType("application/octet-stream").build(),
-                RequestBody.fromFile(tmpModel));
+        // artefatos auxiliares (header incluso) antes do .model: a inferência procura o
+        // modelo novo pelo .model e logo em seguida lê o resto
         s3.putObject(PutObjectRequest.builder().bucket(bucket).key(headerKey)
                 .contentType("application/octet-stream").build(),
                 RequestBody.fromFile(tmpHeader));
+        exportarFloresta(csc, train, "models/weka-rf-csc-" + ts + SUFIXO_FLORESTA);
+        if (cfg != null) {
+            gravarJson("models/weka-rf-csc-" + ts + ConfiguracaoModelo.SUFIXO, cfg);
+        }
+        s3.putObject(PutObjectRequest.builder().bucket(bucket).key(modelKey)
+                .contentType("application/octet-stream").build(),
+                RequestBody.fromFile(tmpModel));
 
         Files.deleteIfExists(tmpModel);
         Files.deleteIfExists(tmpHeader);
         return modelKey;
     }
 
+    /**
+     * Grava a floresta achatada ({@link FlorestaCompilada}) que a inferência
+     * mapeia no lugar de desserializar o Weka, depois de conferir que ela
+     * pontua igual ao classificador numa amostra do treino (a inferência
+     * não tem o Weka para conferir). Sem ela a inferência desserializa e
+     * compila na carga, então uma falha aqui não derruba o treino.
+     */
+    private void exportarFloresta(CostSensitiveClassifier csc, Instances train, String key) {
+        try {
+            FlorestaCompilada floresta = FlorestaCompilada.compilar(csc);
+            Instances amostra = new Instances(train, 0, Math.min(train.numInstances(), AMOSTRA_CONFERENCIA));
+            int divergentes = floresta.divergencias(csc, amostra);
+            if (divergentes > 0) {
+                throw new IllegalStateException("floresta compilada divergiu do Weka em " + divergentes + " de "
+                        + amostra.numInstances() + " instâncias");
+            }
+            ByteBuffer conteudo = floresta.conteudo();
+            int tamanho = conteudo.remaining();
+            s3.putObject(PutObjectRequest.builder().bucket(bucket).key(key)
+                    .contentType("application/octet-stream").build(),
+                    RequestBody.fromByteBuffer(conteudo));
+            Log.infof("Floresta compilada: %s (%d árvores, %d nós, %d KB)", key, floresta.arvores(),
+                    floresta.nos(), tamanho / 1024);
+        } catch (Exception e) {
+            Log.warnf(e, "Falha ao exportar %s; a inferência compila a floresta na carga", key);
+        }
+    }
+
+    // ===== manifesto do treino incremental =====
+    private Optional<ManifestoTreino> lerManifesto() throws IOException {
+        return lerJson(ManifestoTreino.KEY, ManifestoTreino.class);
+    }
+
+    private void gravarManifesto(ManifestoTreino manifesto) throws IOException {
+        gravarJson(ManifestoTreino.KEY, manifesto);
+    }
+
+    <T> Optional<T> lerJson(String key, Class<T> tipo) throws IOException {
+        try {
+            byte[] json = s3.getObjectAsBytes(GetObjectRequest.builder().bucket(bucket).key(key).build())
+                    .asByteArray();
+            return Optional.of(mapper.readValue(json, tipo));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    void gravarJson(String key, Object valor) throws IOException {
+        s3.putObject(PutObjectRequest.builder().bucket(bucket).key(key)
+                .contentType("application/json").build(),
+                RequestBody.fromBytes(mapper.writeValueAsBytes(valor)));
+    }
+
+    private Object lerObjeto(String key) throws Exception {
+        byte[] bytes = s3.getObjectAsBytes(GetObjectRequest.builder().bucket(bucket).key(key).build()).asByteArray();
+        return SerializationHelper.read(new ByteArrayInputStream(bytes));
+    }
+
+    private static List<S3Object> naoUsados(List<S3Object> objetos, ManifestoTreino manifesto) {
+        return objetos.stream().filter(o -> !manifesto.arquivos().contains(o.key())).toList();
+    }
+
+    // models/weka-rf-csc-123.model -> models/weka-rf-csc-123
+    private static String baseDoModelo(String modelKey) {
+        return modelKey.substring(0, modelKey.length() - ".model".length());
+    }
+
     // ===== split estratificado 70/30 =====
     private StratifiedSplit stratifiedHoldout(Instances all, double trainRatio, long seed) throws Exception {
         if (!all.classAttribute().isNominal()) {
@@ -247,7 +646,7 @@ public class MLTrainingService {
         return new StratifiedSplit(train, test);
     }
 
-    private static class StratifiedSplit {
+    static class StratifiedSplit {
         final Instances train, test;
 
         StratifiedSplit(Instances t, Instances s) {
@@ -257,30 +656,43 @@ public class MLTrainingService {
     }
 
     // ===== utilitários S3 =====
+    private List<S3Object> listarLakeNoIntervalo(LocalDate start, LocalDate end) {
+        List<String> prefixos = start.datesUntil(end.plusDays(1))
+                .map(date -> PREFIXO_LAKE + "dia=" + date + "/")
+                .toList();
+        return objetos.listar(prefixos, ".parquet");
+    }
+
+    private List<S3Object> listarTodoOLake() {
+        return objetos.listar(PREFIXO_LAKE, ".parquet");
+    }
+
+    // lake/neo/dia=2025-01-01/part-123.parquet -> 2025-01-01
+    private static String diaDaParticao(String key) {
+        int ini = key.indexOf("dia=") + "dia=".length();
+        return key.substring(ini, key.indexOf('/', ini));
+    }
+
+    // raw/<data>/ é o primeiro dia da janela do feed, então CSVs de até 6 dias
+    // antes do início ainda podem ter linhas do período
     private List<S3Object> listarCsvsNoIntervalo(LocalDate start, LocalDate end) {
-        return start.datesUntil(end.plusDays(1))
-                .flatMap(date -> {
-                    String prefix = "raw/" + date + "/";
-                    ListObjectsV2Response resp = s3.listObjectsV2(
-                            ListObjectsV2Request.builder().bucket(bucket).prefix(prefix).build());
-                    return resp.contents().stream().filter(o -> o.key().endsWith(".csv"));
-                })
-                .sorted(Comparator.comparing(S3Object::key))
-                .collect(Collectors.toList());
+        List<String> prefixos = start.minusDays(JanelaFeed.MAX_DIAS_NEOWS - 1).datesUntil(end.plusDays(1))
+                .map(date -> "raw/" + date + "/")
+                .toList();
+        return objetos.listar(prefixos, ".csv");
     }
 
     private List<S3Object> listarTodosOsCsvs() {
-        ListObjectsV2Response response = s3.listObjectsV2(
-                ListObjectsV2Request.builder().bucket(bucket).prefix("raw/").build());
-        return response.contents().stream()
-                .filter(o -> o.key().endsWith(".csv"))
-                .sorted(Comparator.comparing(S3Object::key))
-                .collect(Collectors.toList());
+        return objetos.listar("raw/", ".csv");
     }
 
     public static class TrainingResult {
         public String evaluation;
         public String modelKey;
+        public boolean incremental;
+        public int arvores;
+        public long instanciasTreino;
+        public int arquivosNovos;
 
         public TrainingResult() {
         }
@@ -289,5 +701,13 @@ public class MLTrainingService {
             this.evaluation = evaluation;
             this.modelKey = modelKey;
         }
+
+        /** Rodada incremental que manteve o modelo do manifesto. */
+        static TrainingResult semAlteracao(ManifestoTreino manifesto, String motivo) {
+            TrainingResult r = new TrainingResult(motivo, manifesto.modelo() + ".model");
+            r.incremental = true;
+            r.arvores = manifesto.arvores();
+            return r;
+        }
     }
 }
@@ -0,0 +1,33 @@
+package org.acme.ia.service;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Estado do treino incremental, gravado em {@link #KEY} ao lado dos
+ * modelos: qual modelo é a base da próxima rodada e quais arquivos do lake
+ * ({@code lake/neo/dia=<data>/}) e CSVs brutos ({@code raw/<data>/}) já
+ * entraram nele. A próxima rodada só lê o que não está em {@code arquivos}.
+ *
+ * @param modelo     key base do modelo (sem {@code .model}/{@code .header})
+ * @param arvores    árvores na floresta desse modelo
+ * @param instancias instâncias de treino representadas pelas árvores
+ */
+public record ManifestoTreino(String modelo, int arvores, long instancias, Set<String> arquivos,
+        Instant atualizadoEm) {
+
+    public static final String KEY = "models/manifest.json";
+
+    public ManifestoTreino {
+        arquivos = new TreeSet<>(arquivos);
+    }
+
+    /** Este manifesto com mais um incremento aplicado. */
+    public ManifestoTreino com(String novoModelo, int novasArvores, long novasInstancias, Set<String> novosArquivos) {
+        Set<String> todos = new TreeSet<>(arquivos);
+        todos.addAll(novosArquivos);
+        return new ManifestoTreino(novoModelo, arvores + novasArvores, instancias + novasInstancias, todos,
+                Instant.now());
+    }
+}
@@ -0,0 +1,57 @@
+package org.acme.ia.service;
+
+import java.time.Instant;
+
+import weka.classifiers.Classifier;
+import weka.core.Attribute;
+import weka.core.Instances;
+
+/**
+ * Modelo em uso pela inferência: classificador, cabeçalho e threshold
+ * trocados juntos, numa única referência. Quem lê pega o snapshot uma vez
+ * e usa só ele, então nunca mistura o classificador de uma versão com o
+ * header de outra.
+ *
+ * @param classificador o modelo Weka; {@code null} quando a carga foi só pelo
+ *                      {@code .forest} (a predição usa {@code floresta})
+ * @param floresta      a mesma floresta em arrays primitivos, usada no lugar
+ *                      do classificador na predição ({@code null} se o modelo
+ *                      não pôde ser compilado: a predição fica no Weka)
+ * @param versao        key base no bucket, ex.: {@code models/weka-rf-csc-1700000000000}
+ * @param idxClasseTrue índice do valor "true" no atributo de classe (-1 se não existir)
+ * @param idxFeatures   índice no header de cada nome em {@link #FEATURES} (-1 se o modelo não usa)
+ */
+public record ModeloSnapshot(
+        Classifier classificador,
+        FlorestaCompilada floresta,
+        Instances header,
+        double threshold,
+        String versao,
+        int idxClasseTrue,
+        int[] idxFeatures,
+        Instant carregadoEm) {
+
+    /** Ordem das features em {@link #idxFeatures} e nos vetores de entrada da inferência. */
+    public static final String[] FEATURES = DatasetColunar.FEATURES;
+
+    public static ModeloSnapshot de(Classifier classificador, Instances header, double threshold, String versao) {
+        return de(classificador, null, header, threshold, versao);
+    }
+
+    public static ModeloSnapshot de(Classifier classificador, FlorestaCompilada floresta, Instances header,
+            double threshold, String versao) {
+        int[] idx = new int[FEATURES.length];
+        for (int f = 0; f < FEATURES.length; f++) {
+            Attribute a = header.attribute(FEATURES[f]);
+            idx[f] = a == null ? -1 : a.index();
+        }
+        return new ModeloSnapshot(classificador, floresta, header, threshold, versao,
+                header.classAttribute().indexOfValue("true"), idx, Instant.now());
+    }
+
+    /** O mesmo snapshot pontuando só pelo Weka. */
+    public ModeloSnapshot semFloresta() {
+        return new ModeloSnapshot(classificador, null, header, threshold, versao, idxClasseTrue, idxFeatures,
+                carregadoEm);
+    }
+}
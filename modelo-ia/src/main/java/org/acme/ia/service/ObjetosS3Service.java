@@ -0,0 +1,146 @@
+package org.acme.ia.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Listagem e download em massa do bucket para o treino.
+ *
+ * A listagem segue todas as páginas do ListObjectsV2 (o S3/MinIO devolve no
+ * máximo 1000 keys por chamada) e, quando há vários prefixos (um por dia),
+ * lista os prefixos em paralelo. O download mantém até
+ * {@code ml.s3.downloads-em-voo} objetos sendo baixados ao mesmo tempo e
+ * entrega cada um ao consumidor na ordem da lista, então a memória fica
+ * limitada à janela e o consumidor não precisa ser thread-safe.
+ */
+@ApplicationScoped
+public class ObjetosS3Service {
+
+    @Inject
+    S3Client s3;
+
+    @ConfigProperty(name = "neo.minio.bucket")
+    String bucket;
+
+    @ConfigProperty(name = "ml.s3.concorrencia", defaultValue = "8")
+    int concorrencia;
+
+    @ConfigProperty(name = "ml.s3.downloads-em-voo", defaultValue = "16")
+    int downloadsEmVoo;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concorrencia, r -> {
+            Thread t = new Thread(r, "ml-s3-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /** Todas as keys sob o prefixo terminadas em {@code sufixo}, ordenadas. */
+    public List<S3Object> listar(String prefixo, String sufixo) {
+        List<S3Object> objetos = new ArrayList<>();
+        s3.listObjectsV2Paginator(ListObjectsV2Request.builder().bucket(bucket).prefix(prefixo).build())
+                .contents()
+                .forEach(o -> {
+                    if (o.key().endsWith(sufixo)) {
+                        objetos.add(o);
+                    }
+                });
+        objetos.sort(Comparator.comparing(S3Object::key));
+        return objetos;
+    }
+
+    /** Como {@link #listar}, para vários prefixos listados em paralelo. */
+    public List<S3Object> listar(List<String> prefixos, String sufixo) {
+        List<CompletableFuture<List<S3Object>>> listagens = prefixos.stream()
+                .map(p -> CompletableFuture.supplyAsync(() -> listar(p, sufixo), executor))
+                .toList();
+
+        List<S3Object> objetos = new ArrayList<>();
+        for (CompletableFuture<List<S3Object>> l : listagens) {
+            objetos.addAll(l.join());
+        }
+        objetos.sort(Comparator.comparing(S3Object::key));
+        return objetos;
+    }
+
+    @FunctionalInterface
+    public interface ConsumidorObjeto {
+        void aceitar(S3Object objeto, byte[] conteudo) throws Exception;
+    }
+
+    /**
+     * Baixa os objetos com até {@code ml.s3.downloads-em-voo} requisições em
+     * andamento e entrega cada um ao consumidor na ordem da lista, enquanto
+     * os seguintes continuam baixando. Um erro em qualquer download ou no
+     * consumidor cancela o restante.
+     */
+    public void baixarEmOrdem(List<S3Object> objetos, ConsumidorObjeto consumidor) throws Exception {
+        long t0 = System.nanoTime();
+        long bytes = 0;
+        Deque<Future<byte[]>> emVoo = new ArrayDeque<>(downloadsEmVoo);
+        Iterator<S3Object> aBaixar = objetos.iterator();
+        try {
+            while (emVoo.size() < downloadsEmVoo && aBaixar.hasNext()) {
+                emVoo.add(baixar(aBaixar.next()));
+            }
+            for (S3Object obj : objetos) {
+                byte[] conteudo = aguardar(emVoo.removeFirst());
+                if (aBaixar.hasNext()) {
+                    emVoo.add(baixar(aBaixar.next()));
+                }
+                bytes += conteudo.length;
+                consumidor.aceitar(obj, conteudo);
+            }
+        } finally {
+            emVoo.forEach(f -> f.cancel(true));
+        }
+        long ms = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+        Log.infof("Download: %d objetos, %.1f MB em %d ms (%.1f MB/s)",
+                objetos.size(), bytes / 1e6, ms, bytes / 1e3 / ms);
+    }
+
+    private Future<byte[]> baixar(S3Object obj) {
+        return executor.submit(() -> s3.getObjectAsBytes(GetObjectRequest.builder()
+                .bucket(bucket).key(obj.key()).build()).asByteArray());
+    }
+
+    private static byte[] aguardar(Future<byte[]> f) throws Exception {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        }
+    }
+}
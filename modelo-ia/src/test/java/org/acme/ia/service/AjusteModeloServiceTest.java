@@ -0,0 +1,57 @@
+package org.acme.ia.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class AjusteModeloServiceTest {
+
+    @Test
+    void melhorThresholdBateComBuscaExaustiva() {
+        Random rnd = new Random(7);
+        for (int rodada = 0; rodada < 50; rodada++) {
+            int n = 1 + rnd.nextInt(200);
+            double[] p = new double[n];
+            boolean[] y = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                p[i] = rnd.nextInt(20) / 20.0; // com empates de propósito
+                y[i] = rnd.nextDouble() < p[i] * 0.8 + 0.1;
+            }
+
+            double esperado = Double.MAX_VALUE;
+            for (int t = 0; t <= 21; t++) {
+                esperado = Math.min(esperado, AjusteModeloService.custo(p, y, t / 20.0, 15.0, 3.0));
+            }
+            AjusteModeloService.Limiar limiar = AjusteModeloService.melhorThreshold(p, y, 15.0, 3.0);
+
+            assertEquals(esperado, limiar.custo(), 1e-9, "rodada " + rodada);
+            assertEquals(limiar.custo(), AjusteModeloService.custo(p, y, limiar.threshold(), 15.0, 3.0), 1e-9,
+                    "rodada " + rodada);
+        }
+    }
+
+    @Test
+    void aucContaEmpatesComoMeio() {
+        double[] p = { 0.1, 0.4, 0.35, 0.8 };
+        boolean[] y = { false, false, true, true };
+        assertEquals(0.75, AjusteModeloService.auc(p, y), 1e-12);
+
+        assertEquals(0.5, AjusteModeloService.auc(new double[] { 0.5, 0.5 }, new boolean[] { true, false }), 1e-12);
+    }
+
+    @Test
+    void combinacoesRespeitaOTeto() {
+        List<Integer> arvores = List.of(50, 100);
+        List<Integer> profundidades = List.of(0, 8, 16);
+        List<Double> pesos = List.of(1.0, 5.0);
+
+        assertEquals(12, AjusteModeloService.combinacoes(arvores, profundidades, pesos, 0).size());
+        List<AjusteModeloService.Combinacao> sorteadas = AjusteModeloService.combinacoes(arvores, profundidades,
+                pesos, 5);
+        assertEquals(5, sorteadas.size());
+        assertEquals(sorteadas, AjusteModeloService.combinacoes(arvores, profundidades, pesos, 5));
+    }
+}
@@ -0,0 +1,76 @@
+package org.acme.ia.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.acme.service.ArmazenamentoMinioService.CsvNeoData;
+import org.acme.service.NeoParquet;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.junit.jupiter.api.Test;
+
+import weka.core.Instances;
+
+class DatasetColunarTest {
+
+    private static byte[] parquet(CsvNeoData... linhas) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ParquetWriter<GenericRecord> w = NeoParquet.abrirWriter(NeoParquet.saida(out), CompressionCodecName.ZSTD)) {
+            for (CsvNeoData l : linhas) {
+                w.write(NeoParquet.registro(l));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void juntaLakeECsvNoSchemaFixo() throws Exception {
+        DatasetColunar ds = new DatasetColunar(0);
+        ds.adicionarParquet(parquet(
+                new CsvNeoData("1", "(a)", 21.5, 120.0, 260.5, false, null, 12.5, "Earth", "2025-01-02"),
+                new CsvNeoData("2", "(b)", 18.0, 400.0, 900.0, true, null, null, "Earth", "2025-01-02")));
+
+        String csv = """
+                neoId,nome,magnitudeAbsoluta,diametroMinM,diametroMaxM,ehPotencialmentePerigoso,dataPrimeiraAproximacao,velocidadeKmS,planetaAlvo,criadoEm
+                3,(c),19.0,300.0,700.0,true,2025-Jan-01 10:00,25.0,Earth,2025-01-01
+                4,(d),22.0,,,false,2025-Jan-02 10:00,8.0,Earth,2025-01-02
+                """;
+        int doCsv = ds.adicionarCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                dia -> !dia.equals("2025-01-02"));
+
+        Instances data = ds.paraInstances();
+
+        assertEquals(1, doCsv);
+        assertEquals(3, data.numInstances());
+        assertEquals(5, data.numAttributes());
+        assertEquals(NeoParquet.COL_PERIGOSO, data.classAttribute().name());
+        assertEquals("false", data.instance(0).stringValue(data.classIndex()));
+        assertEquals("true", data.instance(1).stringValue(data.classIndex()));
+        assertEquals(12.5, data.instance(0).value(data.attribute(NeoParquet.COL_VELOCIDADE)));
+        assertTrue(data.instance(1).isMissing(data.attribute(NeoParquet.COL_VELOCIDADE)));
+        assertEquals(19.0, data.instance(2).value(data.attribute(NeoParquet.COL_MAGNITUDE)));
+        assertEquals(25.0, data.instance(2).value(data.attribute(NeoParquet.COL_VELOCIDADE)));
+    }
+
+    @Test
+    void cresceAlemDaCapacidadeInicial() throws Exception {
+        DatasetColunar ds = new DatasetColunar(16);
+        CsvNeoData[] linhas = new CsvNeoData[100];
+        for (int i = 0; i < linhas.length; i++) {
+            linhas[i] = new CsvNeoData(String.valueOf(i), null, (double) i, null, null, i % 2 == 0, null, null, null,
+                    "2025-01-01");
+        }
+        ds.adicionarParquet(parquet(linhas));
+        ds.adicionarParquet(parquet(linhas));
+
+        Instances data = ds.paraInstances();
+        assertEquals(200, data.numInstances());
+        assertEquals(99.0, data.instance(199).value(0));
+        assertEquals(0.0, data.instance(100).value(0));
+    }
+}
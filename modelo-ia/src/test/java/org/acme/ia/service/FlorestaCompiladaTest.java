@@ -0,0 +1,157 @@
+package org.acme.ia.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.CostMatrix;
+import weka.classifiers.functions.Logistic;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.classifiers.trees.RandomForest;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+class FlorestaCompiladaTest {
+
+    private static Instances dataset(long seed, int n, int faltantesEmDez) {
+        Random rnd = new Random(seed);
+        Instances d = DatasetColunar.cabecalho(n);
+        for (int i = 0; i < n; i++) {
+            double diametro = rnd.nextDouble() * 1000;
+            double velocidade = rnd.nextDouble() * 40;
+            boolean perigoso = diametro > 400 && velocidade > 15 || rnd.nextInt(10) == 0;
+            Instance inst = new DenseInstance(1.0, new double[] {
+                    15 + rnd.nextDouble() * 15, diametro, diametro * 2, velocidade, perigoso ? 1 : 0 });
+            for (int a = 0; a < 4; a++) {
+                if (rnd.nextInt(10) < faltantesEmDez) {
+                    inst.setMissing(a);
+                }
+            }
+            d.add(inst);
+        }
+        return d;
+    }
+
+    private static RandomForest floresta(int arvores, int profundidade) {
+        RandomForest rf = new RandomForest();
+        rf.setNumIterations(arvores);
+        rf.setMaxDepth(profundidade);
+        rf.setSeed(1);
+        return rf;
+    }
+
+    private static CostSensitiveClassifier csc(RandomForest rf, double pesoFn, boolean minimizar) {
+        CostMatrix custo = new CostMatrix(2);
+        custo.setCell(1, 0, pesoFn);
+        custo.setCell(0, 1, 1.0);
+        CostSensitiveClassifier csc = new CostSensitiveClassifier();
+        csc.setClassifier(rf);
+        csc.setCostMatrix(custo);
+        csc.setMinimizeExpectedCost(minimizar);
+        return csc;
+    }
+
+    /** Mesma probabilidade, bit a bit, para as duas classes em todas as linhas. */
+    private static void assertIgualAoWeka(Classifier weka, FlorestaCompilada compilada, Instances teste)
+            throws Exception {
+        for (int i = 0; i < teste.numInstances(); i++) {
+            Instance inst = teste.instance(i);
+            double[] esperado = weka.distributionForInstance(inst);
+            double[] valores = inst.toDoubleArray();
+            for (int c = 0; c < esperado.length; c++) {
+                assertEquals(esperado[c], compilada.probabilidade(valores, c), 0.0, "linha " + i + ", classe " + c);
+            }
+        }
+    }
+
+    @Test
+    void randomForestPuraComValoresFaltantes() throws Exception {
+        RandomForest rf = floresta(30, 0);
+        rf.buildClassifier(dataset(1, 800, 1));
+
+        assertIgualAoWeka(rf, FlorestaCompilada.compilar(rf), dataset(2, 2000, 2));
+    }
+
+    @Test
+    void custoNoTreinoComProfundidadeLimitada() throws Exception {
+        CostSensitiveClassifier csc = csc(floresta(25, 6), 5.0, false);
+        csc.buildClassifier(dataset(3, 800, 1));
+
+        assertIgualAoWeka(csc, FlorestaCompilada.compilar(csc), dataset(4, 2000, 2));
+    }
+
+    @Test
+    void minimizeExpectedCostViraZeroOuUm() throws Exception {
+        CostSensitiveClassifier csc = csc(floresta(25, 0), 15.0, true);
+        csc.buildClassifier(dataset(5, 800, 0));
+
+        assertIgualAoWeka(csc, FlorestaCompilada.compilar(csc), dataset(6, 2000, 1));
+    }
+
+    @Test
+    void florestaMescladaNoIncremental() throws Exception {
+        CostSensitiveClassifier csc = csc(floresta(20, 0), 15.0, true);
+        csc.buildClassifier(dataset(7, 600, 0));
+        RandomForest incremento = floresta(5, 0);
+        incremento.buildClassifier(dataset(8, 200, 0));
+        MLTrainingService.mesclar(csc, incremento);
+
+        FlorestaCompilada compilada = FlorestaCompilada.compilar(csc);
+
+        assertEquals(25, compilada.arvores());
+        assertIgualAoWeka(csc, compilada, dataset(9, 1000, 1));
+    }
+
+    @Test
+    void arquivoForestMapeadoPreservaAPontuacaoEOHeader(@TempDir Path dir) throws Exception {
+        CostSensitiveClassifier csc = csc(floresta(20, 0), 3.0, false);
+        Instances treino = dataset(10, 600, 1);
+        csc.buildClassifier(treino);
+        FlorestaCompilada original = FlorestaCompilada.compilar(csc);
+
+        Path arquivo = dir.resolve("modelo.forest");
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            canal.write(original.conteudo());
+        }
+        FlorestaCompilada mapeada = FlorestaCompilada.mapear(arquivo);
+
+        assertEquals(original.nos(), mapeada.nos());
+        assertNull(new Instances(treino, 0).equalHeadersMsg(mapeada.cabecalho()));
+        assertIgualAoWeka(csc, mapeada, dataset(11, 1000, 2));
+    }
+
+    @Test
+    void recusaOutraVersaoEArquivoTruncado() throws Exception {
+        RandomForest rf = floresta(5, 0);
+        rf.buildClassifier(dataset(13, 200, 0));
+        ByteBuffer conteudo = FlorestaCompilada.compilar(rf).conteudo();
+        byte[] bytes = new byte[conteudo.remaining()];
+        conteudo.get(bytes);
+
+        ByteBuffer outraVersao = ByteBuffer.wrap(bytes.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        outraVersao.putInt(4, FlorestaCompilada.VERSAO_FORMATO + 1);
+        assertThrows(IOException.class, () -> FlorestaCompilada.ler(outraVersao));
+        assertThrows(IOException.class, () -> FlorestaCompilada.ler(ByteBuffer.wrap(bytes, 0, bytes.length - 8)));
+    }
+
+    @Test
+    void recusaOQueNaoEFloresta() throws Exception {
+        Logistic logistic = new Logistic();
+        logistic.buildClassifier(dataset(12, 200, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> FlorestaCompilada.compilar(logistic));
+    }
+}
@@ -0,0 +1,106 @@
+package org.acme.ia.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import weka.classifiers.trees.RandomForest;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+class MLInferenceServiceTest {
+
+    private MLInferenceService service;
+    private RandomForest rf;
+    private Instances header;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new MLInferenceService();
+        service.TAU = 0.5;
+        service.instanciasAquecimento = 100;
+        service.tamanhoBloco = 64;
+        service.registry = new SimpleMeterRegistry();
+        service.init(); // sem S3: só sobe o pool e segue sem modelo
+
+        Random rnd = new Random(7);
+        Instances treino = DatasetColunar.cabecalho(500);
+        for (int i = 0; i < 500; i++) {
+            double diametro = rnd.nextDouble() * 1000;
+            double velocidade = rnd.nextDouble() * 40;
+            boolean perigoso = diametro > 400 && velocidade > 15 || rnd.nextInt(10) == 0;
+            treino.add(new DenseInstance(1.0, new double[] {
+                    15 + rnd.nextDouble() * 15, diametro, diametro * 2, velocidade, perigoso ? 1 : 0 }));
+        }
+        rf = new RandomForest();
+        rf.setNumIterations(20);
+        rf.setSeed(1);
+        rf.buildClassifier(treino);
+
+        header = new Instances(treino, 0);
+        service.publicar(ModeloSnapshot.de(rf, header, 0.5, "models/teste"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    private static List<MLInferenceService.FeaturesInput> linhas(long seed, int n) {
+        Random rnd = new Random(seed);
+        List<MLInferenceService.FeaturesInput> linhas = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            MLInferenceService.FeaturesInput f = new MLInferenceService.FeaturesInput();
+            f.magnitudeAbsoluta = 15 + rnd.nextDouble() * 15;
+            f.diametroMinM = rnd.nextInt(10) == 0 ? null : rnd.nextDouble() * 1000;
+            f.diametroMaxM = f.diametroMinM == null ? null : f.diametroMinM * 2;
+            f.velocidadeKmS = rnd.nextDouble() * 40;
+            linhas.add(f);
+        }
+        return linhas;
+    }
+
+    @Test
+    void florestaCompiladaDaOMesmoResultadoQueOWeka() throws Exception {
+        List<MLInferenceService.FeaturesInput> linhas = linhas(13, 1000);
+        MLInferenceService.PredictionBatchResult weka = service.predictLote(linhas);
+
+        service.publicar(ModeloSnapshot.de(rf, FlorestaCompilada.compilar(rf), header, 0.5, "models/teste"));
+        MLInferenceService.PredictionBatchResult compilada = service.predictLote(linhas);
+
+        assertNotNull(service.modeloAtual().orElseThrow().floresta(), "descartada no aquecimento");
+        for (int i = 0; i < linhas.size(); i++) {
+            assertEquals(weka.resultados.get(i).probabilidadePerigoso,
+                    compilada.resultados.get(i).probabilidadePerigoso, 0.0, "linha " + i);
+            assertEquals(weka.resultados.get(i).probabilidadePerigoso,
+                    service.predict(linhas.get(i)).probabilidadePerigoso, 0.0, "linha " + i);
+        }
+    }
+
+    @Test
+    void loteDaOMesmoResultadoQuePredicoesIndividuais() throws Exception {
+        List<MLInferenceService.FeaturesInput> linhas = linhas(11, 1000);
+
+        MLInferenceService.PredictionBatchResult lote = service.predictLote(linhas);
+
+        assertEquals("models/teste", lote.versaoModelo);
+        assertEquals(linhas.size(), lote.resultados.size());
+        for (int i = 0; i < linhas.size(); i++) {
+            MLInferenceService.PredictionResult individual = service.predict(linhas.get(i));
+            assertEquals(individual.probabilidadePerigoso, lote.resultados.get(i).probabilidadePerigoso, 0.0,
+                    "linha " + i);
+            assertEquals(individual.preditoPerigoso, lote.resultados.get(i).preditoPerigoso, "linha " + i);
+        }
+        assertEquals(1, service.registry.get("ml.predict.lote").tag("versao", "models/teste").timer().count());
+        assertEquals(linhas.size(), service.registry.get("ml.predict").tag("versao", "models/teste").timer().count());
+    }
+}
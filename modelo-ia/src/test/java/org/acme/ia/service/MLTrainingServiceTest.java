@@ -0,0 +1,87 @@
+package org.acme.ia.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import weka.classifiers.CostMatrix;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.classifiers.trees.RandomForest;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+class MLTrainingServiceTest {
+
+    private static Instances dataset(long seed, int n) {
+        Random rnd = new Random(seed);
+        Instances d = DatasetColunar.cabecalho(n);
+        for (int i = 0; i < n; i++) {
+            double diametro = rnd.nextDouble() * 1000;
+            double velocidade = rnd.nextDouble() * 40;
+            boolean perigoso = diametro > 400 && velocidade > 15 || rnd.nextInt(10) == 0;
+            d.add(new DenseInstance(1.0, new double[] {
+                    15 + rnd.nextDouble() * 15, diametro, diametro * 2, velocidade, perigoso ? 1 : 0 }));
+        }
+        return d;
+    }
+
+    private static RandomForest floresta(Instances d, int arvores, int seed) throws Exception {
+        RandomForest rf = new RandomForest();
+        rf.setNumIterations(arvores);
+        rf.setSeed(seed);
+        rf.buildClassifier(d);
+        return rf;
+    }
+
+    @Test
+    void mesclarVotaComTodasAsArvores() throws Exception {
+        Instances base = dataset(1, 400);
+        Instances novos = dataset(2, 100);
+
+        CostSensitiveClassifier csc = new CostSensitiveClassifier();
+        csc.setClassifier(floresta(base, 20, 1));
+        csc.setCostMatrix(new CostMatrix(2));
+        csc.setMinimizeExpectedCost(true);
+        csc.buildClassifier(base);
+        RandomForest original = floresta(base, 20, 1);
+        RandomForest incremento = floresta(novos, 5, 2);
+
+        RandomForest mesclada = (RandomForest) MLTrainingService.mesclar(csc, incremento).getClassifier();
+
+        assertEquals(25, mesclada.getNumIterations());
+        for (int i = 0; i < 50; i++) {
+            Instance inst = novos.instance(i);
+            double esperado = (20 * original.distributionForInstance(inst)[1]
+                    + 5 * incremento.distributionForInstance(inst)[1]) / 25;
+            assertEquals(esperado, mesclada.distributionForInstance(inst)[1], 1e-9, "instância " + i);
+        }
+    }
+
+    @Test
+    void arvoresDoIncrementoSaoProporcionaisAosDadosNovos() {
+        assertEquals(10, MLTrainingService.arvoresParaIncremento(100, 10_000, 1_000, 5));
+        assertEquals(5, MLTrainingService.arvoresParaIncremento(100, 10_000, 50, 5));
+        assertEquals(100, MLTrainingService.arvoresParaIncremento(100, 0, 50, 5));
+    }
+
+    @Test
+    void validacaoCruzadaReportaCadaFold() throws Exception {
+        MLTrainingService service = new MLTrainingService();
+        service.COST_FN = 15.0;
+        service.COST_FP = 3.0;
+        service.threadsTreino = 4;
+
+        String relatorio = service.validacaoCruzada(dataset(3, 600), 5, null);
+
+        assertTrue(relatorio.contains("5 folds"), relatorio);
+        assertTrue(relatorio.matches("(?s).*Total Number of Instances\\s+600\\s.*"), relatorio);
+        for (int i = 1; i <= 5; i++) {
+            String fold = "\\s+" + i + "\\s+\\d+\\s+\\d+\\s.*";
+            assertTrue(relatorio.lines().anyMatch(l -> l.matches(fold)), "fold " + i + " ausente:\n" + relatorio);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.acme.ia.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+class ObjetosS3ServiceTest {
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicInteger picoEmAndamento = new AtomicInteger();
+    private ObjetosS3Service service;
+
+    /** S3 falso: devolve a própria key como conteúdo, com latência aleatória. */
+    @BeforeEach
+    void setUp() {
+        service = new ObjetosS3Service();
+        service.bucket = "teste";
+        service.concorrencia = 8;
+        service.downloadsEmVoo = 4;
+        service.s3 = (S3Client) Proxy.newProxyInstance(S3Client.class.getClassLoader(),
+                new Class<?>[] { S3Client.class }, (proxy, metodo, args) -> {
+                    if (!metodo.getName().equals("getObjectAsBytes")) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    String key = ((GetObjectRequest) args[0]).key();
+                    picoEmAndamento.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(ThreadLocalRandom.current().nextInt(1, 15));
+                        if (key.startsWith("faltando")) {
+                            throw NoSuchKeyException.builder().message(key).build();
+                        }
+                        return ResponseBytes.fromByteArray(GetObjectResponse.builder().build(),
+                                key.getBytes(StandardCharsets.UTF_8));
+                    } finally {
+                        emAndamento.decrementAndGet();
+                    }
+                });
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    private static List<S3Object> objetos(String... keys) {
+        return Arrays.stream(keys).map(k -> S3Object.builder().key(k).build()).toList();
+    }
+
+    @Test
+    void entregaNaOrdemDaListaComJanelaLimitada() throws Exception {
+        List<S3Object> lista = objetos(IntStream.range(0, 60).mapToObj(i -> "raw/" + i + ".csv")
+                .toArray(String[]::new));
+        List<String> recebidos = new ArrayList<>();
+
+        service.baixarEmOrdem(lista, (obj, conteudo) -> {
+            assertEquals(obj.key(), new String(conteudo, StandardCharsets.UTF_8));
+            recebidos.add(obj.key());
+        });
+
+        assertEquals(lista.stream().map(S3Object::key).toList(), recebidos);
+        assertTrue(picoEmAndamento.get() <= 4, "pico de downloads: " + picoEmAndamento.get());
+        assertTrue(picoEmAndamento.get() > 1, "downloads não rodaram em paralelo");
+    }
+
+    @Test
+    void erroNoDownloadInterrompeAEntrega() {
+        List<S3Object> lista = objetos("a.csv", "b.csv", "faltando.csv", "c.csv", "d.csv");
+        List<String> recebidos = new ArrayList<>();
+
+        assertThrows(NoSuchKeyException.class,
+                () -> service.baixarEmOrdem(lista, (obj, conteudo) -> recebidos.add(obj.key())));
+        assertEquals(List.of("a.csv", "b.csv"), recebidos);
+    }
+}
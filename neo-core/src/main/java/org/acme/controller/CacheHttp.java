@@ -0,0 +1,64 @@
+package org.acme.controller;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.acme.service.VersaoCatalogo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * GET condicional para os recursos de NEO: ETag fraca com a versão do
+ * catálogo ({@link VersaoCatalogo}) e {@code Cache-Control}. Um
+ * {@code If-None-Match} com a versão atual vira 304 sem consultar o banco
+ * nem serializar o corpo.
+ */
+@ApplicationScoped
+public class CacheHttp {
+
+    @Inject
+    VersaoCatalogo versao;
+
+    @ConfigProperty(name = "neo.http.max-age", defaultValue = "PT5S")
+    Duration maxAge;
+
+    /**
+     * @param montar monta a resposta completa; só é chamado quando o cliente
+     *               não tem a versão atual
+     */
+    public Response responder(Request request, Supplier<Response.ResponseBuilder> montar) {
+        // lida antes de montar o corpo: se houver escrita no meio, a tag fica
+        // mais antiga que o corpo e a próxima requisição só recebe 200 de novo
+        EntityTag tag = new EntityTag(versao.atual(), true);
+        Response.ResponseBuilder naoModificado = request.evaluatePreconditions(tag);
+        if (naoModificado != null) {
+            return naoModificado.cacheControl(cacheControl()).build();
+        }
+        return montar.get().tag(tag).cacheControl(cacheControl()).build();
+    }
+
+    /** Igual a {@link #responder}, para os recursos de {@link NeoReativoController}. */
+    public Uni<Response> responderReativo(Request request, Supplier<Uni<Response.ResponseBuilder>> montar) {
+        EntityTag tag = new EntityTag(versao.atual(), true);
+        Response.ResponseBuilder naoModificado = request.evaluatePreconditions(tag);
+        if (naoModificado != null) {
+            return Uni.createFrom().item(naoModificado.cacheControl(cacheControl()).build());
+        }
+        return montar.get().map(resp -> resp.tag(tag).cacheControl(cacheControl()).build());
+    }
+
+    private CacheControl cacheControl() {
+        CacheControl cc = new CacheControl();
+        cc.setNoTransform(false);
+        cc.setMaxAge((int) maxAge.toSeconds());
+        cc.setMustRevalidate(true);
+        return cc;
+    }
+}
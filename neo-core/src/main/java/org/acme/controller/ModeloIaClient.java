@@ -0,0 +1,19 @@
+package org.acme.controller;
+
+import java.util.List;
+
+import org.acme.domain.dtos.PredicaoLote;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+
+@RegisterRestClient(configKey = "modelo-ia")
+@Path("/ml")
+public interface ModeloIaClient {
+
+  /** Pontua o lote inteiro numa chamada; resultados na ordem da entrada. */
+  @POST
+  @Path("/predict/batch")
+  public PredicaoLote predizerLote(List<PredicaoLote.Features> linhas);
+}
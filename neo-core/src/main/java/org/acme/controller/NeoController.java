@@ -2,19 +2,33 @@ package org.acme.controller;
 
 import java.net.URI;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import javax.print.attribute.standard.Media;
 
+import org.acme.domain.dtos.AlteracaoNeo;
+import org.acme.domain.dtos.AlteracoesResponse;
+import org.acme.domain.dtos.BackfillProgresso;
+import org.acme.domain.dtos.FiltroBuscaNeo;
+import org.acme.domain.dtos.ImportacaoJob;
 import org.acme.domain.dtos.NeoObjectResponse;
+import org.acme.domain.dtos.PaginaAlteracoes;
+import org.acme.domain.dtos.PaginaNeos;
 import org.acme.domain.mapper.NeoObjectMapper;
 import org.acme.domain.models.NeoObject;
+import org.acme.repository.NeoBuscaSql;
+import org.acme.service.BackfillService;
+import org.acme.service.ExportacaoService;
+import org.acme.service.ImportacaoJobService;
+import org.acme.service.NeoCacheService;
 import org.acme.service.NeoService;
 
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
@@ -28,7 +42,9 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 
 @Path("/api/neos")
@@ -42,51 +58,231 @@ public class NeoController {
     @Inject
     NeoObjectMapper neoMapper;
 
+    @Inject
+    BackfillService backfillService;
+
+    @Inject
+    ImportacaoJobService importacaoJobService;
+
+    @Inject
+    NeoCacheService cache;
+
+    @Inject
+    CacheHttp cacheHttp;
+
+    @Inject
+    ExportacaoService exportacaoService;
+
+    public static final int TAMANHO_MAXIMO = 1000;
+
+    /**
+     * Sem {@code pagina}, pagina por cursor: a resposta traz o token da
+     * próxima página em {@code X-Next-Cursor} e num {@code Link rel="next"},
+     * e o custo de qualquer página é o mesmo da primeira. Com {@code pagina}
+     * mantém o OFFSET antigo (agora ordenado por id).
+     */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response listar(@QueryParam("pagina") @DefaultValue("0") int pagina,
+    public Response listar(@QueryParam("pagina") Integer pagina,
             @QueryParam("tamanho") @DefaultValue("20") int tamanho,
             @QueryParam("perigoso") Boolean perigoso,
-            @Context UriInfo uriInfo) {
+            @QueryParam("cursor") String cursor,
+            @Context UriInfo uriInfo,
+            @Context Request request) {
+
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new BadRequestException("'tamanho' deve estar entre 1 e " + TAMANHO_MAXIMO);
+        }
+        return cacheHttp.responder(request, () -> montarListagem(pagina, tamanho, perigoso, cursor, uriInfo));
+    }
+
+    private Response.ResponseBuilder montarListagem(Integer pagina, int tamanho, Boolean perigoso, String cursor,
+            UriInfo uriInfo) {
+        if (pagina != null) {
+            NeoCacheService.Pagina pag = cache.pagina(uriInfo.getRequestUri(), () -> {
+                List<NeoObject> lista = (perigoso != null)
+                        ? neoService.listarPerigosos(pagina, tamanho, perigoso)
+                        : neoService.listar(pagina, tamanho);
+                return new NeoCacheService.Pagina(paraResposta(lista, uriInfo), null);
+            });
+            return Response.ok().entity(pag.itens());
+        }
+
+        NeoCacheService.Pagina pag;
+        try {
+            pag = cache.pagina(uriInfo.getRequestUri(), () -> {
+                PaginaNeos p = neoService.listarPorCursor(cursor, tamanho, perigoso);
+                return new NeoCacheService.Pagina(paraResposta(p.itens(), uriInfo), p.proximoCursor());
+            });
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
 
-        List<NeoObject> lista = (perigoso != null)
-                ? neoService.listarPerigosos(pagina, tamanho, perigoso)
-                : neoService.listar(pagina, tamanho);
+        Response.ResponseBuilder resp = Response.ok().entity(pag.itens());
+        if (pag.proximoCursor() != null) {
+            URI proxima = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("cursor", pag.proximoCursor())
+                    .build();
+            resp.header("X-Next-Cursor", pag.proximoCursor()).link(proxima, "next");
+        }
+        return resp;
+    }
+
+    /**
+     * Busca por faixas (diâmetro máximo, velocidade, magnitude, janela de
+     * aproximação), corpo orbitado e perigo, com {@code ordenar=campo[,desc]}.
+     * Ex.: {@code /api/neos/search?perigoso=true&aproximacaoDe=2025-01-01&ordenar=dataPrimeiraAproximacao}.
+     */
+    @GET
+    @Path("/search")
+    public Response buscar(@QueryParam("diametroDe") Double diametroDe,
+            @QueryParam("diametroAte") Double diametroAte,
+            @QueryParam("velocidadeDe") Double velocidadeDe,
+            @QueryParam("velocidadeAte") Double velocidadeAte,
+            @QueryParam("magnitudeDe") Double magnitudeDe,
+            @QueryParam("magnitudeAte") Double magnitudeAte,
+            @QueryParam("aproximacaoDe") String aproximacaoDe,
+            @QueryParam("aproximacaoAte") String aproximacaoAte,
+            @QueryParam("planetaAlvo") String planetaAlvo,
+            @QueryParam("perigoso") Boolean perigoso,
+            @QueryParam("ordenar") String ordenar,
+            @QueryParam("pagina") @DefaultValue("0") int pagina,
+            @QueryParam("tamanho") @DefaultValue("20") int tamanho,
+            @Context UriInfo uriInfo,
+            @Context Request request) {
+        FiltroBuscaNeo filtro;
+        NeoBuscaSql.Ordenacao ordem;
+        try {
+            filtro = new FiltroBuscaNeo(diametroDe, diametroAte, velocidadeDe, velocidadeAte,
+                    magnitudeDe, magnitudeAte, data(aproximacaoDe), data(aproximacaoAte), planetaAlvo, perigoso);
+            ordem = NeoBuscaSql.Ordenacao.de(ordenar);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        return cacheHttp.responder(request, () -> {
+            try {
+                NeoCacheService.Pagina pag = cache.pagina(uriInfo.getRequestUri(), () -> new NeoCacheService.Pagina(
+                        paraResposta(neoService.buscar(filtro, ordem, pagina, tamanho), uriInfo), null));
+                return Response.ok(pag.itens());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+        });
+    }
 
-        List<NeoObjectResponse> resp = new ArrayList<>();
+    static LocalDate data(String valor) {
+        return valor == null || valor.isBlank() ? null : LocalDate.parse(valor);
+    }
 
-        for (int i = 0; i < lista.size(); i++) {
-            NeoObject neo = lista.get(i);
+    private static LocalDate dataObrigatoria(String nome, String valor) {
+        if (valor == null || valor.isBlank()) {
+            throw new BadRequestException("'" + nome + "' é obrigatório");
+        }
+        return LocalDate.parse(valor);
+    }
+
+    private List<NeoObjectResponse> paraResposta(List<NeoObject> lista, UriInfo uriInfo) {
+        return paraResposta(neoMapper, lista, uriInfo);
+    }
+
+    /** Com o self link canônico ({@code api/neos/{id}}), também usado por {@link NeoReativoController}. */
+    static List<NeoObjectResponse> paraResposta(NeoObjectMapper neoMapper, List<NeoObject> lista, UriInfo uriInfo) {
+        List<NeoObjectResponse> resp = new ArrayList<>(lista.size());
+        for (NeoObject neo : lista) {
             URI selfUri = uriInfo.getBaseUriBuilder()
                     .path("api/neos")
                     .path(String.valueOf(neo.id))
                     .build();
-            NeoObjectResponse respInterno = neoMapper.toResponse(neo, selfUri);
-            // Substitui o NeoObject pelo NeoObjectResponse na lista
-            // Isso é um pouco hacky, mas funciona para este exemplo
-            // Em um caso real, você provavelmente retornaria uma lista de NeoObjectResponse
-            // diretamente
-            resp.add(respInterno);
+            resp.add(neoMapper.toResponse(neo, selfUri));
         }
-
-        return Response.ok().entity(resp).build();
+        return resp;
     }
 
     @GET
     @Path("/{id}")
-    public Response obter(@PathParam("id") Long id, @Context UriInfo uriInfo) {
-        NeoObject ent = neoService.obterPorId(id);
-        if (ent == null)
-            throw new NotFoundException("NEO não encontrado");
+    public Response obter(@PathParam("id") Long id, @Context UriInfo uriInfo, @Context Request request) {
+        return cacheHttp.responder(request, () -> Response.ok(cache.obter(uriInfo.getBaseUri(), id, () -> {
+            NeoObject ent = neoService.obterPorId(id);
+            if (ent == null)
+                throw new NotFoundException("NEO não encontrado");
 
-        URI selfUri = uriInfo.getBaseUriBuilder()
-                .path("api/neos")
-                .path(String.valueOf(ent.id))
+            URI selfUri = uriInfo.getBaseUriBuilder()
+                    .path("api/neos")
+                    .path(String.valueOf(ent.id))
+                    .build();
+
+            return neoMapper.toResponse(ent, selfUri);
+        })));
+    }
+
+    /**
+     * Catálogo inteiro num único download, em streaming (memória constante):
+     * {@code format=ndjson|csv|parquet}, opcionalmente só {@code perigoso=true|false}.
+     */
+    @GET
+    @Path("/export")
+    @Produces({ "application/x-ndjson", "text/csv", "application/vnd.apache.parquet" })
+    public Response exportar(@QueryParam("format") @DefaultValue("ndjson") String format,
+            @QueryParam("perigoso") Boolean perigoso) {
+        ExportacaoService.Formato formato;
+        try {
+            formato = ExportacaoService.Formato.de(format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        StreamingOutput corpo = out -> exportacaoService.exportar(formato, perigoso, out);
+        String arquivo = "neos-" + LocalDate.now() + "." + formato.extensao;
+        return Response.ok(corpo, formato.mediaType)
+                .header("Content-Disposition", "attachment; filename=\"" + arquivo + "\"")
                 .build();
+    }
 
-        NeoObjectResponse resp = neoMapper.toResponse(ent, selfUri);
+    /**
+     * Feed de alterações para sincronização incremental: NEOs criados ou
+     * alterados e lápides de removidos depois de {@code since}, em ordem de
+     * escrita. Sem {@code since} começa pelo catálogo inteiro; o corpo traz
+     * o token da próxima chamada em {@code proximo}.
+     */
+    @GET
+    @Path("/changes")
+    public Response alteracoes(@QueryParam("since") String since,
+            @QueryParam("limite") @DefaultValue("500") int limite,
+            @Context UriInfo uriInfo) {
+        if (limite < 1 || limite > TAMANHO_MAXIMO) {
+            throw new BadRequestException("'limite' deve estar entre 1 e " + TAMANHO_MAXIMO);
+        }
+        PaginaAlteracoes pag;
+        try {
+            pag = neoService.alteracoes(since, limite);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        List<AlteracoesResponse.Item> itens = new ArrayList<>(pag.itens().size());
+        for (AlteracaoNeo a : pag.itens()) {
+            NeoObjectResponse neo = a.removido() ? null
+                    : neoMapper.toResponse(a.neo(), uriInfo.getBaseUriBuilder()
+                            .path("api/neos")
+                            .path(String.valueOf(a.id()))
+                            .build());
+            itens.add(new AlteracoesResponse.Item(
+                    a.removido() ? AlteracoesResponse.Tipo.REMOVIDO : AlteracoesResponse.Tipo.ALTERADO,
+                    a.versao(), a.id(), a.neoId(), a.em(), neo));
+        }
 
-        return Response.ok(resp).build();
+        Response.ResponseBuilder resp = Response.ok(new AlteracoesResponse(itens, pag.proximo(), pag.temMais()));
+        if (pag.temMais()) {
+            resp.link(uriInfo.getRequestUriBuilder().replaceQueryParam("since", pag.proximo()).build(), "next");
+        }
+        return resp.build();
+    }
+
+    /** Acertos/faltas e ocupação do cache de respostas. */
+    @GET
+    @Path("/cache")
+    public Response estatisticasCache() {
+        return Response.ok(cache.estatisticas()).build();
     }
 
     @POST
@@ -130,14 +326,61 @@ public class NeoController {
         return Response.noContent().build(); // 204
     }
 
+    /**
+     * Enfileira a importação e retorna 202 com o job; o andamento fica em
+     * GET /api/neos/importar/{jobId}.
+     */
     @POST
     @Path("/importar")
     public Response importar(@QueryParam("inicio") String inicio,
-            @QueryParam("fim") String fim) {
-        LocalDate i = LocalDate.parse(inicio);
-        LocalDate f = LocalDate.parse(fim);
-        int qtd = neoService.importarFeed(i, f);
+            @QueryParam("fim") String fim,
+            @Context UriInfo uriInfo) {
+        ImportacaoJob job;
+        try {
+            job = importacaoJobService.submeter(dataObrigatoria("inicio", inicio), dataObrigatoria("fim", fim));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        URI status = uriInfo.getAbsolutePathBuilder()
+                .path(job.id)
+                .build();
+
+        return Response.accepted(job).location(status).build(); // 202
+    }
+
+    @GET
+    @Path("/importar/{jobId}")
+    public Response statusImportacao(@PathParam("jobId") String jobId) {
+        ImportacaoJob job = importacaoJobService.buscar(jobId)
+                .orElseThrow(() -> new NotFoundException("Job de importação não encontrado"));
+        return Response.ok(job).build();
+    }
 
-        return Response.ok(Map.of("importados", qtd)).build();
+    @POST
+    @Path("/backfill")
+    public Response backfill(@QueryParam("inicio") String inicio,
+            @QueryParam("fim") String fim,
+            @Context UriInfo uriInfo) {
+        BackfillProgresso progresso;
+        try {
+            progresso = backfillService.iniciar(dataObrigatoria("inicio", inicio), dataObrigatoria("fim", fim));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        URI status = uriInfo.getAbsolutePathBuilder()
+                .path(progresso.id)
+                .build();
+
+        return Response.accepted(progresso).location(status).build(); // 202
+    }
+
+    @GET
+    @Path("/backfill/{id}")
+    public Response progressoBackfill(@PathParam("id") String id) {
+        BackfillProgresso progresso = backfillService.progresso(id)
+                .orElseThrow(() -> new NotFoundException("Backfill não encontrado"));
+        return Response.ok(progresso).build();
     }
 }
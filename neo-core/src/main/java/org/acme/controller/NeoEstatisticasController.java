@@ -0,0 +1,85 @@
+package org.acme.controller;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+import org.acme.service.EstatisticasService;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Agregados do catálogo inteiro para o dashboard de analytics
+ * (histogramas, aproximações por mês, proporção de perigosos e correlações).
+ */
+@Path("/api/neos/stats")
+@Produces(MediaType.APPLICATION_JSON)
+public class NeoEstatisticasController {
+
+    @Inject
+    EstatisticasService estatisticas;
+
+    @Inject
+    CacheHttp cacheHttp;
+
+    @GET
+    @Path("/resumo")
+    public Response resumo(@Context Request request) {
+        return cacheHttp.responder(request, () -> Response.ok(estatisticas.resumo()));
+    }
+
+    @GET
+    @Path("/correlacoes")
+    public Response correlacoes(@Context Request request) {
+        return cacheHttp.responder(request, () -> Response.ok(estatisticas.correlacoes()));
+    }
+
+    /**
+     * Ex.: {@code ?campo=diametroMaxM&limites=0,50,100,500} ou
+     * {@code ?campo=velocidadeKmS&faixas=20}.
+     */
+    @GET
+    @Path("/histograma")
+    public Response histograma(@QueryParam("campo") @DefaultValue("diametroMaxM") String campo,
+            @QueryParam("limites") String limites,
+            @QueryParam("faixas") Integer faixas,
+            @Context Request request) {
+        return cacheHttp.responder(request, () -> {
+            try {
+                double[] l = limites == null || limites.isBlank() ? null
+                        : Arrays.stream(limites.split(",")).map(String::trim).mapToDouble(Double::parseDouble)
+                                .toArray();
+                return Response.ok(estatisticas.histograma(campo, l, faixas));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+        });
+    }
+
+    @GET
+    @Path("/mensal")
+    public Response mensal(@QueryParam("inicio") String inicio, @QueryParam("fim") String fim,
+            @Context Request request) {
+        return cacheHttp.responder(request, () -> {
+            try {
+                return Response.ok(estatisticas.mensal(data(inicio), data(fim)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+        });
+    }
+
+    private static LocalDate data(String valor) {
+        return valor == null || valor.isBlank() ? null : LocalDate.parse(valor);
+    }
+}
@@ -0,0 +1,142 @@
+package org.acme.controller;
+
+import java.net.URI;
+import java.time.format.DateTimeParseException;
+
+import org.acme.domain.dtos.FiltroBuscaNeo;
+import org.acme.domain.mapper.NeoObjectMapper;
+import org.acme.repository.NeoBuscaSql;
+import org.acme.service.NeoCacheService;
+import org.acme.service.NeoReativoService;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+/**
+ * As leituras de {@link NeoController} (listar, search e obter por id) sem
+ * bloquear: os métodos devolvem {@link Uni}, rodam no event loop e o banco é
+ * consultado pelo cliente reativo do Postgres, então uma requisição esperando
+ * o banco não ocupa thread de worker. Mesmos parâmetros, cabeçalhos
+ * (cursor, {@code Link}, ETag) e corpo; os self links apontam para
+ * {@code /api/neos/{id}}. As escritas continuam só em {@link NeoController}.
+ */
+@Path("/api/reativo/neos")
+@Produces(MediaType.APPLICATION_JSON)
+public class NeoReativoController {
+
+    @Inject
+    NeoReativoService neoService;
+
+    @Inject
+    NeoObjectMapper neoMapper;
+
+    @Inject
+    NeoCacheService cache;
+
+    @Inject
+    CacheHttp cacheHttp;
+
+    /** Ver {@link NeoController#listar}. */
+    @GET
+    public Uni<Response> listar(@QueryParam("pagina") Integer pagina,
+            @QueryParam("tamanho") @DefaultValue("20") int tamanho,
+            @QueryParam("perigoso") Boolean perigoso,
+            @QueryParam("cursor") String cursor,
+            @Context UriInfo uriInfo,
+            @Context Request request) {
+
+        if (tamanho < 1 || tamanho > NeoController.TAMANHO_MAXIMO) {
+            throw new BadRequestException("'tamanho' deve estar entre 1 e " + NeoController.TAMANHO_MAXIMO);
+        }
+        return cacheHttp.responderReativo(request, () -> montarListagem(pagina, tamanho, perigoso, cursor, uriInfo));
+    }
+
+    private Uni<Response.ResponseBuilder> montarListagem(Integer pagina, int tamanho, Boolean perigoso, String cursor,
+            UriInfo uriInfo) {
+        if (pagina != null) {
+            return cache.paginaReativa(uriInfo.getRequestUri(), () -> neoService.listar(pagina, tamanho, perigoso)
+                    .map(lista -> new NeoCacheService.Pagina(
+                            NeoController.paraResposta(neoMapper, lista, uriInfo), null)))
+                    .onFailure(IllegalArgumentException.class).transform(e -> new BadRequestException(e.getMessage()))
+                    .map(pag -> Response.ok().entity(pag.itens()));
+        }
+
+        return cache.paginaReativa(uriInfo.getRequestUri(), () -> neoService.listarPorCursor(cursor, tamanho, perigoso)
+                .map(p -> new NeoCacheService.Pagina(
+                        NeoController.paraResposta(neoMapper, p.itens(), uriInfo), p.proximoCursor())))
+                .onFailure(IllegalArgumentException.class).transform(e -> new BadRequestException(e.getMessage()))
+                .map(pag -> {
+                    Response.ResponseBuilder resp = Response.ok().entity(pag.itens());
+                    if (pag.proximoCursor() != null) {
+                        URI proxima = uriInfo.getRequestUriBuilder()
+                                .replaceQueryParam("cursor", pag.proximoCursor())
+                                .build();
+                        resp.header("X-Next-Cursor", pag.proximoCursor()).link(proxima, "next");
+                    }
+                    return resp;
+                });
+    }
+
+    /** Ver {@link NeoController#buscar}. */
+    @GET
+    @Path("/search")
+    public Uni<Response> buscar(@QueryParam("diametroDe") Double diametroDe,
+            @QueryParam("diametroAte") Double diametroAte,
+            @QueryParam("velocidadeDe") Double velocidadeDe,
+            @QueryParam("velocidadeAte") Double velocidadeAte,
+            @QueryParam("magnitudeDe") Double magnitudeDe,
+            @QueryParam("magnitudeAte") Double magnitudeAte,
+            @QueryParam("aproximacaoDe") String aproximacaoDe,
+            @QueryParam("aproximacaoAte") String aproximacaoAte,
+            @QueryParam("planetaAlvo") String planetaAlvo,
+            @QueryParam("perigoso") Boolean perigoso,
+            @QueryParam("ordenar") String ordenar,
+            @QueryParam("pagina") @DefaultValue("0") int pagina,
+            @QueryParam("tamanho") @DefaultValue("20") int tamanho,
+            @Context UriInfo uriInfo,
+            @Context Request request) {
+        FiltroBuscaNeo filtro;
+        NeoBuscaSql.Ordenacao ordem;
+        try {
+            filtro = new FiltroBuscaNeo(diametroDe, diametroAte, velocidadeDe, velocidadeAte,
+                    magnitudeDe, magnitudeAte, NeoController.data(aproximacaoDe), NeoController.data(aproximacaoAte),
+                    planetaAlvo, perigoso);
+            ordem = NeoBuscaSql.Ordenacao.de(ordenar);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        return cacheHttp.responderReativo(request, () -> cache.paginaReativa(uriInfo.getRequestUri(),
+                () -> neoService.buscar(filtro, ordem, pagina, tamanho)
+                        .map(lista -> new NeoCacheService.Pagina(
+                                NeoController.paraResposta(neoMapper, lista, uriInfo), null)))
+                .onFailure(IllegalArgumentException.class).transform(e -> new BadRequestException(e.getMessage()))
+                .map(pag -> Response.ok(pag.itens())));
+    }
+
+    /** Ver {@link NeoController#obter}. */
+    @GET
+    @Path("/{id}")
+    public Uni<Response> obter(@PathParam("id") Long id, @Context UriInfo uriInfo, @Context Request request) {
+        return cacheHttp.responderReativo(request, () -> cache.obterReativo(uriInfo.getBaseUri(), id,
+                () -> neoService.obterPorId(id)
+                        .onItem().ifNull().failWith(() -> new NotFoundException("NEO não encontrado"))
+                        .map(ent -> neoMapper.toResponse(ent, uriInfo.getBaseUriBuilder()
+                                .path("api/neos")
+                                .path(String.valueOf(ent.id))
+                                .build())))
+                .map(Response::ok));
+    }
+}
@@ -1,7 +1,10 @@
 package org.acme.controller;
 
+import java.io.InputStream;
+
 import org.acme.domain.dtos.FeedResponse;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.reactive.RestResponse;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
@@ -17,4 +20,24 @@ public interface NeoWsClient {
   public FeedResponse buscarFeed(@QueryParam("start_date") String startDate,
                             @QueryParam("end_date") String endDate,
                             @QueryParam("api_key") String apiKey);
-} 
+
+  /**
+   * Mesmo /feed, sem desserializar: o corpo é lido em streaming pelo
+   * FeedStreamParser.
+   */
+  @GET
+  @Path("/feed")
+  public InputStream buscarFeedStream(@QueryParam("start_date") String startDate,
+                            @QueryParam("end_date") String endDate,
+                            @QueryParam("api_key") String apiKey);
+
+  /**
+   * Igual a {@link #buscarFeedStream}, mas expõe os cabeçalhos
+   * (X-RateLimit-Remaining) para o backfill.
+   */
+  @GET
+  @Path("/feed")
+  public RestResponse<InputStream> buscarFeedComCabecalhos(@QueryParam("start_date") String startDate,
+                            @QueryParam("end_date") String endDate,
+                            @QueryParam("api_key") String apiKey);
+}
@@ -0,0 +1,17 @@
+package org.acme.domain.dtos;
+
+import java.time.OffsetDateTime;
+
+import org.acme.domain.models.NeoObject;
+
+/**
+ * Uma entrada do feed de alterações: o estado atual de um NEO criado ou
+ * alterado, ou a lápide de um removido ({@code neo} null).
+ *
+ * @param transacao id da transação que escreveu (parte do cursor do feed)
+ * @param versao    número da escrita na sequência do feed
+ * @param em        quando a escrita aconteceu
+ */
+public record AlteracaoNeo(long transacao, long versao, boolean removido, long id, String neoId,
+        OffsetDateTime em, NeoObject neo) {
+}
@@ -0,0 +1,18 @@
+package org.acme.domain.dtos;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Corpo de GET /api/neos/changes. Para sincronizar, o cliente aplica as
+ * alterações em ordem (ALTERADO substitui o NEO pelo {@code id}, REMOVIDO
+ * apaga) e guarda {@code proximo} para o {@code since} da próxima chamada.
+ */
+public record AlteracoesResponse(List<Item> alteracoes, String proximo, boolean temMais) {
+
+    public enum Tipo { ALTERADO, REMOVIDO }
+
+    /** @param neo estado atual do NEO; null em REMOVIDO */
+    public record Item(Tipo tipo, long versao, long id, String neoId, OffsetDateTime em, NeoObjectResponse neo) {
+    }
+}
@@ -0,0 +1,94 @@
+package org.acme.domain.dtos;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Estado de um backfill em andamento. Atualizado concorrentemente pelas
+ * janelas e serializado direto no GET de progresso.
+ */
+public class BackfillProgresso {
+
+    public enum Status { EXECUTANDO, CONCLUIDO, CONCLUIDO_COM_FALHAS }
+
+    public final String id = UUID.randomUUID().toString();
+    public final LocalDate inicio;
+    public final LocalDate fim;
+    public final int totalJanelas;
+    public final Instant iniciadoEm = Instant.now();
+    public volatile Instant finalizadoEm;
+    public volatile Status status = Status.EXECUTANDO;
+    public volatile Integer rateLimitRestante;
+
+    private final AtomicInteger janelasConcluidas = new AtomicInteger();
+    private final AtomicInteger janelasComFalha = new AtomicInteger();
+    private final AtomicLong neosImportados = new AtomicLong();
+    public final List<JanelaResultado> janelas = new CopyOnWriteArrayList<>();
+
+    public BackfillProgresso(LocalDate inicio, LocalDate fim, int totalJanelas) {
+        this.inicio = inicio;
+        this.fim = fim;
+        this.totalJanelas = totalJanelas;
+    }
+
+    public void registrarSucesso(LocalDate inicio, LocalDate fim, int neos, Duration duracao) {
+        neosImportados.addAndGet(neos);
+        janelasConcluidas.incrementAndGet();
+        janelas.add(new JanelaResultado(inicio, fim, neos, duracao.toMillis(), null));
+    }
+
+    public void registrarFalha(LocalDate inicio, LocalDate fim, Duration duracao, String erro) {
+        janelasComFalha.incrementAndGet();
+        janelas.add(new JanelaResultado(inicio, fim, 0, duracao.toMillis(), erro));
+    }
+
+    public void finalizar() {
+        finalizadoEm = Instant.now();
+        status = janelasComFalha.get() == 0 ? Status.CONCLUIDO : Status.CONCLUIDO_COM_FALHAS;
+    }
+
+    @JsonProperty
+    public int getJanelasConcluidas() {
+        return janelasConcluidas.get();
+    }
+
+    @JsonProperty
+    public int getJanelasComFalha() {
+        return janelasComFalha.get();
+    }
+
+    @JsonProperty
+    public long getNeosImportados() {
+        return neosImportados.get();
+    }
+
+    @JsonProperty
+    public double getPercentual() {
+        return totalJanelas == 0 ? 100.0
+                : 100.0 * (janelasConcluidas.get() + janelasComFalha.get()) / totalJanelas;
+    }
+
+    /** NEOs por segundo desde o início (ou até o fim, se já terminou). */
+    @JsonProperty
+    public double getNeosPorSegundo() {
+        Instant ate = finalizadoEm != null ? finalizadoEm : Instant.now();
+        long ms = Math.max(1, Duration.between(iniciadoEm, ate).toMillis());
+        return neosImportados.get() * 1000.0 / ms;
+    }
+
+    public record JanelaResultado(LocalDate inicio, LocalDate fim, int neos, long duracaoMs, String erro) {
+
+        @JsonProperty
+        public double neosPorSegundo() {
+            return duracaoMs == 0 ? neos : neos * 1000.0 / duracaoMs;
+        }
+    }
+}
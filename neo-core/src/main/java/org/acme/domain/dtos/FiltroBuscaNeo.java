@@ -0,0 +1,20 @@
+package org.acme.domain.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros de GET /api/neos/search. Todos opcionais; faixas são fechadas
+ * ({@code De <= valor <= Ate}) e o diâmetro se refere ao diâmetro máximo
+ * estimado. As datas de aproximação são dias UTC inteiros.
+ */
+public record FiltroBuscaNeo(
+        Double diametroDe, Double diametroAte,
+        Double velocidadeDe, Double velocidadeAte,
+        Double magnitudeDe, Double magnitudeAte,
+        LocalDate aproximacaoDe, LocalDate aproximacaoAte,
+        String planetaAlvo,
+        Boolean perigoso) {
+
+    public static final FiltroBuscaNeo VAZIO = new FiltroBuscaNeo(null, null, null, null, null, null, null, null,
+            null, null);
+}
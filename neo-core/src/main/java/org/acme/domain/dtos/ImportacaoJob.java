@@ -0,0 +1,89 @@
+package org.acme.domain.dtos;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Job de importação assíncrona: estado, contadores e tempos, serializado
+ * direto no GET /api/neos/importar/{jobId}.
+ */
+public class ImportacaoJob {
+
+    public enum Status { PENDENTE, EXECUTANDO, CONCLUIDO, FALHOU }
+
+    public final String id = UUID.randomUUID().toString();
+    public final LocalDate inicio;
+    public final LocalDate fim;
+    public final Instant criadoEm = Instant.now();
+    public volatile Instant iniciadoEm;
+    public volatile Instant finalizadoEm;
+    public volatile Status status = Status.PENDENTE;
+    public volatile String erro;
+
+    private final AtomicLong neosImportados = new AtomicLong();
+    private final AtomicInteger chunksConfirmados = new AtomicInteger();
+
+    public ImportacaoJob(LocalDate inicio, LocalDate fim) {
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    public void iniciar() {
+        iniciadoEm = Instant.now();
+        status = Status.EXECUTANDO;
+    }
+
+    /** Chamado a cada chunk commitado no banco. */
+    public void chunkConfirmado(int neos) {
+        neosImportados.addAndGet(neos);
+        chunksConfirmados.incrementAndGet();
+    }
+
+    public void concluir() {
+        finalizadoEm = Instant.now();
+        status = Status.CONCLUIDO;
+    }
+
+    public void falhar(String mensagem) {
+        finalizadoEm = Instant.now();
+        erro = mensagem;
+        status = Status.FALHOU;
+    }
+
+    public boolean finalizado() {
+        return status == Status.CONCLUIDO || status == Status.FALHOU;
+    }
+
+    @JsonProperty
+    public long getNeosImportados() {
+        return neosImportados.get();
+    }
+
+    @JsonProperty
+    public int getChunksConfirmados() {
+        return chunksConfirmados.get();
+    }
+
+    /** Tempo parado na fila do executor. */
+    @JsonProperty
+    public Long getEsperaMs() {
+        Instant ate = iniciadoEm != null ? iniciadoEm : Instant.now();
+        return Duration.between(criadoEm, ate).toMillis();
+    }
+
+    /** Tempo de execução (até agora, se ainda estiver rodando). */
+    @JsonProperty
+    public Long getDuracaoMs() {
+        if (iniciadoEm == null) {
+            return null;
+        }
+        Instant ate = finalizadoEm != null ? finalizadoEm : Instant.now();
+        return Duration.between(iniciadoEm, ate).toMillis();
+    }
+}
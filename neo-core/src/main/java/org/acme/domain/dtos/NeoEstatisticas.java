@@ -0,0 +1,43 @@
+package org.acme.domain.dtos;
+
+import java.util.List;
+
+/**
+ * Respostas de GET /api/neos/stats/*: agregados calculados no banco sobre a
+ * tabela inteira, não sobre uma página de NEOs.
+ */
+public final class NeoEstatisticas {
+
+    private NeoEstatisticas() {
+    }
+
+    /**
+     * Contagens por faixa [limites[i], limites[i+1]). Valores fora das
+     * faixas vão para {@code abaixo}/{@code acima}; nulos para {@code nulos}.
+     * {@code perigosos[i]} conta só os potencialmente perigosos da faixa.
+     */
+    public record Histograma(String campo, double[] limites, long[] contagens, long[] perigosos,
+            long abaixo, long acima, long nulos) {
+    }
+
+    /** Aproximações por mês (data da primeira aproximação, UTC). */
+    public record Mensal(String mes, long total, long perigosos) {
+    }
+
+    /**
+     * Agregados de um grupo ("todos", "perigosos" ou "seguros"). Médias
+     * ignoram valores nulos.
+     */
+    public record Resumo(String grupo, long total, double proporcaoPerigosos,
+            Double diametroMedioM, Double menorDiametroM, Double maiorDiametroM,
+            Double velocidadeMediaKmS, Double maiorVelocidadeKmS, Double magnitudeMedia) {
+    }
+
+    /**
+     * Matriz de correlação de Pearson entre {@code variaveis}, calculada
+     * par a par só com as linhas em que os dois valores existem.
+     * {@code ehPotencialmentePerigoso} entra como 0/1 (correlação ponto-bisserial).
+     */
+    public record Correlacoes(List<String> variaveis, Double[][] matriz, long linhas) {
+    }
+}
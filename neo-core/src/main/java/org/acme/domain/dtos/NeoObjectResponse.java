@@ -28,6 +28,10 @@ public class NeoObjectResponse {
     private Double velocidadeKmS;
     private OffsetDateTime dataPrimeiraAproximacao;
     private String planetaAlvo;
+    private Double probabilidadePerigo;
+    private String versaoModelo;
+    private Long versao;
+    private OffsetDateTime atualizadoEm;
     private URI self;
 
     // Construtor vazio (necessário para Jackson)
@@ -46,6 +50,10 @@ public class NeoObjectResponse {
         this.velocidadeKmS = neo.velocidadeKmS;
         this.dataPrimeiraAproximacao = neo.dataPrimeiraAproximacao;
         this.planetaAlvo = neo.planetaAlvo;
+        this.probabilidadePerigo = neo.probabilidadePerigo;
+        this.versaoModelo = neo.versaoModelo;
+        this.versao = neo.versao;
+        this.atualizadoEm = neo.atualizadoEm;
         this.self = self;
     }
 
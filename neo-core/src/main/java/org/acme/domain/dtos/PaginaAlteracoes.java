@@ -0,0 +1,11 @@
+package org.acme.domain.dtos;
+
+import java.util.List;
+
+/**
+ * Uma página do feed de alterações. {@code proximo} é o {@code since} da
+ * chamada seguinte e vem sempre preenchido: com {@code temMais} false o
+ * cliente está em dia e pode repetir o mesmo token mais tarde.
+ */
+public record PaginaAlteracoes(List<AlteracaoNeo> itens, String proximo, boolean temMais) {
+}
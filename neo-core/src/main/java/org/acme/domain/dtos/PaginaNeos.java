@@ -0,0 +1,12 @@
+package org.acme.domain.dtos;
+
+import java.util.List;
+
+import org.acme.domain.models.NeoObject;
+
+/**
+ * Uma página da listagem por cursor. {@code proximoCursor} é null na última
+ * página.
+ */
+public record PaginaNeos(List<NeoObject> itens, String proximoCursor) {
+}
@@ -0,0 +1,31 @@
+package org.acme.domain.dtos;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Contrato do {@code POST /ml/predict/batch} do modelo-ia: uma lista de
+ * {@link Features} na ida e um {@link Resultado} por linha, na mesma ordem,
+ * na volta.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PredicaoLote {
+
+    public String versaoModelo;
+    public double threshold;
+    public List<Resultado> resultados;
+
+    public static class Features {
+        public Double magnitudeAbsoluta;
+        public Double diametroMinM;
+        public Double diametroMaxM;
+        public Double velocidadeKmS;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Resultado {
+        public boolean preditoPerigoso;
+        public double probabilidadePerigoso;
+    }
+}
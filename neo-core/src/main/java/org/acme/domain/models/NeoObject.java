@@ -4,6 +4,9 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
+
 @Entity
 @Table(name = "neo_object")
 public class NeoObject extends PanacheEntityBase {
@@ -41,6 +44,25 @@ public class NeoObject extends PanacheEntityBase {
     @Column(name="origem_json_s3_key", length=512)
     public String origemJsonS3Key;
 
+    /** Probabilidade de "perigoso" dada pelo modelo-ia na importação (null se não pontuado). */
+    @Column(name="probabilidade_perigo")
+    public Double probabilidadePerigo;
+
+    @Column(name="versao_modelo", length = 200)
+    public String versaoModelo;
+
     @Column(name="criado_em", nullable = false)
     public OffsetDateTime criadoEm = OffsetDateTime.now();
+
+    /**
+     * Posição da última escrita no feed de alterações. Mantida por trigger
+     * no banco (ver V5__feed_alteracoes.sql) e relida após INSERT/UPDATE.
+     */
+    @Generated(event = { EventType.INSERT, EventType.UPDATE })
+    @Column(name="versao", insertable = false, updatable = false)
+    public Long versao;
+
+    @Generated(event = { EventType.INSERT, EventType.UPDATE })
+    @Column(name="atualizado_em", insertable = false, updatable = false)
+    public OffsetDateTime atualizadoEm;
 }
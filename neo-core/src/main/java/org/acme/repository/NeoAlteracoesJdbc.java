@@ -0,0 +1,79 @@
+package org.acme.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.domain.dtos.AlteracaoNeo;
+import org.acme.domain.models.NeoObject;
+
+/**
+ * Leitura do feed de alterações de {@code neo_object} (ver
+ * V5__feed_alteracoes.sql): linhas vivas e lápides de removidos depois de
+ * uma posição {@code (xact, versao)}, nessa ordem.
+ *
+ * Só entra o que foi escrito por transações abaixo do xmin do snapshot da
+ * consulta. Acima dele pode haver transação ainda aberta com versão menor
+ * que a de outra já commitada; entregar a commitada moveria o cursor do
+ * cliente para depois da aberta, que nunca mais seria vista. Abaixo do xmin
+ * o conjunto não muda mais, então o cursor nunca pula nada.
+ *
+ * Os dois lados do UNION ALL são lidos pelos índices em (xact, versao) e
+ * intercalados já ordenados, então o custo é o da página, não o da tabela.
+ */
+public final class NeoAlteracoesJdbc {
+
+    static final String SQL = """
+            WITH horizonte AS (SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint AS xmin)
+            SELECT * FROM (
+                SELECT xact, versao, false AS removido, atualizado_em AS em, %s
+                FROM neo_object
+                WHERE (xact, versao) > (?, ?) AND xact < (SELECT xmin FROM horizonte)
+                UNION ALL
+                SELECT xact, versao, true, removido_em, id, neo_id,
+                       NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL
+                FROM neo_object_removido
+                WHERE (xact, versao) > (?, ?) AND xact < (SELECT xmin FROM horizonte)
+            ) a
+            ORDER BY xact, versao
+            LIMIT ?
+            """.formatted(NeoExportJdbc.COLUNAS);
+
+    private NeoAlteracoesJdbc() {
+    }
+
+    /** Até {@code limite} alterações depois de {@code (transacao, versao)}. */
+    public static List<AlteracaoNeo> listarApos(Connection conn, long transacao, long versao, int limite)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL)) {
+            ps.setLong(1, transacao);
+            ps.setLong(2, versao);
+            ps.setLong(3, transacao);
+            ps.setLong(4, versao);
+            ps.setInt(5, limite);
+            List<AlteracaoNeo> alteracoes = new ArrayList<>(limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long versaoLinha = rs.getLong(2);
+                    boolean removido = rs.getBoolean(3);
+                    OffsetDateTime em = rs.getObject(4, LocalDateTime.class).atOffset(ZoneOffset.UTC);
+                    NeoObject neo = null;
+                    if (!removido) {
+                        neo = NeoExportJdbc.ler(rs, 5);
+                        neo.versao = versaoLinha;
+                        neo.atualizadoEm = em;
+                    }
+                    alteracoes.add(new AlteracaoNeo(rs.getLong(1), versaoLinha, removido, rs.getLong(5),
+                            rs.getString(6), em, neo));
+                }
+            }
+            return alteracoes;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.acme.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+import org.acme.domain.dtos.FiltroBuscaNeo;
+
+/**
+ * Monta o SELECT da busca filtrada de NEOs.
+ *
+ * Só entram no WHERE os filtros informados, cada um numa forma que os
+ * índices de {@code V4__indices_busca.sql} atendem (faixas simples na
+ * coluna, sem funções em volta). A flag de perigo vai como literal e não
+ * como parâmetro: com {@code eh_potencialmente_perigoso = $1} o plano
+ * genérico de um prepared statement não consegue usar o índice parcial
+ * {@code WHERE eh_potencialmente_perigoso}.
+ *
+ * O marcador de parâmetro é do chamador ({@code ?1} no JPA, {@code ?} no
+ * JDBC, {@code $1} no cliente reativo), então a mesma consulta serve aos
+ * dois repositórios e aos benchmarks.
+ */
+public final class NeoBuscaSql {
+
+    public static final int TAMANHO_MAXIMO = 1000;
+
+    /** Campos aceitos em {@code ordenar}; o desempate é sempre por id. */
+    public enum Campo {
+        ID("id"),
+        APROXIMACAO("data_primeira_aproximacao"),
+        DIAMETRO("diametro_max_m"),
+        VELOCIDADE("velocidade_km_s"),
+        MAGNITUDE("magnitude_absoluta");
+
+        final String coluna;
+
+        Campo(String coluna) {
+            this.coluna = coluna;
+        }
+
+        /** Aceita o nome do enum ou o nome do campo na API (ex.: {@code velocidadeKmS}). */
+        public static Campo de(String nome) {
+            for (Campo c : values()) {
+                if (c.name().equalsIgnoreCase(nome)) {
+                    return c;
+                }
+            }
+            return switch (nome) {
+                case "dataPrimeiraAproximacao" -> APROXIMACAO;
+                case "diametroMaxM" -> DIAMETRO;
+                case "velocidadeKmS" -> VELOCIDADE;
+                case "magnitudeAbsoluta" -> MAGNITUDE;
+                default -> throw new IllegalArgumentException("Ordenação não suportada: " + nome);
+            };
+        }
+    }
+
+    /** {@code ordenar=campo[,asc|desc]}, ex.: {@code velocidadeKmS,desc}. */
+    public record Ordenacao(Campo campo, boolean decrescente) {
+
+        public static final Ordenacao PADRAO = new Ordenacao(Campo.ID, false);
+
+        public static Ordenacao de(String valor) {
+            if (valor == null || valor.isBlank()) {
+                return PADRAO;
+            }
+            String[] partes = valor.split(",", 2);
+            boolean desc = partes.length > 1 && partes[1].trim().toLowerCase(Locale.ROOT).equals("desc");
+            if (partes.length > 1 && !desc && !partes[1].trim().equalsIgnoreCase("asc")) {
+                throw new IllegalArgumentException("Direção inválida: " + partes[1]);
+            }
+            return new Ordenacao(Campo.de(partes[0].trim()), desc);
+        }
+    }
+
+    /** SQL pronto e os valores dos parâmetros na ordem dos marcadores. */
+    public record Consulta(String sql, List<Object> parametros) {
+    }
+
+    private NeoBuscaSql() {
+    }
+
+    /**
+     * @param marcador gera o marcador do n-ésimo parâmetro (a partir de 1)
+     */
+    public static Consulta montar(FiltroBuscaNeo f, Ordenacao ordem, int pagina, int tamanho,
+            IntFunction<String> marcador) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("'tamanho' deve estar entre 1 e " + TAMANHO_MAXIMO);
+        }
+        if (pagina < 0) {
+            throw new IllegalArgumentException("'pagina' não pode ser negativa");
+        }
+
+        List<String> condicoes = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        faixa(condicoes, params, marcador, "diametro_max_m", f.diametroDe(), f.diametroAte());
+        faixa(condicoes, params, marcador, "velocidade_km_s", f.velocidadeDe(), f.velocidadeAte());
+        faixa(condicoes, params, marcador, "magnitude_absoluta", f.magnitudeDe(), f.magnitudeAte());
+        if (f.aproximacaoDe() != null) {
+            params.add(f.aproximacaoDe().atStartOfDay());
+            condicoes.add("data_primeira_aproximacao >= " + marcador.apply(params.size()));
+        }
+        if (f.aproximacaoAte() != null) {
+            // dia inteiro: < dia seguinte
+            params.add(f.aproximacaoAte().plusDays(1).atStartOfDay());
+            condicoes.add("data_primeira_aproximacao < " + marcador.apply(params.size()));
+        }
+        if (f.planetaAlvo() != null && !f.planetaAlvo().isBlank()) {
+            params.add(f.planetaAlvo());
+            condicoes.add("planeta_alvo = " + marcador.apply(params.size()));
+        }
+        if (f.perigoso() != null) {
+            condicoes.add(f.perigoso() ? "eh_potencialmente_perigoso" : "NOT eh_potencialmente_perigoso");
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM neo_object");
+        if (!condicoes.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", condicoes));
+        }
+        String direcao = ordem.decrescente() ? " DESC" : "";
+        sql.append(" ORDER BY ").append(ordem.campo().coluna).append(direcao);
+        if (ordem.campo() != Campo.ID) {
+            sql.append(", id").append(direcao);
+        }
+        sql.append(" LIMIT ").append(tamanho);
+        if (pagina > 0) {
+            sql.append(" OFFSET ").append((long) pagina * tamanho);
+        }
+        return new Consulta(sql.toString(), params);
+    }
+
+    private static void faixa(List<String> condicoes, List<Object> params, IntFunction<String> marcador,
+            String coluna, Double de, Double ate) {
+        if (de != null && ate != null && de > ate) {
+            throw new IllegalArgumentException("Faixa vazia em " + coluna + ": " + de + " > " + ate);
+        }
+        if (de != null) {
+            params.add(de);
+            condicoes.add(coluna + " >= " + marcador.apply(params.size()));
+        }
+        if (ate != null) {
+            params.add(ate);
+            condicoes.add(coluna + " <= " + marcador.apply(params.size()));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.acme.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.acme.domain.dtos.NeoEstatisticas;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Agregados de {@code neo_object} calculados no Postgres (count/avg/corr,
+ * {@code width_bucket}, {@code date_trunc}): cada consulta é uma única
+ * varredura e devolve poucas linhas, qualquer que seja o tamanho da tabela.
+ *
+ * Nomes de colunas nunca vêm do cliente: só entram no SQL os de
+ * {@link #COLUNAS}.
+ */
+@ApplicationScoped
+public class NeoEstatisticasRepository {
+
+    /** Campos numéricos aceitos nos endpoints: nome na API -> coluna. */
+    public static final Map<String, String> COLUNAS = new LinkedHashMap<>();
+    static {
+        COLUNAS.put("magnitudeAbsoluta", "magnitude_absoluta");
+        COLUNAS.put("diametroMinM", "diametro_min_m");
+        COLUNAS.put("diametroMaxM", "diametro_max_m");
+        COLUNAS.put("velocidadeKmS", "velocidade_km_s");
+    }
+
+    static final String PERIGOSO = "ehPotencialmentePerigoso";
+
+    @Inject
+    EntityManager em;
+
+    /** Linhas "todos", "perigosos" e "seguros", nessa ordem, numa única varredura. */
+    public List<NeoEstatisticas.Resumo> resumo() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = em.createNativeQuery("""
+                SELECT CASE WHEN GROUPING(eh_potencialmente_perigoso) = 1 THEN 'todos'
+                            WHEN eh_potencialmente_perigoso THEN 'perigosos'
+                            ELSE 'seguros' END,
+                       count(*),
+                       avg(CAST(eh_potencialmente_perigoso AS INTEGER)),
+                       avg(diametro_max_m),
+                       min(diametro_max_m) FILTER (WHERE diametro_max_m > 0),
+                       max(diametro_max_m),
+                       avg(velocidade_km_s),
+                       max(velocidade_km_s),
+                       avg(magnitude_absoluta)
+                FROM neo_object
+                GROUP BY ROLLUP (eh_potencialmente_perigoso)
+                """).getResultList();
+
+        Map<String, NeoEstatisticas.Resumo> porGrupo = new LinkedHashMap<>();
+        porGrupo.put("todos", null);
+        porGrupo.put("perigosos", null);
+        porGrupo.put("seguros", null);
+        for (Object[] l : linhas) {
+            String grupo = (String) l[0];
+            porGrupo.put(grupo, new NeoEstatisticas.Resumo(grupo, longo(l[1]),
+                    l[2] == null ? 0.0 : ((Number) l[2]).doubleValue(),
+                    real(l[3]), real(l[4]), real(l[5]), real(l[6]), real(l[7]), real(l[8])));
+        }
+        List<NeoEstatisticas.Resumo> resumo = new ArrayList<>(3);
+        porGrupo.forEach((grupo, r) -> resumo.add(r != null ? r
+                : new NeoEstatisticas.Resumo(grupo, 0, 0.0, null, null, null, null, null, null)));
+        return resumo;
+    }
+
+    /** {min, max} não nulos da coluna, ou null se não houver valores. */
+    public double[] faixa(String campo) {
+        String col = coluna(campo);
+        Object[] l = (Object[]) em.createNativeQuery(
+                "SELECT min(" + col + "), max(" + col + ") FROM neo_object").getSingleResult();
+        return l[0] == null ? null : new double[] { ((Number) l[0]).doubleValue(), ((Number) l[1]).doubleValue() };
+    }
+
+    /**
+     * Histograma da coluna nas faixas dadas por {@code limites} (crescentes,
+     * finitos), via {@code width_bucket}: o bucket 0 fica abaixo do primeiro
+     * limite e o bucket {@code limites.length}, acima do último.
+     */
+    public NeoEstatisticas.Histograma histograma(String campo, double[] limites) {
+        String col = coluna(campo);
+        StringJoiner array = new StringJoiner(",", "CAST(ARRAY[", "] AS DOUBLE PRECISION[])");
+        for (double l : limites) {
+            array.add(Double.toString(l));
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = em.createNativeQuery(
+                "SELECT CASE WHEN " + col + " IS NULL THEN -1 ELSE width_bucket(" + col + ", " + array + ") END AS b, "
+                        + "count(*), count(*) FILTER (WHERE eh_potencialmente_perigoso) "
+                        + "FROM neo_object GROUP BY b")
+                .getResultList();
+
+        int faixas = limites.length - 1;
+        long[] contagens = new long[faixas];
+        long[] perigosos = new long[faixas];
+        long abaixo = 0, acima = 0, nulos = 0;
+        for (Object[] l : linhas) {
+            int b = ((Number) l[0]).intValue();
+            long n = longo(l[1]);
+            if (b < 0) {
+                nulos = n;
+            } else if (b == 0) {
+                abaixo = n;
+            } else if (b > faixas) {
+                acima = n;
+            } else {
+                contagens[b - 1] = n;
+                perigosos[b - 1] = longo(l[2]);
+            }
+        }
+        return new NeoEstatisticas.Histograma(campo, limites, contagens, perigosos, abaixo, acima, nulos);
+    }
+
+    /** Aproximações por mês em [inicio, fim] (ambos opcionais), em ordem cronológica. */
+    public List<NeoEstatisticas.Mensal> mensal(LocalDate inicio, LocalDate fim) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT to_char(date_trunc('month', data_primeira_aproximacao), 'YYYY-MM') AS mes,
+                       count(*),
+                       count(*) FILTER (WHERE eh_potencialmente_perigoso)
+                FROM neo_object
+                WHERE data_primeira_aproximacao IS NOT NULL
+                """);
+        if (inicio != null) {
+            sql.append(" AND data_primeira_aproximacao >= :inicio");
+        }
+        if (fim != null) {
+            sql.append(" AND data_primeira_aproximacao < :fim");
+        }
+        sql.append(" GROUP BY mes ORDER BY mes");
+
+        Query q = em.createNativeQuery(sql.toString());
+        if (inicio != null) {
+            q.setParameter("inicio", inicio.atStartOfDay());
+        }
+        if (fim != null) {
+            q.setParameter("fim", fim.plusDays(1).atStartOfDay());
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = q.getResultList();
+        return linhas.stream()
+                .map(l -> new NeoEstatisticas.Mensal((String) l[0], longo(l[1]), longo(l[2])))
+                .toList();
+    }
+
+    /** Pearson entre todos os pares de {@link #COLUNAS} e a flag de perigo, numa única varredura. */
+    public NeoEstatisticas.Correlacoes correlacoes() {
+        List<String> variaveis = new ArrayList<>(COLUNAS.keySet());
+        variaveis.add(PERIGOSO);
+        List<String> expressoes = new ArrayList<>(COLUNAS.values());
+        expressoes.add("CAST(eh_potencialmente_perigoso AS INTEGER)");
+
+        int n = variaveis.size();
+        StringJoiner select = new StringJoiner(", ", "SELECT count(*), ", " FROM neo_object");
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                select.add("corr(" + expressoes.get(i) + ", " + expressoes.get(j) + ")");
+            }
+        }
+        Object[] l = (Object[]) em.createNativeQuery(select.toString()).getSingleResult();
+
+        Double[][] matriz = new Double[n][n];
+        int k = 1;
+        for (int i = 0; i < n; i++) {
+            matriz[i][i] = 1.0;
+            for (int j = i + 1; j < n; j++) {
+                matriz[i][j] = matriz[j][i] = real(l[k++]);
+            }
+        }
+        return new NeoEstatisticas.Correlacoes(variaveis, matriz, longo(l[0]));
+    }
+
+    private static String coluna(String campo) {
+        String col = COLUNAS.get(campo);
+        if (col == null) {
+            throw new IllegalArgumentException("Campo não suportado: " + campo + " (use " + COLUNAS.keySet() + ")");
+        }
+        return col;
+    }
+
+    private static long longo(Object v) {
+        return v == null ? 0 : ((Number) v).longValue();
+    }
+
+    private static Double real(Object v) {
+        return v == null ? null : ((Number) v).doubleValue();
+    }
+}
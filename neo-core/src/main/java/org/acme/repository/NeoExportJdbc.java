@@ -0,0 +1,89 @@
+package org.acme.repository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.acme.domain.models.NeoObject;
+
+/**
+ * Varredura de {@code neo_object} em ordem de id com cursor no servidor.
+ *
+ * Com autocommit desligado e {@code fetchSize} > 0 o driver do Postgres
+ * busca {@code fetchSize} linhas por vez em vez de materializar o
+ * resultado inteiro, então a memória não depende do tamanho da tabela.
+ * Cada linha vira um {@link NeoObject} solto (fora de qualquer sessão).
+ */
+public final class NeoExportJdbc {
+
+    public static final int FETCH_SIZE = 1000;
+
+    /** Colunas lidas por {@link #ler(ResultSet, int)}, nesta ordem. */
+    static final String COLUNAS = """
+            id, neo_id, nome, magnitude_absoluta, diametro_min_m, diametro_max_m,
+            eh_potencialmente_perigoso, data_primeira_aproximacao, velocidade_km_s,
+            planeta_alvo, origem_json_s3_key, criado_em, probabilidade_perigo, versao_modelo""";
+
+    static final String SQL = "SELECT " + COLUNAS + " FROM neo_object";
+
+    @FunctionalInterface
+    public interface ConsumidorNeo {
+        void aceitar(NeoObject neo) throws IOException;
+    }
+
+    private NeoExportJdbc() {
+    }
+
+    /**
+     * Entrega cada NEO ao consumidor, na ordem de id. A conexão precisa estar
+     * com autocommit desligado (senão o driver ignora o fetch size).
+     *
+     * @param perigoso filtra pela flag de perigo; null exporta todos
+     * @return quantidade de linhas entregues
+     */
+    public static long percorrer(Connection conn, Boolean perigoso, ConsumidorNeo consumidor)
+            throws SQLException, IOException {
+        String sql = SQL + (perigoso == null ? "" : " WHERE eh_potencialmente_perigoso = ?") + " ORDER BY id";
+        try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(FETCH_SIZE);
+            if (perigoso != null) {
+                ps.setBoolean(1, perigoso);
+            }
+            long linhas = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consumidor.aceitar(ler(rs, 1));
+                    linhas++;
+                }
+            }
+            return linhas;
+        }
+    }
+
+    /** Monta o NEO a partir de {@link #COLUNAS}, que começam na coluna {@code c} do resultado. */
+    static NeoObject ler(ResultSet rs, int c) throws SQLException {
+        NeoObject n = new NeoObject();
+        n.id = rs.getLong(c);
+        n.neoId = rs.getString(c + 1);
+        n.nome = rs.getString(c + 2);
+        n.magnitudeAbsoluta = rs.getObject(c + 3, Double.class);
+        n.diametroMinM = rs.getObject(c + 4, Double.class);
+        n.diametroMaxM = rs.getObject(c + 5, Double.class);
+        n.ehPotencialmentePerigoso = rs.getBoolean(c + 6);
+        LocalDateTime aproximacao = rs.getObject(c + 7, LocalDateTime.class);
+        n.dataPrimeiraAproximacao = aproximacao == null ? null : aproximacao.atOffset(ZoneOffset.UTC);
+        n.velocidadeKmS = rs.getObject(c + 8, Double.class);
+        n.planetaAlvo = rs.getString(c + 9);
+        n.origemJsonS3Key = rs.getString(c + 10);
+        LocalDateTime criado = rs.getObject(c + 11, LocalDateTime.class);
+        n.criadoEm = criado == null ? null : criado.atOffset(ZoneOffset.UTC);
+        n.probabilidadePerigo = rs.getObject(c + 12, Double.class);
+        n.versaoModelo = rs.getString(c + 13);
+        return n;
+    }
+}
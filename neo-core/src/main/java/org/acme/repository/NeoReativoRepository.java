@@ -0,0 +1,92 @@
+package org.acme.repository;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.domain.dtos.FiltroBuscaNeo;
+import org.acme.domain.models.NeoObject;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * As leituras de {@link NeoRepository} pelo cliente reativo do Postgres:
+ * nenhuma thread fica presa esperando o banco, o resultado chega no event
+ * loop. Usa o mesmo SQL do caminho JDBC (a busca vem de {@link NeoBuscaSql}
+ * com marcadores {@code $n}) e devolve {@link NeoObject}s soltos, fora de
+ * qualquer sessão do Hibernate.
+ */
+@ApplicationScoped
+public class NeoReativoRepository {
+
+    private static final String SQL_POR_ID = "SELECT * FROM neo_object WHERE id = $1";
+
+    @Inject
+    Pool pool;
+
+    public Uni<NeoObject> porId(long id) {
+        return pool.preparedQuery(SQL_POR_ID).execute(Tuple.of(id))
+                .map(linhas -> {
+                    var it = linhas.iterator();
+                    return it.hasNext() ? ler(it.next()) : null;
+                });
+    }
+
+    /**
+     * Mesmo contrato de {@link NeoRepository#listarApos}. A flag de perigo vai
+     * como literal, pelo mesmo motivo de {@link NeoBuscaSql}.
+     */
+    public Uni<List<NeoObject>> listarApos(long aposId, int limite, Boolean perigoso) {
+        String filtro = perigoso == null ? ""
+                : perigoso ? " AND eh_potencialmente_perigoso" : " AND NOT eh_potencialmente_perigoso";
+        String sql = "SELECT * FROM neo_object WHERE id > $1" + filtro + " ORDER BY id LIMIT $2";
+        return pool.preparedQuery(sql).execute(Tuple.of(aposId, limite)).map(NeoReativoRepository::lerTodos);
+    }
+
+    public Uni<List<NeoObject>> buscar(FiltroBuscaNeo filtro, NeoBuscaSql.Ordenacao ordem, int pagina, int tamanho) {
+        NeoBuscaSql.Consulta c = NeoBuscaSql.montar(filtro, ordem, pagina, tamanho, i -> "$" + i);
+        return pool.preparedQuery(c.sql()).execute(Tuple.from(c.parametros())).map(NeoReativoRepository::lerTodos);
+    }
+
+    private static List<NeoObject> lerTodos(RowSet<Row> linhas) {
+        List<NeoObject> neos = new ArrayList<>(linhas.size());
+        for (Row r : linhas) {
+            neos.add(ler(r));
+        }
+        return neos;
+    }
+
+    /** Mesmo mapeamento de {@link NeoExportJdbc#ler}, mais a versão do feed de alterações. */
+    static NeoObject ler(Row r) {
+        NeoObject n = new NeoObject();
+        n.id = r.getLong("id");
+        n.neoId = r.getString("neo_id");
+        n.nome = r.getString("nome");
+        n.magnitudeAbsoluta = r.getDouble("magnitude_absoluta");
+        n.diametroMinM = r.getDouble("diametro_min_m");
+        n.diametroMaxM = r.getDouble("diametro_max_m");
+        n.ehPotencialmentePerigoso = r.getBoolean("eh_potencialmente_perigoso");
+        n.dataPrimeiraAproximacao = utc(r.getLocalDateTime("data_primeira_aproximacao"));
+        n.velocidadeKmS = r.getDouble("velocidade_km_s");
+        n.planetaAlvo = r.getString("planeta_alvo");
+        n.origemJsonS3Key = r.getString("origem_json_s3_key");
+        n.criadoEm = utc(r.getLocalDateTime("criado_em"));
+        n.probabilidadePerigo = r.getDouble("probabilidade_perigo");
+        n.versaoModelo = r.getString("versao_modelo");
+        n.versao = r.getLong("versao");
+        n.atualizadoEm = utc(r.getLocalDateTime("atualizado_em"));
+        return n;
+    }
+
+    private static OffsetDateTime utc(LocalDateTime t) {
+        return t == null ? null : t.atOffset(ZoneOffset.UTC);
+    }
+}
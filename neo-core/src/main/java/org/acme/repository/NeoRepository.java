@@ -1,11 +1,59 @@
 package org.acme.repository;
 
+import java.util.List;
+
+import org.acme.domain.dtos.AlteracaoNeo;
+import org.acme.domain.dtos.FiltroBuscaNeo;
 import org.acme.domain.models.NeoObject;
+import org.hibernate.Session;
 
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.Query;
 
 @ApplicationScoped
 public class NeoRepository implements PanacheRepository<NeoObject> {
-    
+
+    /**
+     * Até {@code limite} NEOs com {@code id > aposId}, em ordem de id
+     * (paginação por cursor). Vira {@code WHERE id > ? ORDER BY id LIMIT ?}
+     * e percorre só o índice a partir do cursor, sem OFFSET.
+     */
+    public List<NeoObject> listarApos(long aposId, int limite, Boolean perigoso) {
+        PanacheQuery<NeoObject> q = perigoso == null
+                ? find("id > ?1", Sort.by("id"), aposId)
+                : find("ehPotencialmentePerigoso = ?1 and id > ?2", Sort.by("id"), perigoso, aposId);
+        return q.range(0, limite - 1).list();
+    }
+
+    /** Busca filtrada e ordenada; o SQL vem de {@link NeoBuscaSql}. */
+    @SuppressWarnings("unchecked")
+    public List<NeoObject> buscar(FiltroBuscaNeo filtro, NeoBuscaSql.Ordenacao ordem, int pagina, int tamanho) {
+        NeoBuscaSql.Consulta c = NeoBuscaSql.montar(filtro, ordem, pagina, tamanho, i -> "?" + i);
+        Query q = getEntityManager().createNativeQuery(c.sql(), NeoObject.class);
+        for (int i = 0; i < c.parametros().size(); i++) {
+            q.setParameter(i + 1, c.parametros().get(i));
+        }
+        return q.getResultList();
+    }
+
+    /** Página do feed de alterações; ver {@link NeoAlteracoesJdbc}. */
+    public List<AlteracaoNeo> alteracoesApos(long transacao, long versao, int limite) {
+        Session session = getEntityManager().unwrap(Session.class);
+        return session.doReturningWork(conn -> NeoAlteracoesJdbc.listarApos(conn, transacao, versao, limite));
+    }
+
+    /**
+     * Upsert em lote por {@code neo_id} na conexão da transação corrente.
+     * Ver {@link NeoUpsertJdbc}.
+     */
+    public int upsertEmLote(List<NeoObject> neos) {
+        if (neos.isEmpty()) {
+            return 0;
+        }
+        Session session = getEntityManager().unwrap(Session.class);
+        return session.doReturningWork(conn -> NeoUpsertJdbc.upsert(conn, neos));
+    }
 }
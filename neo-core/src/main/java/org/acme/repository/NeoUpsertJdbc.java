@@ -0,0 +1,100 @@
+package org.acme.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+import org.acme.domain.models.NeoObject;
+
+/**
+ * Upsert em lote de {@link NeoObject} via JDBC puro.
+ *
+ * Usa {@code INSERT ... ON CONFLICT (neo_id) DO UPDATE} com batches de
+ * {@link #TAMANHO_LOTE} linhas: o Postgres resolve sozinho se o registro já
+ * existe, então não há SELECT por NEO nem merge linha a linha. O
+ * {@code criado_em} do registro original é preservado em updates, assim
+ * como o score do modelo quando a importação corrente não pontuou.
+ * Reimportar um NEO sem nenhum valor diferente não gera UPDATE (a key de
+ * origem não conta): a linha não é reescrita e não ganha nova
+ * {@code versao} no feed de alterações.
+ *
+ * Fica fora do {@link NeoRepository} para poder ser chamado com uma
+ * {@link Connection} qualquer (ex.: benchmarks sem container CDI).
+ */
+public final class NeoUpsertJdbc {
+
+    public static final int TAMANHO_LOTE = 500;
+
+    static final String SQL_UPSERT = """
+            INSERT INTO neo_object (neo_id, nome, magnitude_absoluta, diametro_min_m, diametro_max_m,
+                                    eh_potencialmente_perigoso, data_primeira_aproximacao, velocidade_km_s,
+                                    planeta_alvo, origem_json_s3_key, criado_em, probabilidade_perigo, versao_modelo)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (neo_id) DO UPDATE SET
+                nome = EXCLUDED.nome,
+                magnitude_absoluta = EXCLUDED.magnitude_absoluta,
+                diametro_min_m = EXCLUDED.diametro_min_m,
+                diametro_max_m = EXCLUDED.diametro_max_m,
+                eh_potencialmente_perigoso = EXCLUDED.eh_potencialmente_perigoso,
+                data_primeira_aproximacao = EXCLUDED.data_primeira_aproximacao,
+                velocidade_km_s = EXCLUDED.velocidade_km_s,
+                planeta_alvo = EXCLUDED.planeta_alvo,
+                origem_json_s3_key = EXCLUDED.origem_json_s3_key,
+                probabilidade_perigo = COALESCE(EXCLUDED.probabilidade_perigo, neo_object.probabilidade_perigo),
+                versao_modelo = COALESCE(EXCLUDED.versao_modelo, neo_object.versao_modelo)
+            WHERE (neo_object.nome, neo_object.magnitude_absoluta, neo_object.diametro_min_m,
+                   neo_object.diametro_max_m, neo_object.eh_potencialmente_perigoso,
+                   neo_object.data_primeira_aproximacao, neo_object.velocidade_km_s, neo_object.planeta_alvo,
+                   neo_object.probabilidade_perigo, neo_object.versao_modelo)
+                IS DISTINCT FROM
+                  (EXCLUDED.nome, EXCLUDED.magnitude_absoluta, EXCLUDED.diametro_min_m,
+                   EXCLUDED.diametro_max_m, EXCLUDED.eh_potencialmente_perigoso,
+                   EXCLUDED.data_primeira_aproximacao, EXCLUDED.velocidade_km_s, EXCLUDED.planeta_alvo,
+                   COALESCE(EXCLUDED.probabilidade_perigo, neo_object.probabilidade_perigo),
+                   COALESCE(EXCLUDED.versao_modelo, neo_object.versao_modelo))
+            """;
+
+    private NeoUpsertJdbc() {
+    }
+
+    /**
+     * Executa o upsert de todos os NEOs na conexão informada, sem commit.
+     * O controle transacional fica com quem chama.
+     *
+     * @return quantidade de linhas enviadas ao banco
+     */
+    public static int upsert(Connection conn, List<NeoObject> neos) throws SQLException {
+        int enviados = 0;
+        try (PreparedStatement ps = conn.prepareStatement(SQL_UPSERT)) {
+            int noLote = 0;
+            for (NeoObject n : neos) {
+                ps.setString(1, n.neoId);
+                ps.setString(2, n.nome);
+                ps.setObject(3, n.magnitudeAbsoluta, Types.DOUBLE);
+                ps.setObject(4, n.diametroMinM, Types.DOUBLE);
+                ps.setObject(5, n.diametroMaxM, Types.DOUBLE);
+                ps.setBoolean(6, n.ehPotencialmentePerigoso);
+                ps.setObject(7, n.dataPrimeiraAproximacao, Types.TIMESTAMP_WITH_TIMEZONE);
+                ps.setObject(8, n.velocidadeKmS, Types.DOUBLE);
+                ps.setString(9, n.planetaAlvo);
+                ps.setString(10, n.origemJsonS3Key);
+                ps.setObject(11, n.criadoEm, Types.TIMESTAMP_WITH_TIMEZONE);
+                ps.setObject(12, n.probabilidadePerigo, Types.DOUBLE);
+                ps.setString(13, n.versaoModelo);
+                ps.addBatch();
+
+                if (++noLote == TAMANHO_LOTE) {
+                    ps.executeBatch();
+                    noLote = 0;
+                }
+                enviados++;
+            }
+            if (noLote > 0) {
+                ps.executeBatch();
+            }
+        }
+        return enviados;
+    }
+}
@@ -1,21 +1,24 @@
 package org.acme.service;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
-import java.text.DecimalFormat;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.OffsetDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.acme.domain.dtos.FeedResponse;
-import org.acme.domain.dtos.NeoObjectResponse;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -31,9 +34,17 @@ import software.amazon.awssdk.services.s3.model.S3Exception;
 public class ArmazenamentoMinioService {
     @Inject
     S3Client s3Client;
+    @Inject
+    MetricasNeo metricas;
     @ConfigProperty(name = "neo.minio.bucket")
     String bucket;
-    private static final DecimalFormat DF = new DecimalFormat("#.###");
+    @ConfigProperty(name = "neo.lake.habilitado", defaultValue = "true")
+    boolean lakeHabilitado;
+    @ConfigProperty(name = "neo.lake.compressao", defaultValue = "ZSTD")
+    CompressionCodecName lakeCompressao;
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final ObjectWriter CSV_WRITER = CSV_MAPPER
+            .writer(CSV_MAPPER.schemaFor(CsvNeoData.class).withHeader());
 
     public void criarBucket() {
         try {
@@ -67,77 +78,146 @@ public class ArmazenamentoMinioService {
     public String salvarJsonBruto(String conteudoJson, LocalDate data) {
         criarBucket();
         String key = "raw/" + data.toString() + "/neows-feed-" + System.currentTimeMillis() + ".json";
-        s3Client.putObject(
+        enviar(key, "application/json", RequestBody.fromString(conteudoJson, StandardCharsets.UTF_8));
+        Log.info("Arquivo salvo no MinIO com key: " + key);
+
+        return key;
+    }
+
+    /** PutObject no bucket, medido em {@link MetricasNeo#putS3}. */
+    private void enviar(String key, String contentType, RequestBody corpo) {
+        long bytes = corpo.optionalContentLength().orElse(-1L);
+        metricas.putS3(bytes, () -> s3Client.putObject(
                 PutObjectRequest.builder()
                         .bucket(bucket)
                         .key(key)
-                        .contentType("application/json")
+                        .contentType(contentType)
                         .build(),
-                RequestBody.fromString(conteudoJson, StandardCharsets.UTF_8));
-        Log.info("Arquivo salvo no MinIO com key: " + key);
-
-        return key;
+                corpo));
     }
 
-    public String salvarCsvBruto(String conteudoJson, LocalDate data) throws Exception {
+    /**
+     * Abre um CSV bruto para escrita em streaming: as linhas vão para um
+     * arquivo temporário e só sobem para o MinIO em
+     * {@link EscritorCsvBruto#concluir()}. A key já é conhecida na abertura,
+     * para ser gravada como origem de cada NEO.
+     */
+    public EscritorCsvBruto abrirCsvBruto(LocalDate data) throws IOException {
         criarBucket();
+        String key = "raw/" + data.toString() + "/neows-feed-" + System.currentTimeMillis() + ".csv";
+        return new EscritorCsvBruto(key);
+    }
 
-        // Converter JSON para objeto FeedResponse
-        ObjectMapper jsonMapper = new ObjectMapper();
-        FeedResponse feed = jsonMapper.readValue(conteudoJson, FeedResponse.class);
-
-        // Achatar os dados em uma lista simples
-        List<CsvNeoData> csvData = new ArrayList<>();
-
-        if (feed.nearEarthObjects != null) {
-            for (Map.Entry<String, List<FeedResponse.Neo>> entry : feed.nearEarthObjects.entrySet()) {
-                String date = entry.getKey();
-                for (FeedResponse.Neo neo : entry.getValue()) {
-                    csvData.add(new CsvNeoData(
-                            neo.id,
-                            neo.name,
-                            neo.absoluteMagnitudeH,
-                            (neo.estimatedDiameter != null && neo.estimatedDiameter.meters != null)
-                                    ? Double.parseDouble(DF.format(neo.estimatedDiameter.meters.min))
-                                    : null,
-                            (neo.estimatedDiameter != null && neo.estimatedDiameter.meters != null)
-                                    ? Double.parseDouble(DF.format(neo.estimatedDiameter.meters.max))
-                                    : null,
-                            neo.hazardous,
-                            (neo.closeApproachData != null && !neo.closeApproachData.isEmpty())
-                                    ? neo.closeApproachData.get(0).approachDateFull
-                                    : null,
-                            (neo.closeApproachData != null && !neo.closeApproachData.isEmpty()
-                                    && neo.closeApproachData.get(0).relativeVelocity != null)
-                                            ? Double.parseDouble(
-                                                    DF.format(Double.parseDouble(
-                                                            neo.closeApproachData.get(0).relativeVelocity.kmPerSec)))
-                                            : null,
-                            (neo.closeApproachData != null && !neo.closeApproachData.isEmpty())
-                                    ? neo.closeApproachData.get(0).orbitingBody
-                                    : null,
-                            String.valueOf(date)));
-                }
+    public class EscritorCsvBruto implements AutoCloseable {
+        private final String key;
+        private final Path arquivo;
+        private final SequenceWriter writer;
+        private int linhas;
+
+        EscritorCsvBruto(String key) throws IOException {
+            this.key = key;
+            this.arquivo = Files.createTempFile("neows-feed-", ".csv");
+            this.writer = CSV_WRITER.writeValues(Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8));
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public void escrever(CsvNeoData linha) throws IOException {
+            writer.write(linha);
+            linhas++;
+        }
+
+        /** Fecha o CSV e envia para o MinIO. */
+        public void concluir() throws IOException {
+            writer.close();
+            enviar(key, "text/csv", RequestBody.fromFile(arquivo));
+            Log.infof("Arquivo CSV salvo no MinIO com key: %s (%d linhas)", key, linhas);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    /**
+     * Abre a escrita das mesmas linhas do CSV bruto no lake Parquet
+     * ({@link NeoParquet}), particionado pelo dia do feed:
+     * {@code lake/neo/dia=<yyyy-MM-dd>/part-<ts>.parquet}. Um feed de 7 dias
+     * gera até 7 arquivos, cada um escrito num temporário e enviado em
+     * {@link EscritorLakeParquet#concluir()}. Com {@code neo.lake.habilitado=false}
+     * o escritor só descarta as linhas.
+     */
+    public EscritorLakeParquet abrirLakeParquet() {
+        return new EscritorLakeParquet(System.currentTimeMillis());
+    }
+
+    public class EscritorLakeParquet implements AutoCloseable {
+        private final long sufixo;
+        private final Map<String, ParticaoParquet> particoes = new TreeMap<>();
+
+        EscritorLakeParquet(long sufixo) {
+            this.sufixo = sufixo;
+        }
+
+        public void escrever(CsvNeoData linha) throws IOException {
+            if (!lakeHabilitado) {
+                return;
+            }
+            ParticaoParquet p = particoes.get(linha.criadoEm);
+            if (p == null) {
+                p = new ParticaoParquet();
+                particoes.put(linha.criadoEm, p);
             }
+            p.writer.write(NeoParquet.registro(linha));
+            p.linhas++;
         }
 
-        // Criar CSV
-        CsvMapper csvMapper = new CsvMapper();
-        CsvSchema schema = csvMapper.schemaFor(CsvNeoData.class).withHeader();
-        String csvContent = csvMapper.writer(schema).writeValueAsString(csvData);
+        /** Fecha os arquivos (gravando o footer com as estatísticas) e envia para o MinIO. */
+        public void concluir() throws IOException {
+            if (particoes.isEmpty()) {
+                return;
+            }
+            criarBucket();
+            for (Map.Entry<String, ParticaoParquet> e : particoes.entrySet()) {
+                ParticaoParquet p = e.getValue();
+                p.fechar();
+                String key = "lake/neo/dia=" + e.getKey() + "/part-" + sufixo + ".parquet";
+                enviar(key, "application/vnd.apache.parquet", RequestBody.fromFile(p.arquivo));
+                Log.infof("Parquet salvo no MinIO com key: %s (%d linhas, %d bytes, %s)",
+                        key, p.linhas, Files.size(p.arquivo), lakeCompressao);
+            }
+        }
 
-        // Salvar no MinIO
-        String key = "raw/" + data.toString() + "/neows-feed-" + System.currentTimeMillis() + ".csv";
-        s3Client.putObject(
-                PutObjectRequest.builder()
-                        .bucket(bucket)
-                        .key(key)
-                        .contentType("text/csv")
-                        .build(),
-                RequestBody.fromString(csvContent, StandardCharsets.UTF_8));
+        @Override
+        public void close() throws IOException {
+            for (ParticaoParquet p : particoes.values()) {
+                p.fechar();
+                Files.deleteIfExists(p.arquivo);
+            }
+        }
+    }
 
-        Log.info("Arquivo CSV salvo no MinIO com key: " + key);
-        return key;
+    private class ParticaoParquet {
+        final Path arquivo;
+        final ParquetWriter<GenericRecord> writer;
+        int linhas;
+        private boolean fechado;
+
+        ParticaoParquet() throws IOException {
+            this.arquivo = Files.createTempFile("neo-lake-", ".parquet");
+            this.writer = NeoParquet.abrirWriter(NeoParquet.saida(Files.newOutputStream(arquivo)), lakeCompressao);
+        }
+
+        void fechar() throws IOException {
+            if (!fechado) {
+                fechado = true;
+                writer.close();
+            }
+        }
     }
 
     // Classe interna para representar os dados em formato flat para CSV
@@ -181,5 +261,36 @@ public class ArmazenamentoMinioService {
 
         }
 
+        /** Achata um NEO do feed numa linha do CSV bruto. */
+        public static CsvNeoData de(FeedResponse.Neo neo, String date) {
+            boolean temAproximacao = neo.closeApproachData != null && !neo.closeApproachData.isEmpty();
+            return new CsvNeoData(
+                    neo.id,
+                    neo.name,
+                    neo.absoluteMagnitudeH,
+                    (neo.estimatedDiameter != null && neo.estimatedDiameter.meters != null)
+                            ? arredondar(neo.estimatedDiameter.meters.min)
+                            : null,
+                    (neo.estimatedDiameter != null && neo.estimatedDiameter.meters != null)
+                            ? arredondar(neo.estimatedDiameter.meters.max)
+                            : null,
+                    neo.hazardous,
+                    temAproximacao
+                            ? neo.closeApproachData.get(0).approachDateFull
+                            : null,
+                    (temAproximacao && neo.closeApproachData.get(0).relativeVelocity != null)
+                            ? arredondar(Double.parseDouble(neo.closeApproachData.get(0).relativeVelocity.kmPerSec))
+                            : null,
+                    temAproximacao
+                            ? neo.closeApproachData.get(0).orbitingBody
+                            : null,
+                    String.valueOf(date));
+        }
+
+        // 3 casas, HALF_EVEN como o DecimalFormat("#.###") de antes, sem passar por String nem depender do Locale
+        private static Double arredondar(Double v) {
+            return v == null ? null : BigDecimal.valueOf(v).setScale(3, RoundingMode.HALF_EVEN).doubleValue();
+        }
+
     }
 }
\ No newline at end of file
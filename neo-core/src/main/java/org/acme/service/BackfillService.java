@@ -0,0 +1,210 @@
+package org.acme.service;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.acme.controller.NeoWsClient;
+import org.acme.domain.dtos.BackfillProgresso;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * Backfill de intervalos longos da NeoWs.
+ *
+ * O /feed aceita no máximo 7 dias, então o intervalo é quebrado em
+ * {@link JanelaFeed}s buscadas em paralelo (limitado por
+ * {@code neo.backfill.concorrencia}). Cada janela é persistida (banco +
+ * MinIO) assim que chega, em chunks commitados separadamente, sem esperar
+ * as demais.
+ *
+ * Rate limit: acompanha o {@code X-RateLimit-Remaining} das respostas e,
+ * quando ele cai abaixo da reserva, espaça as próximas chamadas; em 429
+ * respeita o {@code Retry-After} e tenta de novo.
+ *
+ * O progresso fica consultável enquanto executa e, depois de finalizado,
+ * para as últimas {@code neo.backfill.execucoes-retidas} execuções.
+ */
+@ApplicationScoped
+public class BackfillService {
+
+    private static final String HEADER_RESTANTES = "X-RateLimit-Remaining";
+
+    @Inject
+    @RestClient
+    NeoWsClient neoClient;
+    @Inject
+    NeoService neoService;
+    @Inject
+    MetricasNeo metricas;
+
+    @ConfigProperty(name = "nasa.api.key")
+    String apiKey;
+    @ConfigProperty(name = "neo.backfill.concorrencia", defaultValue = "4")
+    int concorrencia;
+    @ConfigProperty(name = "neo.backfill.tamanho-janela-dias", defaultValue = "7")
+    int tamanhoJanelaDias;
+    @ConfigProperty(name = "neo.backfill.rate-limit.reserva", defaultValue = "50")
+    int reservaRateLimit;
+    @ConfigProperty(name = "neo.backfill.rate-limit.pausa", defaultValue = "PT5S")
+    Duration pausaRateLimit;
+    @ConfigProperty(name = "neo.backfill.max-tentativas", defaultValue = "5")
+    int maxTentativas;
+    @ConfigProperty(name = "neo.backfill.execucoes-retidas", defaultValue = "200")
+    int execucoesRetidas;
+
+    private final Map<String, BackfillProgresso> execucoes = new ConcurrentHashMap<>();
+    private volatile int rateLimitRestante = Integer.MAX_VALUE;
+    private volatile Instant bloqueadoAte = Instant.EPOCH;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concorrencia, r -> {
+            Thread t = new Thread(r, "neo-backfill-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Dispara o backfill de [inicio, fim] e retorna imediatamente com o
+     * progresso, que continua sendo atualizado em segundo plano.
+     */
+    public BackfillProgresso iniciar(LocalDate inicio, LocalDate fim) {
+        List<JanelaFeed> janelas = JanelaFeed.dividir(inicio, fim, tamanhoJanelaDias);
+        BackfillProgresso progresso = new BackfillProgresso(inicio, fim, janelas.size());
+        execucoes.put(progresso.id, progresso);
+
+        Log.infof("Backfill %s: %s a %s em %d janelas (concorrência %d)",
+                progresso.id, inicio, fim, janelas.size(), concorrencia);
+
+        CompletableFuture<?>[] tarefas = janelas.stream()
+                .map(j -> CompletableFuture.runAsync(() -> importarJanela(j, progresso), executor))
+                .toArray(CompletableFuture[]::new);
+
+        // só para fechar o status; a persistência de cada janela não espera as outras
+        CompletableFuture.allOf(tarefas).whenComplete((ok, err) -> {
+            progresso.finalizar();
+            descartarAntigas();
+            Log.infof("Backfill %s finalizado: %d NEOs, %d/%d janelas com falha, %.1f NEOs/s",
+                    progresso.id, progresso.getNeosImportados(), progresso.getJanelasComFalha(),
+                    progresso.totalJanelas, progresso.getNeosPorSegundo());
+        });
+        return progresso;
+    }
+
+    public Optional<BackfillProgresso> progresso(String id) {
+        return Optional.ofNullable(execucoes.get(id));
+    }
+
+    /** Mantém no máximo {@code execucoesRetidas} execuções finalizadas, removendo as mais antigas. */
+    private void descartarAntigas() {
+        long finalizadas = execucoes.values().stream().filter(p -> p.finalizadoEm != null).count();
+        if (finalizadas <= execucoesRetidas) {
+            return;
+        }
+        Iterator<BackfillProgresso> antigas = execucoes.values().stream()
+                .filter(p -> p.finalizadoEm != null)
+                .sorted(Comparator.comparing(p -> p.iniciadoEm))
+                .limit(finalizadas - execucoesRetidas)
+                .iterator();
+        antigas.forEachRemaining(p -> execucoes.remove(p.id));
+    }
+
+    private void importarJanela(JanelaFeed janela, BackfillProgresso progresso) {
+        long t0 = System.nanoTime();
+        try {
+            InputStream feed = buscarComRateLimit(janela);
+            int neos = neoService.importarStream(feed, janela.inicio());
+            progresso.rateLimitRestante = rateLimitRestante == Integer.MAX_VALUE ? null : rateLimitRestante;
+            progresso.registrarSucesso(janela.inicio(), janela.fim(), neos, Duration.ofNanos(System.nanoTime() - t0));
+        } catch (Exception e) {
+            Log.errorf(e, "Backfill %s: falha na janela %s a %s", progresso.id, janela.inicio(), janela.fim());
+            progresso.registrarFalha(janela.inicio(), janela.fim(), Duration.ofNanos(System.nanoTime() - t0),
+                    e.getMessage());
+        }
+    }
+
+    private InputStream buscarComRateLimit(JanelaFeed janela) throws InterruptedException {
+        String start = janela.inicio().format(DateTimeFormatter.ISO_DATE);
+        String end = janela.fim().format(DateTimeFormatter.ISO_DATE);
+
+        for (int tentativa = 1;; tentativa++) {
+            aguardarRateLimit();
+            try {
+                RestResponse<InputStream> resp = metricas.feedNasa("backfill",
+                        () -> neoClient.buscarFeedComCabecalhos(start, end, apiKey));
+                atualizarRestantes(resp.getHeaderString(HEADER_RESTANTES));
+                return resp.getEntity();
+            } catch (WebApplicationException e) {
+                if (e.getResponse() == null || e.getResponse().getStatus() != 429 || tentativa >= maxTentativas) {
+                    throw e;
+                }
+                Duration espera = retryAfter(e.getResponse().getHeaderString("Retry-After"), tentativa);
+                bloqueadoAte = Instant.now().plus(espera);
+                rateLimitRestante = 0;
+                Log.warnf("NeoWs devolveu 429 para %s a %s; nova tentativa (%d/%d) em %ds",
+                        start, end, tentativa + 1, maxTentativas, espera.toSeconds());
+            }
+        }
+    }
+
+    /** Segura a thread enquanto houver bloqueio por 429 ou a cota estiver na reserva. */
+    private void aguardarRateLimit() throws InterruptedException {
+        long bloqueioMs = Duration.between(Instant.now(), bloqueadoAte).toMillis();
+        if (bloqueioMs > 0) {
+            Thread.sleep(bloqueioMs);
+        } else if (rateLimitRestante <= reservaRateLimit) {
+            Thread.sleep(pausaRateLimit.toMillis());
+        }
+    }
+
+    private void atualizarRestantes(String valor) {
+        if (valor == null) {
+            return;
+        }
+        try {
+            rateLimitRestante = Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            Log.debugf("%s inválido: '%s'", HEADER_RESTANTES, valor);
+        }
+    }
+
+    private Duration retryAfter(String valor, int tentativa) {
+        if (valor != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(valor.trim()));
+            } catch (NumberFormatException e) {
+                // Retry-After em formato de data: cai no backoff exponencial
+            }
+        }
+        return pausaRateLimit.multipliedBy(1L << Math.min(tentativa - 1, 6));
+    }
+}
@@ -0,0 +1,138 @@
+package org.acme.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache limitado em memória: no máximo {@code maxEntradas} entradas (a menos
+ * usada recentemente sai primeiro) e cada uma vale por {@code ttl}.
+ *
+ * Uma carga que começou antes de uma invalidação não é guardada: sem isso,
+ * uma leitura concorrente com uma escrita poderia recolocar no cache o
+ * valor antigo logo depois de ele ter sido invalidado.
+ */
+public final class CacheLru<K, V> {
+
+    public record Estatisticas(int entradas, long acertos, long faltas, double taxaAcerto,
+            long removidasPorTamanho, long expiradas, long invalidadas) {
+    }
+
+    private record Entrada<V>(V valor, long expiraEmNanos) {
+    }
+
+    /** Resultado da consulta: o valor num acerto, ou a geração vista na falta. */
+    private record Consulta<V>(V valor, boolean acerto, long geracao) {
+    }
+
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entrada<V>> mapa;
+    /** Incrementada a cada invalidação; protegida por {@code this}. */
+    private long geracao;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder removidasPorTamanho = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+    private final LongAdder invalidadas = new LongAdder();
+
+    public CacheLru(int maxEntradas, Duration ttl) {
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.mapa = new LinkedHashMap<>(Math.min(maxEntradas, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> maisAntiga) {
+                if (size() > CacheLru.this.maxEntradas) {
+                    removidasPorTamanho.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Valor em cache ou, se ausente/expirado, o resultado de {@code carregar}
+     * (chamado fora do lock). Exceções de {@code carregar} não são cacheadas.
+     */
+    public V obter(K chave, Supplier<V> carregar) {
+        Consulta<V> c = consultar(chave);
+        if (c.acerto()) {
+            return c.valor();
+        }
+        V valor = carregar.get();
+        guardar(chave, valor, c.geracao());
+        return valor;
+    }
+
+    /**
+     * Como {@link #obter}, para cargas assíncronas: nada bloqueia à espera da
+     * carga, e o valor entra no cache quando ela completa (se não houve
+     * invalidação no meio). Falhas da carga não são cacheadas.
+     */
+    public CompletionStage<V> obterAssincrono(K chave, Supplier<? extends CompletionStage<V>> carregar) {
+        Consulta<V> c = consultar(chave);
+        if (c.acerto()) {
+            return CompletableFuture.completedFuture(c.valor());
+        }
+        return carregar.get().thenApply(valor -> {
+            guardar(chave, valor, c.geracao());
+            return valor;
+        });
+    }
+
+    private synchronized Consulta<V> consultar(K chave) {
+        Entrada<V> e = mapa.get(chave);
+        if (e != null) {
+            if (System.nanoTime() - e.expiraEmNanos() < 0) {
+                acertos.increment();
+                return new Consulta<>(e.valor(), true, geracao);
+            }
+            mapa.remove(chave);
+            expiradas.increment();
+        }
+        faltas.increment();
+        return new Consulta<>(null, false, geracao);
+    }
+
+    private synchronized void guardar(K chave, V valor, long geracaoNaCarga) {
+        if (geracaoNaCarga == geracao) {
+            mapa.put(chave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /** Remove as entradas que satisfazem o predicado. */
+    public synchronized void invalidarSe(BiPredicate<K, V> predicado) {
+        geracao++;
+        mapa.entrySet().removeIf(e -> {
+            boolean remover = predicado.test(e.getKey(), e.getValue().valor());
+            if (remover) {
+                invalidadas.increment();
+            }
+            return remover;
+        });
+    }
+
+    public synchronized void limpar() {
+        geracao++;
+        invalidadas.add(mapa.size());
+        mapa.clear();
+    }
+
+    public Estatisticas estatisticas() {
+        int entradas;
+        synchronized (this) {
+            entradas = mapa.size();
+        }
+        long a = acertos.sum();
+        long f = faltas.sum();
+        return new Estatisticas(entradas, a, f, a + f == 0 ? 0.0 : (double) a / (a + f),
+                removidasPorTamanho.sum(), expiradas.sum(), invalidadas.sum());
+    }
+}
@@ -0,0 +1,43 @@
+package org.acme.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Token {@code since} de GET /api/neos/changes: a posição
+ * {@code (transação, versão)} da última alteração entregue. Opaco e
+ * versionado como o {@link CursorNeo}.
+ */
+public final class CursorAlteracoes {
+
+    private static final String PREFIXO = "v1:";
+
+    /** Antes de qualquer alteração: o feed começa pelo catálogo inteiro. */
+    public static final Posicao INICIO = new Posicao(0, 0);
+
+    public record Posicao(long transacao, long versao) {
+    }
+
+    private CursorAlteracoes() {
+    }
+
+    public static String codificar(Posicao p) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXO + p.transacao() + ":" + p.versao()).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** @throws IllegalArgumentException se o token não foi gerado por {@link #codificar} */
+    public static Posicao decodificar(String token) {
+        try {
+            String s = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int sep = s.indexOf(':', PREFIXO.length());
+            if (s.startsWith(PREFIXO) && sep > 0) {
+                return new Posicao(Long.parseLong(s.substring(PREFIXO.length(), sep)),
+                        Long.parseLong(s.substring(sep + 1)));
+            }
+        } catch (IllegalArgumentException e) {
+            // cai no erro abaixo
+        }
+        throw new IllegalArgumentException("Token 'since' inválido: " + token);
+    }
+}
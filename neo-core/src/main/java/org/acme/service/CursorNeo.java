@@ -0,0 +1,36 @@
+package org.acme.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Token opaco da paginação por cursor de GET /api/neos: guarda o último
+ * {@code id} entregue, e a próxima página é {@code id > cursor ORDER BY id}.
+ * O formato interno é versionado para poder mudar sem quebrar clientes
+ * que só repassam o token.
+ */
+public final class CursorNeo {
+
+    private static final String PREFIXO = "v1:";
+
+    private CursorNeo() {
+    }
+
+    public static String codificar(long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXO + ultimoId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** @throws IllegalArgumentException se o token não foi gerado por {@link #codificar} */
+    public static long decodificar(String token) {
+        try {
+            String s = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            if (s.startsWith(PREFIXO)) {
+                return Long.parseLong(s.substring(PREFIXO.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // cai no erro abaixo (NumberFormatException também é IllegalArgumentException)
+        }
+        throw new IllegalArgumentException("Cursor inválido: " + token);
+    }
+}
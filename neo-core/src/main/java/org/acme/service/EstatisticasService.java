@@ -0,0 +1,131 @@
+package org.acme.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.acme.domain.dtos.NeoEstatisticas;
+import org.acme.repository.NeoEstatisticasRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * Estatísticas do catálogo inteiro para o dashboard de analytics.
+ *
+ * Os agregados vêm do banco ({@link NeoEstatisticasRepository}) e ficam
+ * memorizados por {@code neo.stats.ttl} ou até a próxima escrita
+ * ({@link NeoAlteradoEvent}): o dashboard reabre as mesmas consultas a
+ * cada carga de página, e o catálogo só muda nas importações e edições.
+ * A memória é um {@link CacheLru}: limitada a {@code neo.stats.max-entradas}
+ * combinações de parâmetros, e um cálculo que começou antes de uma escrita
+ * não é guardado depois dela.
+ */
+@ApplicationScoped
+public class EstatisticasService {
+
+    /** Faixas de diâmetro usadas pelo dashboard quando nenhuma é informada. */
+    public static final double[] LIMITES_PADRAO = { 0, 50, 100, 200, 500, 1000, 2000, 5000 };
+    public static final int MAX_FAIXAS = 200;
+
+    @Inject
+    NeoEstatisticasRepository repo;
+
+    @ConfigProperty(name = "neo.stats.ttl", defaultValue = "PT30S")
+    Duration ttl;
+    @ConfigProperty(name = "neo.stats.max-entradas", defaultValue = "500")
+    int maxEntradas;
+
+    private CacheLru<String, Object> memo;
+
+    @PostConstruct
+    void init() {
+        memo = new CacheLru<>(maxEntradas, ttl);
+    }
+
+    public List<NeoEstatisticas.Resumo> resumo() {
+        return memorizado("resumo", repo::resumo);
+    }
+
+    public NeoEstatisticas.Correlacoes correlacoes() {
+        return memorizado("correlacoes", repo::correlacoes);
+    }
+
+    public List<NeoEstatisticas.Mensal> mensal(LocalDate inicio, LocalDate fim) {
+        if (inicio != null && fim != null && fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("'fim' anterior a 'inicio'");
+        }
+        return memorizado("mensal:" + inicio + ":" + fim, () -> repo.mensal(inicio, fim));
+    }
+
+    /**
+     * Histograma com limites explícitos ou, se {@code faixas} for informado,
+     * com {@code faixas} intervalos iguais entre o menor e o maior valor.
+     */
+    public NeoEstatisticas.Histograma histograma(String campo, double[] limites, Integer faixas) {
+        if (!NeoEstatisticasRepository.COLUNAS.containsKey(campo)) {
+            throw new IllegalArgumentException("Campo não suportado: " + campo
+                    + " (use " + NeoEstatisticasRepository.COLUNAS.keySet() + ")");
+        }
+        if (faixas != null) {
+            if (faixas < 1 || faixas > MAX_FAIXAS) {
+                throw new IllegalArgumentException("'faixas' deve estar entre 1 e " + MAX_FAIXAS);
+            }
+            return memorizado("histograma:" + campo + ":n" + faixas, () -> {
+                double[] minMax = repo.faixa(campo);
+                return repo.histograma(campo, minMax == null ? new double[] { 0, 1 } : uniforme(minMax, faixas));
+            });
+        }
+        double[] l = limites != null ? limites : LIMITES_PADRAO;
+        validarLimites(l);
+        return memorizado("histograma:" + campo + ":" + Arrays.toString(l), () -> repo.histograma(campo, l));
+    }
+
+    /** Descarta os agregados memorizados. */
+    public void invalidar() {
+        memo.limpar();
+    }
+
+    void aoAlterar(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Priority(VersaoCatalogo.PRIORIDADE_INVALIDACAO)
+            NeoAlteradoEvent evento) {
+        invalidar();
+    }
+
+    /** Limites de {@code n} faixas iguais; o último é deslocado para o máximo cair na última faixa. */
+    static double[] uniforme(double[] minMax, int n) {
+        double min = minMax[0];
+        double max = minMax[1] > min ? minMax[1] : min + 1;
+        double[] l = new double[n + 1];
+        for (int i = 0; i <= n; i++) {
+            l[i] = min + (max - min) * i / n;
+        }
+        l[n] = Math.nextUp(max);
+        return l;
+    }
+
+    static void validarLimites(double[] l) {
+        if (l.length < 2 || l.length > MAX_FAIXAS + 1) {
+            throw new IllegalArgumentException("Informe entre 2 e " + (MAX_FAIXAS + 1) + " limites");
+        }
+        for (int i = 0; i < l.length; i++) {
+            if (!Double.isFinite(l[i]) || i > 0 && l[i] <= l[i - 1]) {
+                throw new IllegalArgumentException("Limites devem ser finitos e estritamente crescentes");
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T memorizado(String chave, Supplier<T> calcular) {
+        if (ttl.isZero()) {
+            return calcular.get();
+        }
+        return (T) memo.obter(chave, calcular::get);
+    }
+}
@@ -0,0 +1,175 @@
+package org.acme.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.acme.domain.models.NeoObject;
+import org.acme.repository.NeoExportJdbc;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Exportação do catálogo inteiro em streaming: as linhas saem do cursor
+ * JDBC ({@link NeoExportJdbc}) direto para o {@link OutputStream} da
+ * resposta, uma por vez, sem montar listas nem DTOs de página.
+ *
+ * O Parquet usa o schema do lake ({@link NeoParquet#SCHEMA}), então o
+ * arquivo exportado pode ser lido pelo treino como uma partição do lake.
+ */
+@ApplicationScoped
+public class ExportacaoService {
+
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv"),
+        PARQUET("application/vnd.apache.parquet", "parquet");
+
+        public final String mediaType;
+        public final String extensao;
+
+        Formato(String mediaType, String extensao) {
+            this.mediaType = mediaType;
+            this.extensao = extensao;
+        }
+
+        public static Formato de(String nome) {
+            try {
+                return valueOf(nome.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato não suportado: " + nome + " (use ndjson, csv ou parquet)");
+            }
+        }
+    }
+
+    /** Linha do NDJSON/CSV: os campos da API, sem o link {@code self}. */
+    @JsonPropertyOrder({ "id", "neoId", "nome", "magnitudeAbsoluta", "diametroMinM", "diametroMaxM",
+            "ehPotencialmentePerigoso", "dataPrimeiraAproximacao", "velocidadeKmS", "planetaAlvo",
+            "probabilidadePerigo", "versaoModelo", "criadoEm" })
+    public static class LinhaExportacao {
+        public Long id;
+        public String neoId;
+        public String nome;
+        public Double magnitudeAbsoluta;
+        public Double diametroMinM;
+        public Double diametroMaxM;
+        public boolean ehPotencialmentePerigoso;
+        public String dataPrimeiraAproximacao;
+        public Double velocidadeKmS;
+        public String planetaAlvo;
+        public Double probabilidadePerigo;
+        public String versaoModelo;
+        public String criadoEm;
+
+        /** Reaproveitada linha a linha: o writer serializa antes da próxima. */
+        void preencher(NeoObject n) {
+            id = n.id;
+            neoId = n.neoId;
+            nome = n.nome;
+            magnitudeAbsoluta = n.magnitudeAbsoluta;
+            diametroMinM = n.diametroMinM;
+            diametroMaxM = n.diametroMaxM;
+            ehPotencialmentePerigoso = n.ehPotencialmentePerigoso;
+            dataPrimeiraAproximacao = iso(n.dataPrimeiraAproximacao);
+            velocidadeKmS = n.velocidadeKmS;
+            planetaAlvo = n.planetaAlvo;
+            probabilidadePerigo = n.probabilidadePerigo;
+            versaoModelo = n.versaoModelo;
+            criadoEm = iso(n.criadoEm);
+        }
+    }
+
+    /** Mesmo formato do approachDateFull da NASA, usado no CSV bruto e no lake. */
+    private static final DateTimeFormatter NASA_FMT = DateTimeFormatter.ofPattern("yyyy-MMM-dd HH:mm", Locale.US);
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final ObjectWriter CSV_WRITER = CSV_MAPPER
+            .writer(CSV_MAPPER.schemaFor(LinhaExportacao.class).withHeader());
+
+    @Inject
+    DataSource dataSource;
+    @Inject
+    ObjectMapper mapper;
+    @ConfigProperty(name = "neo.lake.compressao", defaultValue = "ZSTD")
+    CompressionCodecName compressao;
+
+    /**
+     * Escreve todos os NEOs (ou só os com a flag {@code perigoso}) em
+     * {@code out}. No Parquet, {@code out} é fechado junto com o rodapé.
+     *
+     * @return quantidade de linhas exportadas
+     */
+    public long exportar(Formato formato, Boolean perigoso, OutputStream out) throws IOException {
+        long t0 = System.nanoTime();
+        long linhas;
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+            try {
+                linhas = switch (formato) {
+                    case NDJSON -> jackson(conn, perigoso, mapper.writer().withRootValueSeparator("\n")
+                            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET), out);
+                    case CSV -> jackson(conn, perigoso, CSV_WRITER
+                            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET), out);
+                    case PARQUET -> parquet(conn, perigoso, out);
+                };
+            } finally {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Falha ao ler neo_object para exportação", e);
+        }
+        Log.infof("Exportação %s: %d NEOs em %d ms", formato, linhas, (System.nanoTime() - t0) / 1_000_000);
+        return linhas;
+    }
+
+    private static long jackson(Connection conn, Boolean perigoso, ObjectWriter writer, OutputStream out)
+            throws SQLException, IOException {
+        LinhaExportacao linha = new LinhaExportacao();
+        try (SequenceWriter seq = writer.writeValues(out)) {
+            long n = NeoExportJdbc.percorrer(conn, perigoso, neo -> {
+                linha.preencher(neo);
+                seq.write(linha);
+            });
+            if (n > 0 && writer.getFactory().getFormatName().equals("JSON")) {
+                // o separador só vai entre valores; NDJSON termina a última linha também
+                seq.flush();
+                out.write('\n');
+            }
+            return n;
+        }
+    }
+
+    private long parquet(Connection conn, Boolean perigoso, OutputStream out) throws SQLException, IOException {
+        try (ParquetWriter<GenericRecord> w = NeoParquet.abrirWriter(NeoParquet.saida(out), compressao)) {
+            return NeoExportJdbc.percorrer(conn, perigoso, neo -> w.write(NeoParquet.registro(
+                    new ArmazenamentoMinioService.CsvNeoData(neo.neoId, neo.nome, neo.magnitudeAbsoluta,
+                            neo.diametroMinM, neo.diametroMaxM, neo.ehPotencialmentePerigoso,
+                            neo.dataPrimeiraAproximacao == null ? null : NASA_FMT.format(neo.dataPrimeiraAproximacao),
+                            neo.velocidadeKmS, neo.planetaAlvo,
+                            neo.criadoEm == null ? null : neo.criadoEm.toLocalDate().toString()))));
+        }
+    }
+
+    private static String iso(OffsetDateTime t) {
+        return t == null ? null : t.toString();
+    }
+}
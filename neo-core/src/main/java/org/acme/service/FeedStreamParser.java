@@ -0,0 +1,97 @@
+package org.acme.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.acme.domain.dtos.FeedResponse;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Leitura em streaming do JSON do /feed da NeoWs.
+ *
+ * Percorre {@code near_earth_objects} token a token e materializa um
+ * {@link FeedResponse.Neo} por vez, sem montar o {@link FeedResponse}
+ * inteiro. Uso:
+ *
+ * <pre>
+ * try (FeedStreamParser p = new FeedStreamParser(in, mapper)) {
+ *     FeedResponse.Neo neo;
+ *     while ((neo = p.proximo()) != null) {
+ *         String dia = p.diaAtual();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public class FeedStreamParser implements AutoCloseable {
+
+    private final JsonParser parser;
+    private final ObjectMapper mapper;
+    private String diaAtual;
+    private boolean dentroDosNeos;
+    private boolean fim;
+
+    public FeedStreamParser(InputStream json, ObjectMapper mapper) throws IOException {
+        this.mapper = mapper;
+        this.parser = mapper.getFactory().createParser(json);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Feed NeoWs inválido: esperado objeto JSON na raiz");
+        }
+    }
+
+    /** Dia ("yyyy-MM-dd") do último NEO devolvido por {@link #proximo()}. */
+    public String diaAtual() {
+        return diaAtual;
+    }
+
+    /** Próximo NEO do feed, ou null quando acabar. */
+    public FeedResponse.Neo proximo() throws IOException {
+        while (!fim) {
+            JsonToken t = parser.nextToken();
+            if (t == null) {
+                fim = true;
+                break;
+            }
+
+            if (!dentroDosNeos) {
+                // nível raiz: pula tudo que não for near_earth_objects (links, element_count...)
+                if (t == JsonToken.END_OBJECT) {
+                    fim = true;
+                } else if (t == JsonToken.FIELD_NAME) {
+                    JsonToken valor = parser.nextToken();
+                    if ("near_earth_objects".equals(parser.currentName()) && valor == JsonToken.START_OBJECT) {
+                        dentroDosNeos = true;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                continue;
+            }
+
+            switch (t) {
+                case FIELD_NAME -> {
+                    diaAtual = parser.currentName();
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+                }
+                case START_OBJECT -> {
+                    return mapper.readValue(parser, FeedResponse.Neo.class);
+                }
+                case END_OBJECT -> dentroDosNeos = false; // fim do near_earth_objects
+                default -> {
+                    // END_ARRAY de um dia
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
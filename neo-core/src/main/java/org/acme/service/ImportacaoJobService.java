@@ -0,0 +1,109 @@
+package org.acme.service;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.acme.domain.dtos.ImportacaoJob;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+
+/**
+ * Executa importações fora da thread HTTP.
+ *
+ * Os jobs entram num executor limitado (threads e fila configuráveis); com a
+ * fila cheia o envio é recusado com 503. O registro guarda os últimos
+ * {@code neo.importacao.jobs-retidos} jobs finalizados para consulta.
+ */
+@ApplicationScoped
+public class ImportacaoJobService {
+
+    @Inject
+    NeoService neoService;
+
+    @ConfigProperty(name = "neo.importacao.threads", defaultValue = "2")
+    int threads;
+    @ConfigProperty(name = "neo.importacao.fila", defaultValue = "50")
+    int capacidadeFila;
+    @ConfigProperty(name = "neo.importacao.jobs-retidos", defaultValue = "200")
+    int jobsRetidos;
+
+    private final Map<String, ImportacaoJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                    Thread t = new Thread(r, "neo-importacao-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public ImportacaoJob submeter(LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("'fim' anterior a 'inicio'");
+        }
+        ImportacaoJob job = new ImportacaoJob(inicio, fim);
+        try {
+            executor.execute(() -> executar(job));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Fila de importação cheia; tente novamente mais tarde.", 30L);
+        }
+        jobs.put(job.id, job);
+        descartarAntigos();
+        Log.infof("Job de importação %s enfileirado: %s a %s", job.id, inicio, fim);
+        return job;
+    }
+
+    public Optional<ImportacaoJob> buscar(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void executar(ImportacaoJob job) {
+        job.iniciar();
+        try {
+            neoService.importarFeed(job.inicio, job.fim, job::chunkConfirmado);
+            job.concluir();
+            Log.infof("Job %s concluído: %d NEOs em %d chunks (%d ms)",
+                    job.id, job.getNeosImportados(), job.getChunksConfirmados(), job.getDuracaoMs());
+        } catch (Exception e) {
+            Log.errorf(e, "Job de importação %s falhou", job.id);
+            job.falhar(e.getMessage());
+        }
+    }
+
+    /** Mantém no máximo {@code jobsRetidos} jobs finalizados, removendo os mais antigos. */
+    private void descartarAntigos() {
+        long finalizados = jobs.values().stream().filter(ImportacaoJob::finalizado).count();
+        if (finalizados <= jobsRetidos) {
+            return;
+        }
+        Iterator<ImportacaoJob> antigos = jobs.values().stream()
+                .filter(ImportacaoJob::finalizado)
+                .sorted((a, b) -> a.criadoEm.compareTo(b.criadoEm))
+                .limit(finalizados - jobsRetidos)
+                .iterator();
+        antigos.forEachRemaining(j -> jobs.remove(j.id));
+    }
+}
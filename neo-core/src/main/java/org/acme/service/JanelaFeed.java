@@ -0,0 +1,37 @@
+package org.acme.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Intervalo fechado [inicio, fim] aceito pelo /feed da NeoWs (no máximo 7 dias).
+ */
+public record JanelaFeed(LocalDate inicio, LocalDate fim) {
+
+    public static final int MAX_DIAS_NEOWS = 7;
+
+    /**
+     * Quebra [inicio, fim] em janelas consecutivas de até {@code dias} dias,
+     * sem sobreposição e cobrindo o intervalo inteiro.
+     */
+    public static List<JanelaFeed> dividir(LocalDate inicio, LocalDate fim, int dias) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("'fim' (" + fim + ") anterior a 'inicio' (" + inicio + ")");
+        }
+        if (dias < 1 || dias > MAX_DIAS_NEOWS) {
+            throw new IllegalArgumentException("Janela deve ter entre 1 e " + MAX_DIAS_NEOWS + " dias: " + dias);
+        }
+        List<JanelaFeed> janelas = new ArrayList<>();
+        LocalDate atual = inicio;
+        while (!atual.isAfter(fim)) {
+            LocalDate ultimo = atual.plusDays(dias - 1L);
+            if (ultimo.isAfter(fim)) {
+                ultimo = fim;
+            }
+            janelas.add(new JanelaFeed(atual, ultimo));
+            atual = ultimo.plusDays(1);
+        }
+        return janelas;
+    }
+}
@@ -0,0 +1,113 @@
+package org.acme.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * Métricas da importação, expostas em {@code /q/metrics}:
+ *
+ * <ul>
+ * <li>{@code neo.nasa.feed}: tempo até a NeoWs responder o /feed (status e
+ * cabeçalhos; o corpo é lido depois, em streaming), por {@code origem}
+ * ({@code importacao}/{@code backfill}) e {@code resultado} ({@code sucesso},
+ * o status HTTP da falha ou {@code erro});</li>
+ * <li>{@code neo.upsert.linhas}: NEOs gravados (a taxa dá linhas/s);</li>
+ * <li>{@code neo.upsert.chunk}: duração da transação de cada chunk de upsert;</li>
+ * <li>{@code s3.requisicoes} e {@code s3.bytes}: latência e tamanho dos
+ * uploads ao MinIO, com os mesmos nomes e tags que o interceptor do cliente
+ * S3 do modelo-ia registra.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class MetricasNeo {
+
+    @Inject
+    MeterRegistry registry;
+
+    private Counter linhasGravadas;
+    private Timer chunkUpsert;
+
+    @PostConstruct
+    void init() {
+        linhasGravadas = Counter.builder("neo.upsert.linhas")
+                .description("NEOs gravados pelo upsert em lote")
+                .register(registry);
+        chunkUpsert = Timer.builder("neo.upsert.chunk")
+                .description("Transação de upsert de um chunk da importação")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    /** Executa a chamada ao /feed registrando o tempo até a resposta. */
+    public <T> T feedNasa(String origem, Supplier<T> chamada) {
+        long t0 = System.nanoTime();
+        String resultado = "erro";
+        try {
+            T resposta = chamada.get();
+            resultado = "sucesso";
+            return resposta;
+        } catch (WebApplicationException e) {
+            if (e.getResponse() != null) {
+                resultado = String.valueOf(e.getResponse().getStatus());
+            }
+            throw e;
+        } finally {
+            Timer.builder("neo.nasa.feed")
+                    .description("Tempo até a resposta do /feed da NeoWs")
+                    .tag("origem", origem)
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(10))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(registry)
+                    .record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Executa um PutObject de {@code bytes} (-1 se desconhecido) registrando latência e tamanho. */
+    public <T> T putS3(long bytes, Supplier<T> chamada) {
+        long t0 = System.nanoTime();
+        String resultado = "erro";
+        try {
+            T resposta = chamada.get();
+            resultado = "sucesso";
+            return resposta;
+        } finally {
+            Timer.builder("s3.requisicoes")
+                    .description("Chamadas ao S3/MinIO")
+                    .tag("operacao", "PutObject")
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(registry)
+                    .record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            if (resultado.equals("sucesso") && bytes >= 0) {
+                DistributionSummary.builder("s3.bytes")
+                        .description("Bytes enviados (PutObject) e recebidos (GetObject)")
+                        .baseUnit("bytes")
+                        .tag("operacao", "PutObject")
+                        .register(registry)
+                        .record(bytes);
+            }
+        }
+    }
+
+    /** Um chunk de {@code linhas} NEOs confirmado em {@code nanos}. */
+    public void upsert(int linhas, long nanos) {
+        linhasGravadas.increment(linhas);
+        chunkUpsert.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
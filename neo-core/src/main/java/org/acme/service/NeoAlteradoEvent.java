@@ -0,0 +1,24 @@
+package org.acme.service;
+
+import java.util.Set;
+
+/**
+ * Disparado pelo {@link NeoService} a cada escrita em {@code neo_object}.
+ * Quem mantém dados derivados (caches, agregados) observa com
+ * {@code TransactionPhase.AFTER_SUCCESS}, para reagir só depois do commit.
+ *
+ * @param id      id do NEO criado/atualizado/removido (null em importações)
+ * @param neoIds  ids da NASA gravados numa importação (vazio nos demais tipos)
+ */
+public record NeoAlteradoEvent(Tipo tipo, Long id, Set<String> neoIds) {
+
+    public enum Tipo { CRIADO, ATUALIZADO, REMOVIDO, IMPORTADO }
+
+    public static NeoAlteradoEvent de(Tipo tipo, Long id) {
+        return new NeoAlteradoEvent(tipo, id, Set.of());
+    }
+
+    public static NeoAlteradoEvent importados(Set<String> neoIds) {
+        return new NeoAlteradoEvent(Tipo.IMPORTADO, null, neoIds);
+    }
+}
@@ -0,0 +1,104 @@
+package org.acme.service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.acme.domain.dtos.NeoObjectResponse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+
+/**
+ * Cache de leitura das respostas de GET /api/neos: um NEO por id e as
+ * páginas de listagem/busca por URI da requisição. Guarda os DTOs já
+ * mapeados, então um acerto não toca no banco nem no MapStruct.
+ *
+ * A invalidação vem do {@link NeoAlteradoEvent}, depois do commit: o
+ * detalhe sai só para o id alterado (ou para os {@code neo_id} importados).
+ * As páginas saem todas a cada escrita, porque a linha alterada pode passar
+ * a casar com qualquer filtro e remoções deslocam as páginas por OFFSET.
+ */
+@ApplicationScoped
+public class NeoCacheService {
+
+    /** Página em cache: itens já mapeados e o cursor da próxima, se houver. */
+    public record Pagina(List<NeoObjectResponse> itens, String proximoCursor) {
+    }
+
+    /** A URI base entra na chave porque o {@code self} de cada item depende dela. */
+    private record ChaveId(URI base, long id) {
+    }
+
+    @ConfigProperty(name = "neo.cache.habilitado", defaultValue = "true")
+    boolean habilitado;
+    @ConfigProperty(name = "neo.cache.max-entradas", defaultValue = "10000")
+    int maxEntradas;
+    @ConfigProperty(name = "neo.cache.max-paginas", defaultValue = "1000")
+    int maxPaginas;
+    @ConfigProperty(name = "neo.cache.ttl", defaultValue = "PT60S")
+    Duration ttl;
+
+    private CacheLru<ChaveId, NeoObjectResponse> porId;
+    private CacheLru<URI, Pagina> paginas;
+
+    @PostConstruct
+    void init() {
+        porId = new CacheLru<>(maxEntradas, ttl);
+        paginas = new CacheLru<>(maxPaginas, ttl);
+    }
+
+    public NeoObjectResponse obter(URI base, long id, Supplier<NeoObjectResponse> carregar) {
+        return habilitado ? porId.obter(new ChaveId(base, id), carregar) : carregar.get();
+    }
+
+    public Pagina pagina(URI requisicao, Supplier<Pagina> carregar) {
+        return habilitado ? paginas.obter(requisicao, carregar) : carregar.get();
+    }
+
+    /**
+     * {@link #obter} para os endpoints reativos: a consulta ao cache acontece
+     * na inscrição, e num acerto não há ida ao banco nem troca de thread.
+     */
+    public Uni<NeoObjectResponse> obterReativo(URI base, long id, Supplier<Uni<NeoObjectResponse>> carregar) {
+        if (!habilitado) {
+            return carregar.get();
+        }
+        return Uni.createFrom().completionStage(() -> porId.obterAssincrono(new ChaveId(base, id),
+                () -> carregar.get().subscribeAsCompletionStage()));
+    }
+
+    public Uni<Pagina> paginaReativa(URI requisicao, Supplier<Uni<Pagina>> carregar) {
+        if (!habilitado) {
+            return carregar.get();
+        }
+        return Uni.createFrom().completionStage(() -> paginas.obterAssincrono(requisicao,
+                () -> carregar.get().subscribeAsCompletionStage()));
+    }
+
+    void aoAlterar(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Priority(VersaoCatalogo.PRIORIDADE_INVALIDACAO)
+            NeoAlteradoEvent evento) {
+        switch (evento.tipo()) {
+            case ATUALIZADO, REMOVIDO -> porId.invalidarSe((k, v) -> k.id() == evento.id());
+            case IMPORTADO -> porId.invalidarSe((k, v) -> evento.neoIds().contains(v.getNeoId()));
+            case CRIADO -> {
+                // id novo: nada em cache por id
+            }
+        }
+        paginas.limpar();
+        Log.debugf("Cache de NEOs invalidado: %s %s", evento.tipo(),
+                evento.id() != null ? evento.id() : evento.neoIds().size() + " neo_ids");
+    }
+
+    public Map<String, CacheLru.Estatisticas> estatisticas() {
+        return Map.of("porId", porId.estatisticas(), "paginas", paginas.estatisticas());
+    }
+}
@@ -0,0 +1,373 @@
+package org.acme.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.service.ArmazenamentoMinioService.CsvNeoData;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopCodecs;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Formato Parquet das linhas {@link CsvNeoData} no lake ({@code lake/neo/}).
+ *
+ * Mesmas colunas do CSV bruto, mas tipadas (double/boolean em vez de texto),
+ * comprimidas e com estatísticas min/max/nulls por row group e column index
+ * por página, o que permite a quem lê pular row groups e ler só as colunas
+ * que precisa. {@link #COL_DIA} é a data da partição.
+ *
+ * Inclui {@link OutputFile}/{@link InputFile} sobre streams e arrays em
+ * memória: a versão 1.13 do parquet-hadoop só traz implementações sobre o
+ * FileSystem do Hadoop.
+ */
+public final class NeoParquet {
+
+    public static final String COL_NEO_ID = "neoId";
+    public static final String COL_MAGNITUDE = "magnitudeAbsoluta";
+    public static final String COL_DIAMETRO_MIN = "diametroMinM";
+    public static final String COL_DIAMETRO_MAX = "diametroMaxM";
+    public static final String COL_PERIGOSO = "ehPotencialmentePerigoso";
+    public static final String COL_VELOCIDADE = "velocidadeKmS";
+    public static final String COL_DIA = "criadoEm";
+
+    public static final Schema SCHEMA = SchemaBuilder.record("NeoLake").namespace("org.acme.lake")
+            .fields()
+            .requiredString(COL_NEO_ID)
+            .optionalString("nome")
+            .optionalDouble(COL_MAGNITUDE)
+            .optionalDouble(COL_DIAMETRO_MIN)
+            .optionalDouble(COL_DIAMETRO_MAX)
+            .requiredBoolean(COL_PERIGOSO)
+            .optionalString("dataPrimeiraAproximacao")
+            .optionalDouble(COL_VELOCIDADE)
+            .optionalString("planetaAlvo")
+            .requiredString(COL_DIA)
+            .endRecord();
+
+    /** Row groups pequenos: um arquivo por dia tem da ordem de centenas de linhas. */
+    private static final long ROW_GROUP_BYTES = 8L * 1024 * 1024;
+
+    /**
+     * Configuração sem os defaults do Hadoop: o {@code new Configuration()}
+     * relê o core-default.xml a cada instância, o que custa mais que ler um
+     * arquivo diário inteiro. Só é lida, então pode ser compartilhada.
+     */
+    private static final Configuration CONF_CODECS = new Configuration(false);
+
+    private NeoParquet() {
+    }
+
+    public static ParquetWriter<GenericRecord> abrirWriter(OutputFile destino, CompressionCodecName codec)
+            throws IOException {
+        return AvroParquetWriter.<GenericRecord>builder(destino)
+                .withSchema(SCHEMA)
+                .withCompressionCodec(codec)
+                .withRowGroupSize(ROW_GROUP_BYTES)
+                .withDictionaryEncoding(true)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build();
+    }
+
+    public static GenericRecord registro(CsvNeoData d) {
+        GenericRecord r = new GenericData.Record(SCHEMA);
+        r.put(COL_NEO_ID, d.neoId);
+        r.put("nome", d.nome);
+        r.put(COL_MAGNITUDE, d.magnitudeAbsoluta);
+        r.put(COL_DIAMETRO_MIN, d.diametroMinM);
+        r.put(COL_DIAMETRO_MAX, d.diametroMaxM);
+        r.put(COL_PERIGOSO, d.ehPotencialmentePerigoso);
+        r.put("dataPrimeiraAproximacao", d.dataPrimeiraAproximacao);
+        r.put(COL_VELOCIDADE, d.velocidadeKmS);
+        r.put("planetaAlvo", d.planetaAlvo);
+        r.put(COL_DIA, d.criadoEm);
+        return r;
+    }
+
+    /**
+     * Configuração de leitura que só decodifica as colunas pedidas; os
+     * registros lidos têm apenas esses campos.
+     */
+    public static Configuration projecao(String... colunas) {
+        List<Schema.Field> campos = new ArrayList<>(colunas.length);
+        for (String c : colunas) {
+            Schema.Field f = SCHEMA.getField(c);
+            if (f == null) {
+                throw new IllegalArgumentException("Coluna inexistente no lake: " + c);
+            }
+            campos.add(new Schema.Field(f, f.schema()));
+        }
+        Schema parcial = Schema.createRecord(SCHEMA.getName(), null, SCHEMA.getNamespace(), false, campos);
+
+        Configuration conf = new Configuration(false);
+        AvroReadSupport.setRequestedProjection(conf, parcial);
+        AvroReadSupport.setAvroReadSchema(conf, parcial);
+        return conf;
+    }
+
+    /**
+     * Leitura colunar direta para arrays primitivos, sem materializar
+     * registros Avro: só as colunas pedidas são lidas e descomprimidas.
+     * Colunas double viram {@code double[]} (nulo = NaN), boolean viram
+     * {@code boolean[]} (nulo = false) e string viram {@code String[]}.
+     */
+    public static Colunas lerColunas(InputFile arquivo, String... colunas) throws IOException {
+        ParquetReadOptions opcoes = ParquetReadOptions.builder()
+                .withCodecFactory(HadoopCodecs.newFactory(CONF_CODECS, 0))
+                .build();
+        try (ParquetFileReader reader = ParquetFileReader.open(arquivo, opcoes)) {
+            MessageType schemaArquivo = reader.getFooter().getFileMetaData().getSchema();
+            List<Type> campos = new ArrayList<>(colunas.length);
+            for (String c : colunas) {
+                if (!schemaArquivo.containsField(c)) {
+                    throw new IllegalArgumentException("Coluna inexistente no arquivo Parquet: " + c);
+                }
+                campos.add(schemaArquivo.getType(c));
+            }
+            MessageType projecao = new MessageType(schemaArquivo.getName(), campos);
+            reader.setRequestedSchema(projecao);
+
+            int total = Math.toIntExact(reader.getRecordCount());
+            Colunas resultado = new Colunas(total);
+            List<ColumnDescriptor> descritores = projecao.getColumns();
+            for (ColumnDescriptor d : descritores) {
+                resultado.valores.put(d.getPath()[0], switch (d.getPrimitiveType().getPrimitiveTypeName()) {
+                    case DOUBLE -> new double[total];
+                    case BOOLEAN -> new boolean[total];
+                    case BINARY -> new String[total];
+                    default -> throw new IllegalArgumentException("Tipo não suportado na coluna " + d);
+                });
+            }
+
+            String criadoPor = reader.getFooter().getFileMetaData().getCreatedBy();
+            GroupRecordConverter conversor = new GroupRecordConverter(projecao);
+            int base = 0;
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                int linhas = Math.toIntExact(rowGroup.getRowCount());
+                ColumnReadStoreImpl store = new ColumnReadStoreImpl(rowGroup, conversor.getRootConverter(),
+                        projecao, criadoPor);
+                for (ColumnDescriptor d : descritores) {
+                    lerColuna(store.getColumnReader(d), d.getMaxDefinitionLevel(),
+                            resultado.valores.get(d.getPath()[0]), base, linhas);
+                }
+                base += linhas;
+            }
+            return resultado;
+        }
+    }
+
+    private static void lerColuna(ColumnReader cr, int defMax, Object destino, int base, int linhas) {
+        if (destino instanceof double[] v) {
+            for (int i = base; i < base + linhas; i++) {
+                v[i] = cr.getCurrentDefinitionLevel() == defMax ? cr.getDouble() : Double.NaN;
+                cr.consume();
+            }
+        } else if (destino instanceof boolean[] v) {
+            for (int i = base; i < base + linhas; i++) {
+                v[i] = cr.getCurrentDefinitionLevel() == defMax && cr.getBoolean();
+                cr.consume();
+            }
+        } else {
+            String[] v = (String[]) destino;
+            for (int i = base; i < base + linhas; i++) {
+                v[i] = cr.getCurrentDefinitionLevel() == defMax ? cr.getBinary().toStringUsingUTF8() : null;
+                cr.consume();
+            }
+        }
+    }
+
+    /** Resultado de {@link #lerColunas}: um array por coluna, todos com {@link #linhas} posições. */
+    public static final class Colunas {
+        public final int linhas;
+        private final Map<String, Object> valores = new HashMap<>();
+
+        Colunas(int linhas) {
+            this.linhas = linhas;
+        }
+
+        public double[] doubles(String coluna) {
+            return (double[]) valores.get(coluna);
+        }
+
+        public boolean[] booleans(String coluna) {
+            return (boolean[]) valores.get(coluna);
+        }
+
+        public String[] strings(String coluna) {
+            return (String[]) valores.get(coluna);
+        }
+    }
+
+    /** Destino Parquet sobre um {@link OutputStream} já aberto (arquivo, resposta HTTP...). */
+    public static OutputFile saida(OutputStream out) {
+        return new OutputFile() {
+            @Override
+            public PositionOutputStream create(long blockSizeHint) {
+                return new StreamComPosicao(out);
+            }
+
+            @Override
+            public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+                return create(blockSizeHint);
+            }
+
+            @Override
+            public boolean supportsBlockSize() {
+                return false;
+            }
+
+            @Override
+            public long defaultBlockSize() {
+                return 0;
+            }
+        };
+    }
+
+    /** Origem Parquet sobre bytes já em memória (ex.: objeto baixado do S3). */
+    public static InputFile entrada(byte[] bytes) {
+        return new InputFile() {
+            @Override
+            public long getLength() {
+                return bytes.length;
+            }
+
+            @Override
+            public SeekableInputStream newStream() {
+                return new StreamEmMemoria(bytes);
+            }
+        };
+    }
+
+    private static final class StreamComPosicao extends PositionOutputStream {
+        private final OutputStream out;
+        private long pos;
+
+        StreamComPosicao(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public long getPos() {
+            return pos;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            pos++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            pos += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static final class StreamEmMemoria extends SeekableInputStream {
+        private final byte[] bytes;
+        private int pos;
+
+        StreamEmMemoria(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long getPos() {
+            return pos;
+        }
+
+        @Override
+        public void seek(long novaPos) {
+            pos = (int) novaPos;
+        }
+
+        @Override
+        public int read() {
+            return pos < bytes.length ? bytes[pos++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (pos >= bytes.length) {
+                return -1;
+            }
+            int n = Math.min(len, bytes.length - pos);
+            System.arraycopy(bytes, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public int read(ByteBuffer buf) {
+            if (pos >= bytes.length) {
+                return -1;
+            }
+            int n = Math.min(buf.remaining(), bytes.length - pos);
+            buf.put(bytes, pos, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void readFully(byte[] b) throws IOException {
+            readFully(b, 0, b.length);
+        }
+
+        @Override
+        public void readFully(byte[] b, int off, int len) throws IOException {
+            if (len > bytes.length - pos) {
+                throw new EOFException();
+            }
+            System.arraycopy(bytes, pos, b, off, len);
+            pos += len;
+        }
+
+        @Override
+        public void readFully(ByteBuffer buf) throws IOException {
+            int n = buf.remaining();
+            if (n > bytes.length - pos) {
+                throw new EOFException();
+            }
+            buf.put(bytes, pos, n);
+            pos += n;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.acme.service;
+
+import java.util.List;
+
+import org.acme.domain.dtos.FiltroBuscaNeo;
+import org.acme.domain.dtos.PaginaNeos;
+import org.acme.domain.models.NeoObject;
+import org.acme.repository.NeoBuscaSql;
+import org.acme.repository.NeoReativoRepository;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * As leituras de {@link NeoService} (listagem por página e por cursor, busca
+ * e obter por id) sem bloquear: mesma semântica, resultado em {@link Uni}.
+ * Parâmetro inválido ({@link IllegalArgumentException}) vira falha do
+ * {@code Uni}, não exceção na chamada.
+ */
+@ApplicationScoped
+public class NeoReativoService {
+
+    @Inject
+    NeoReativoRepository neoRepo;
+
+    /** Mesma ordem (por id) e OFFSET de {@link NeoService#listar}/{@link NeoService#listarPerigosos}. */
+    public Uni<List<NeoObject>> listar(int pagina, int tamanho, Boolean perigoso) {
+        FiltroBuscaNeo filtro = new FiltroBuscaNeo(null, null, null, null, null, null, null, null, null, perigoso);
+        return buscar(filtro, NeoBuscaSql.Ordenacao.PADRAO, pagina, tamanho);
+    }
+
+    /** Ver {@link NeoService#listarPorCursor}. */
+    public Uni<PaginaNeos> listarPorCursor(String cursor, int tamanho, Boolean perigoso) {
+        return Uni.createFrom().deferred(() -> {
+            long aposId = cursor == null ? 0L : CursorNeo.decodificar(cursor);
+            return neoRepo.listarApos(aposId, tamanho + 1, perigoso);
+        }).map(itens -> {
+            if (itens.size() <= tamanho) {
+                return new PaginaNeos(itens, null);
+            }
+            List<NeoObject> pagina = itens.subList(0, tamanho);
+            return new PaginaNeos(pagina, CursorNeo.codificar(pagina.get(tamanho - 1).id));
+        });
+    }
+
+    public Uni<List<NeoObject>> buscar(FiltroBuscaNeo filtro, NeoBuscaSql.Ordenacao ordem, int pagina, int tamanho) {
+        return Uni.createFrom().deferred(() -> neoRepo.buscar(filtro, ordem, pagina, tamanho));
+    }
+
+    /** Item nulo quando o NEO não existe. */
+    public Uni<NeoObject> obterPorId(long id) {
+        return neoRepo.porId(id);
+    }
+}
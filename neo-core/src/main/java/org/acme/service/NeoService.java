@@ -1,35 +1,52 @@
 package org.acme.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 import org.acme.controller.NeoWsClient;
+import org.acme.domain.dtos.AlteracaoNeo;
 import org.acme.domain.dtos.FeedResponse;
+import org.acme.domain.dtos.FiltroBuscaNeo;
+import org.acme.domain.dtos.PaginaAlteracoes;
+import org.acme.domain.dtos.PaginaNeos;
 import org.acme.domain.models.NeoObject;
+import org.acme.repository.NeoBuscaSql;
 import org.acme.repository.NeoRepository;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
-import org.hibernate.HibernateException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import io.quarkus.hibernate.orm.panache.Panache;
 import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
-import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 
 @ApplicationScoped
 public class NeoService {
 
+    private static final IntConsumer SEM_PROGRESSO = neos -> {
+    };
+    private static final DateTimeFormatter NASA_FMT = DateTimeFormatter.ofPattern("yyyy-MMM-dd HH:mm", Locale.US);
+
     @Inject
     @RestClient
     NeoWsClient neoClient;
@@ -41,94 +58,213 @@ public class NeoService {
     ObjectMapper mapper;
     @Inject
     ArmazenamentoMinioService minioService;
+    @Inject
+    ScoreIngestaoService scoreService;
+    @Inject
+    Event<NeoAlteradoEvent> neoAlterado;
+    @Inject
+    MetricasNeo metricas;
+    @ConfigProperty(name = "neo.importacao.tamanho-chunk", defaultValue = "1000")
+    int tamanhoChunk;
 
-    @Transactional
     public int importarFeed(LocalDate inicio, LocalDate fim) {
-        String start = inicio.format(DateTimeFormatter.ISO_DATE);
-        String end = fim.format(DateTimeFormatter.ISO_DATE);
-        FeedResponse feed = neoClient.buscarFeed(start, end, apiKey);
+        return importarFeed(inicio, fim, SEM_PROGRESSO);
+    }
 
-        try {
-            String json = mapper.writeValueAsString(feed);
-            String s3key = minioService.salvarCsvBruto(json, inicio);
+    /**
+     * Importa [inicio, fim] em janelas de até 7 dias (limite do /feed).
+     * Nenhuma transação fica aberta durante as chamadas à NASA ou ao MinIO:
+     * cada chunk de upsert é commitado separadamente e reportado em
+     * {@code aoConfirmarChunk} com a quantidade de NEOs gravados.
+     */
+    public int importarFeed(LocalDate inicio, LocalDate fim, IntConsumer aoConfirmarChunk) {
+        int inseridos = 0;
+        for (JanelaFeed janela : JanelaFeed.dividir(inicio, fim, JanelaFeed.MAX_DIAS_NEOWS)) {
+            String start = janela.inicio().format(DateTimeFormatter.ISO_DATE);
+            String end = janela.fim().format(DateTimeFormatter.ISO_DATE);
 
-            int inseridos = normalizarPersistir(feed, s3key);
+            InputStream feed = metricas.feedNasa("importacao", () -> neoClient.buscarFeedStream(start, end, apiKey));
+            inseridos += importarStream(feed, janela.inicio(), aoConfirmarChunk);
+        }
+        Log.infof("Importação finalizada. Total de NEOs importados: %d", inseridos);
+        return inseridos;
+    }
 
-            Log.infof("Importação finalizada. Total de NEOs importados: %d", inseridos);
-            return inseridos;
+    public int importarStream(InputStream json, LocalDate data) {
+        return importarStream(json, data, SEM_PROGRESSO);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Falha ao importar/normalizar feed", e);
+    /**
+     * Importa o JSON de um /feed em streaming: cada NEO lido vai direto para
+     * o CSV bruto e para o lake Parquet (arquivos temporários, enviados ao
+     * MinIO no fim) e para o chunk corrente de upsert. Só {@code neo.importacao.tamanho-chunk} NEOs
+     * ficam em memória, qualquer que seja o tamanho da resposta.
+     */
+    public int importarStream(InputStream json, LocalDate data, IntConsumer aoConfirmarChunk) {
+        try (FeedStreamParser parser = new FeedStreamParser(json, mapper);
+                ArmazenamentoMinioService.EscritorCsvBruto csv = minioService.abrirCsvBruto(data);
+                ArmazenamentoMinioService.EscritorLakeParquet lake = minioService.abrirLakeParquet()) {
+
+            List<FeedResponse.Neo> chunk = new ArrayList<>(tamanhoChunk);
+            int gravados = 0;
+            FeedResponse.Neo neo;
+            while ((neo = parser.proximo()) != null) {
+                ArmazenamentoMinioService.CsvNeoData linha = ArmazenamentoMinioService.CsvNeoData.de(neo,
+                        parser.diaAtual());
+                csv.escrever(linha);
+                lake.escrever(linha);
+                chunk.add(neo);
+                if (chunk.size() == tamanhoChunk) {
+                    gravados += normalizarPersistir(chunk, csv.key(), aoConfirmarChunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                gravados += normalizarPersistir(chunk, csv.key(), aoConfirmarChunk);
+            }
+
+            csv.concluir();
+            lake.concluir();
+            return gravados;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao importar/normalizar feed", e);
         }
     }
 
-    @Transactional
-    protected int normalizarPersistir(FeedResponse feed, String s3key) {
-        int count = 0;
-        DateTimeFormatter nasaFmt = DateTimeFormatter.ofPattern("yyyy-MMM-dd HH:mm", Locale.US);
+    /**
+     * Normaliza um chunk de NEOs do feed e faz o upsert em lote (um round
+     * trip por NeoUpsertJdbc.TAMANHO_LOTE linhas) numa transação própria,
+     * para não prender conexão durante o import inteiro. Com o score na
+     * importação ligado, o chunk é pontuado no modelo-ia antes da transação.
+     */
+    protected int normalizarPersistir(List<FeedResponse.Neo> neos, String s3key, IntConsumer aoConfirmarChunk) {
+        List<NeoObject> lote = normalizarChunk(neos, s3key);
+        scoreService.pontuar(lote);
 
-        for (Map.Entry<String, List<FeedResponse.Neo>> dia : feed.nearEarthObjects.entrySet()) {
-            for (FeedResponse.Neo n : dia.getValue()) {
+        Set<String> neoIds = lote.stream().map(n -> n.neoId).collect(Collectors.toSet());
+        long t0 = System.nanoTime();
+        int gravados = QuarkusTransaction.requiringNew().call(() -> {
+            int n = neoRepo.upsertEmLote(lote);
+            neoAlterado.fire(NeoAlteradoEvent.importados(neoIds));
+            return n;
+        });
+        metricas.upsert(gravados, System.nanoTime() - t0);
+        aoConfirmarChunk.accept(gravados);
+        return gravados;
+    }
 
-                NeoObject ent = safeFindByNeoId(n.id);
-                if (ent == null) {
-                    ent = new NeoObject();
-                    ent.neoId = n.id; 
-                }
+    /**
+     * Normaliza o chunk com um único registro por {@code neo_id}: o mesmo NEO
+     * aparece em mais de um dia do /feed, e repetido no mesmo
+     * {@code INSERT ... ON CONFLICT DO UPDATE} o Postgres recusa o lote
+     * inteiro ("cannot affect row a second time"). Fica a última ocorrência,
+     * na posição da primeira.
+     */
+    static List<NeoObject> normalizarChunk(List<FeedResponse.Neo> neos, String s3key) {
+        Map<String, NeoObject> porNeoId = new LinkedHashMap<>();
+        for (FeedResponse.Neo n : neos) {
+            if (n.id == null || n.id.isBlank()) {
+                Log.warnf("NEO sem id no feed ('%s'); registro ignorado.", n.name);
+                continue;
+            }
+            porNeoId.put(n.id, normalizar(n, s3key));
+        }
+        return new ArrayList<>(porNeoId.values());
+    }
 
-                ent.nome = n.name;
-                ent.magnitudeAbsoluta = n.absoluteMagnitudeH;
+    /**
+     * Converte um NEO do feed da NASA na entidade persistida.
+     * Campos inválidos (velocidade/data) ficam null e são logados.
+     */
+    public static NeoObject normalizar(FeedResponse.Neo n, String s3key) {
+        NeoObject ent = new NeoObject();
+        ent.neoId = n.id;
+        ent.nome = n.name;
+        ent.magnitudeAbsoluta = n.absoluteMagnitudeH;
 
-                if (n.estimatedDiameter != null && n.estimatedDiameter.meters != null) {
-                    ent.diametroMinM = n.estimatedDiameter.meters.min;
-                    ent.diametroMaxM = n.estimatedDiameter.meters.max;
-                }
+        if (n.estimatedDiameter != null && n.estimatedDiameter.meters != null) {
+            ent.diametroMinM = n.estimatedDiameter.meters.min;
+            ent.diametroMaxM = n.estimatedDiameter.meters.max;
+        }
 
-                ent.ehPotencialmentePerigoso = n.hazardous;
-
-                if (n.closeApproachData != null && !n.closeApproachData.isEmpty()) {
-                    var ca = n.closeApproachData.get(0);
-                    ent.planetaAlvo = ca.orbitingBody;
-
-                    try {
-                        ent.velocidadeKmS = (ca.relativeVelocity != null)
-                                ? Double.parseDouble(ca.relativeVelocity.kmPerSec)
-                                : null;
-                    } catch (NumberFormatException ex) {
-                        Log.warnf(ex, "Velocidade inválida para NEO %s: '%s'", n.id,
-                                (ca.relativeVelocity != null ? ca.relativeVelocity.kmPerSec : "null"));
-                    }
-
-                    // "2025-Sep-30 12:34" -> OffsetDateTime (UTC)
-                    String ad = ca.approachDateFull;
-                    if (ad != null && !ad.isBlank()) {
-                        try {
-                            var ldt = LocalDateTime.parse(ad, nasaFmt);
-                            ent.dataPrimeiraAproximacao = OffsetDateTime.of(ldt, ZoneOffset.UTC);
-                        } catch (RuntimeException ex) {
-                            Log.warnf(ex, "Data 'approachDateFull' inválida para NEO %s: '%s'", n.id, ad);
-                            // mantém null para não poluir dado com 'now'
-                        }
-                    }
-                }
+        ent.ehPotencialmentePerigoso = n.hazardous;
+
+        if (n.closeApproachData != null && !n.closeApproachData.isEmpty()) {
+            var ca = n.closeApproachData.get(0);
+            ent.planetaAlvo = ca.orbitingBody;
 
-                // Rastreabilidade da origem
-                ent.origemJsonS3Key = s3key;
+            try {
+                ent.velocidadeKmS = (ca.relativeVelocity != null)
+                        ? Double.parseDouble(ca.relativeVelocity.kmPerSec)
+                        : null;
+            } catch (NumberFormatException ex) {
+                Log.warnf(ex, "Velocidade inválida para NEO %s: '%s'", n.id,
+                        (ca.relativeVelocity != null ? ca.relativeVelocity.kmPerSec : "null"));
+            }
 
-                // Upsert
-                Panache.getEntityManager().merge(ent);
-                count++;
+            // "2025-Sep-30 12:34" -> OffsetDateTime (UTC)
+            String ad = ca.approachDateFull;
+            if (ad != null && !ad.isBlank()) {
+                try {
+                    var ldt = LocalDateTime.parse(ad, NASA_FMT);
+                    ent.dataPrimeiraAproximacao = OffsetDateTime.of(ldt, ZoneOffset.UTC);
+                } catch (RuntimeException ex) {
+                    Log.warnf(ex, "Data 'approachDateFull' inválida para NEO %s: '%s'", n.id, ad);
+                    // mantém null para não poluir dado com 'now'
+                }
             }
         }
-        return count;
+
+        // Rastreabilidade da origem
+        ent.origemJsonS3Key = s3key;
+        return ent;
     }
 
     public List<NeoObject> listarPerigosos(int pagina, int tamanho, Boolean perigoso) {
-        return neoRepo.find("ehPotencialmentePerigoso", perigoso).page(pagina, tamanho).list();
+        return neoRepo.find("ehPotencialmentePerigoso", Sort.by("id"), perigoso).page(pagina, tamanho).list();
     }
 
     public List<NeoObject> listar(int pagina, int tamanho) {
-        return neoRepo.findAll().page(pagina, tamanho).list();
+        return neoRepo.findAll(Sort.by("id")).page(pagina, tamanho).list();
+    }
+
+    /**
+     * Página por cursor: {@code tamanho} NEOs depois do cursor (ou do início,
+     * se null), em ordem de id. Busca um a mais para saber se há próxima
+     * página sem precisar de COUNT.
+     */
+    public PaginaNeos listarPorCursor(String cursor, int tamanho, Boolean perigoso) {
+        long aposId = cursor == null ? 0L : CursorNeo.decodificar(cursor);
+        List<NeoObject> itens = neoRepo.listarApos(aposId, tamanho + 1, perigoso);
+        if (itens.size() <= tamanho) {
+            return new PaginaNeos(itens, null);
+        }
+        itens = itens.subList(0, tamanho);
+        return new PaginaNeos(itens, CursorNeo.codificar(itens.get(tamanho - 1).id));
+    }
+
+    public List<NeoObject> buscar(FiltroBuscaNeo filtro, NeoBuscaSql.Ordenacao ordem, int pagina, int tamanho) {
+        return neoRepo.buscar(filtro, ordem, pagina, tamanho);
+    }
+
+    /**
+     * Alterações depois do token {@code since} (null = desde o início, o
+     * catálogo inteiro seguido do que mudar). Busca uma a mais para saber se
+     * há mais páginas.
+     */
+    public PaginaAlteracoes alteracoes(String since, int limite) {
+        CursorAlteracoes.Posicao apos = since == null ? CursorAlteracoes.INICIO : CursorAlteracoes.decodificar(since);
+        List<AlteracaoNeo> itens = neoRepo.alteracoesApos(apos.transacao(), apos.versao(), limite + 1);
+        boolean temMais = itens.size() > limite;
+        if (temMais) {
+            itens = itens.subList(0, limite);
+        }
+        if (!itens.isEmpty()) {
+            AlteracaoNeo ultima = itens.get(itens.size() - 1);
+            apos = new CursorAlteracoes.Posicao(ultima.transacao(), ultima.versao());
+        }
+        return new PaginaAlteracoes(itens, CursorAlteracoes.codificar(apos), temMais);
     }
 
     @Transactional
@@ -136,6 +272,7 @@ public class NeoService {
         NeoObject ent = neoRepo.findById(id);
         if (ent != null) {
             neoRepo.delete(ent);
+            neoAlterado.fire(NeoAlteradoEvent.de(NeoAlteradoEvent.Tipo.REMOVIDO, id));
             return true;
         }
         return false;
@@ -154,6 +291,7 @@ public class NeoService {
         ent.velocidadeKmS = neo.velocidadeKmS;
         ent.planetaAlvo = neo.planetaAlvo;
         ent.origemJsonS3Key = neo.origemJsonS3Key;
+        neoAlterado.fire(NeoAlteradoEvent.de(NeoAlteradoEvent.Tipo.ATUALIZADO, id));
         return ent;
 
     }
@@ -161,37 +299,11 @@ public class NeoService {
     @Transactional
     public void criar(NeoObject neo) {
         neoRepo.persist(neo);
+        neoAlterado.fire(NeoAlteradoEvent.de(NeoAlteradoEvent.Tipo.CRIADO, neo.id));
     }
 
     public NeoObject obterPorId(Long id) {
         NeoObject neoObject = neoRepo.findById(id);
         return neoObject;
     }
-
-    /**
-     * Busca segura por NEO via neoId.
-     * - Valida parâmetro (null/blank).
-     * - Captura exceções de infraestrutura (JPA/Hibernate/Panache).
-     * - Loga com contexto e retorna null em caso de falha para não interromper o
-     * lote.
-     */
-    private NeoObject safeFindByNeoId(String neoId) {
-        if (neoId == null || neoId.isBlank()) {
-            Log.warn("safeFindByNeoId chamado com neoId nulo ou em branco; seguirá como novo registro.");
-            return null;
-        }
-        try {
-            return neoRepo.find("neoId", neoId).firstResult();
-        } catch (IllegalArgumentException | PersistenceException ex) {
-            Log.errorf(ex,
-                    "Falha ao consultar NEO por neoId='%s'. O processamento seguirá criando/atualizando sem lookup.",
-                    neoId);
-            return null; // degrade com segurança: não para o lote
-        }catch (RuntimeException ex) {
-            Log.errorf(ex,
-                    "Erro de infraestrutura ao consultar NEO por neoId='%s'. O processamento seguirá criando/atualizando sem lookup.",
-                    neoId);
-            return null; // degrade com segurança: não para o lote
-        }
-    }
 }
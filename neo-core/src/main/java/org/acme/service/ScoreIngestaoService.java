@@ -0,0 +1,101 @@
+package org.acme.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.acme.controller.ModeloIaClient;
+import org.acme.domain.dtos.PredicaoLote;
+import org.acme.domain.models.NeoObject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Pontua os NEOs de um chunk de importação no modelo-ia antes do upsert,
+ * com uma única chamada ao {@code /ml/predict/batch} por chunk.
+ *
+ * O score é opcional: desligado por padrão ({@code neo.score-on-ingest.habilitado})
+ * e, se o modelo-ia estiver fora do ar ou sem modelo carregado, a
+ * importação segue com {@code probabilidadePerigo} null (o upsert mantém o
+ * score anterior de quem já tinha).
+ *
+ * Depois de uma falha o modelo-ia fica de fora por
+ * {@code neo.score-on-ingest.pausa-apos-falha}: sem isso um backfill longo
+ * esperaria o timeout em cada chunk. A suspensão é logada uma vez, e a volta
+ * do score também.
+ */
+@ApplicationScoped
+public class ScoreIngestaoService {
+
+    @Inject
+    @RestClient
+    ModeloIaClient modeloIa;
+
+    @ConfigProperty(name = "neo.score-on-ingest.habilitado", defaultValue = "false")
+    boolean habilitado;
+    @ConfigProperty(name = "neo.score-on-ingest.pausa-apos-falha", defaultValue = "PT1M")
+    Duration pausaAposFalha;
+
+    /** Instante ({@link System#nanoTime}) a partir do qual o modelo-ia volta a ser chamado. */
+    private final AtomicLong retomarEm = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean suspenso = new AtomicBoolean();
+
+    public void pontuar(List<NeoObject> neos) {
+        if (!habilitado || neos.isEmpty()) {
+            return;
+        }
+        if (System.nanoTime() - retomarEm.get() < 0) {
+            Log.debugf("Score na importação suspenso; %d NEOs seguem sem score.", neos.size());
+            return;
+        }
+
+        List<PredicaoLote.Features> linhas = new ArrayList<>(neos.size());
+        for (NeoObject n : neos) {
+            PredicaoLote.Features f = new PredicaoLote.Features();
+            f.magnitudeAbsoluta = n.magnitudeAbsoluta;
+            f.diametroMinM = n.diametroMinM;
+            f.diametroMaxM = n.diametroMaxM;
+            f.velocidadeKmS = n.velocidadeKmS;
+            linhas.add(f);
+        }
+
+        PredicaoLote resposta;
+        try {
+            resposta = modeloIa.predizerLote(linhas);
+        } catch (RuntimeException e) {
+            suspender(e);
+            return;
+        }
+        if (suspenso.getAndSet(false)) {
+            Log.info("Score na importação restabelecido.");
+        }
+        if (resposta == null || resposta.resultados == null || resposta.resultados.size() != neos.size()) {
+            Log.warnf("Resposta do modelo-ia não corresponde ao lote (%d NEOs); score ignorado.", neos.size());
+            return;
+        }
+
+        for (int i = 0; i < neos.size(); i++) {
+            NeoObject n = neos.get(i);
+            n.probabilidadePerigo = resposta.resultados.get(i).probabilidadePerigoso;
+            n.versaoModelo = resposta.versaoModelo;
+        }
+        Log.debugf("%d NEOs pontuados com o modelo %s", neos.size(), resposta.versaoModelo);
+    }
+
+    /** Só a primeira falha de uma série de chunks concorrentes loga e abre a pausa. */
+    private void suspender(RuntimeException e) {
+        long agora = System.nanoTime();
+        long anterior = retomarEm.get();
+        if (agora - anterior >= 0 && retomarEm.compareAndSet(anterior, agora + pausaAposFalha.toNanos())) {
+            suspenso.set(true);
+            Log.warnf("Score na importação indisponível (%s); os próximos chunks seguem sem score por %s.",
+                    e.getMessage(), pausaAposFalha);
+        }
+    }
+}
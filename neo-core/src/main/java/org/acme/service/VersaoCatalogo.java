@@ -0,0 +1,45 @@
+package org.acme.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.interceptor.Interceptor;
+
+/**
+ * Contador de mudanças de {@code neo_object}, incrementado depois do commit
+ * de cada escrita ({@link NeoAlteradoEvent}). Serve de validador (ETag) para
+ * as respostas de leitura: enquanto ele não muda, nenhuma resposta muda.
+ *
+ * O contador vive na memória desta instância; a época (instante de
+ * inicialização) entra no valor para que um restart nunca repita uma
+ * versão já entregue a algum cliente.
+ *
+ * O incremento roda depois dos observers que limpam caches
+ * ({@link #PRIORIDADE_INVALIDACAO}): se a versão mudasse antes, um GET
+ * concorrente poderia ler a tag nova e ainda achar o corpo antigo no cache,
+ * e o cliente passaria a receber 304 com dado velho até a próxima escrita.
+ */
+@ApplicationScoped
+public class VersaoCatalogo {
+
+    /** Prioridade dos observers de {@link NeoAlteradoEvent} que descartam dados em cache. */
+    public static final int PRIORIDADE_INVALIDACAO = Interceptor.Priority.APPLICATION;
+    /** Prioridade do incremento da versão: depois de todas as invalidações. */
+    public static final int PRIORIDADE_VERSAO = PRIORIDADE_INVALIDACAO + 1000;
+
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong versao = new AtomicLong();
+
+    /** Valor opaco da versão atual, ex.: {@code lq2x9k0-42}. */
+    public String atual() {
+        return epoca + "-" + versao.get();
+    }
+
+    void aoAlterar(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Priority(PRIORIDADE_VERSAO)
+            NeoAlteradoEvent evento) {
+        versao.incrementAndGet();
+    }
+}
@@ -0,0 +1,4 @@
+-- Score do modelo-ia gravado na importação (neo.score-on-ingest.habilitado)
+ALTER TABLE neo_object
+  ADD COLUMN IF NOT EXISTS probabilidade_perigo DOUBLE PRECISION NULL,
+  ADD COLUMN IF NOT EXISTS versao_modelo VARCHAR(200) NULL;
@@ -0,0 +1,2 @@
+-- Paginação por cursor filtrada por perigo: WHERE eh_potencialmente_perigoso = ? AND id > ? ORDER BY id LIMIT n
+CREATE INDEX IF NOT EXISTS idx_neo_object_perigoso_id ON neo_object (eh_potencialmente_perigoso, id);
@@ -0,0 +1,16 @@
+-- Índices da busca filtrada (GET /api/neos/search, ver NeoBuscaSql).
+
+-- Janela de aproximação, com ou sem ordenação por data (desempate por id)
+CREATE INDEX IF NOT EXISTS idx_neo_object_aproximacao ON neo_object (data_primeira_aproximacao, id);
+
+-- Só os potencialmente perigosos (~10% da tabela) por data de aproximação
+CREATE INDEX IF NOT EXISTS idx_neo_object_perigosos_aproximacao ON neo_object (data_primeira_aproximacao, id)
+  WHERE eh_potencialmente_perigoso;
+
+-- Faixas e ordenação por tamanho, velocidade e brilho
+CREATE INDEX IF NOT EXISTS idx_neo_object_diametro ON neo_object (diametro_max_m, id);
+CREATE INDEX IF NOT EXISTS idx_neo_object_velocidade ON neo_object (velocidade_km_s, id);
+CREATE INDEX IF NOT EXISTS idx_neo_object_magnitude ON neo_object (magnitude_absoluta, id);
+
+-- Corpo orbitado + janela de aproximação
+CREATE INDEX IF NOT EXISTS idx_neo_object_planeta_aproximacao ON neo_object (planeta_alvo, data_primeira_aproximacao);
@@ -0,0 +1,61 @@
+-- Feed de alterações (GET /api/neos/changes, ver NeoAlteracoesJdbc).
+--
+-- Toda escrita em neo_object (upsert da importação, POST, PUT, DELETE) recebe
+-- um número da mesma sequência em "versao" e guarda em "xact" o id da
+-- transação que escreveu. Remoções deixam uma lápide em neo_object_removido.
+-- O feed é lido em ordem de (xact, versao) e só até o xmin do snapshot: acima
+-- dele ainda pode haver transação em andamento que vai commitar depois, e um
+-- cliente que já passou daquele ponto a perderia.
+
+CREATE SEQUENCE IF NOT EXISTS neo_object_versao_seq;
+
+-- O DEFAULT volátil reescreve a tabela uma vez e numera as linhas existentes
+ALTER TABLE neo_object
+  ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT nextval('neo_object_versao_seq'),
+  ADD COLUMN IF NOT EXISTS xact BIGINT NOT NULL DEFAULT 0,
+  ADD COLUMN IF NOT EXISTS atualizado_em TIMESTAMP NOT NULL DEFAULT NOW();
+
+ALTER SEQUENCE neo_object_versao_seq OWNED BY neo_object.versao;
+
+CREATE TABLE IF NOT EXISTS neo_object_removido (
+  id BIGINT PRIMARY KEY,
+  neo_id VARCHAR(40) NOT NULL,
+  versao BIGINT NOT NULL,
+  xact BIGINT NOT NULL,
+  removido_em TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_neo_object_alteracoes ON neo_object (xact, versao);
+CREATE INDEX IF NOT EXISTS idx_neo_object_removido_alteracoes ON neo_object_removido (xact, versao);
+
+-- Só numera de novo quando algum valor mudou: reimportar o mesmo NEO não
+-- aparece no feed (o upsert também filtra, ver NeoUpsertJdbc).
+CREATE OR REPLACE FUNCTION neo_object_versionar() RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'UPDATE' AND NEW IS NOT DISTINCT FROM OLD THEN
+    RETURN NEW;
+  END IF;
+  NEW.versao := nextval('neo_object_versao_seq');
+  NEW.xact := pg_current_xact_id()::text::bigint;
+  NEW.atualizado_em := NOW();
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION neo_object_registrar_remocao() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO neo_object_removido (id, neo_id, versao, xact)
+  VALUES (OLD.id, OLD.neo_id, nextval('neo_object_versao_seq'), pg_current_xact_id()::text::bigint);
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_neo_object_versionar ON neo_object;
+CREATE TRIGGER trg_neo_object_versionar
+  BEFORE INSERT OR UPDATE ON neo_object
+  FOR EACH ROW EXECUTE FUNCTION neo_object_versionar();
+
+DROP TRIGGER IF EXISTS trg_neo_object_remocao ON neo_object;
+CREATE TRIGGER trg_neo_object_remocao
+  AFTER DELETE ON neo_object
+  FOR EACH ROW EXECUTE FUNCTION neo_object_registrar_remocao();
@@ -0,0 +1,49 @@
+package org.acme.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.acme.domain.dtos.FiltroBuscaNeo;
+import org.junit.jupiter.api.Test;
+
+class NeoBuscaSqlTest {
+
+    @Test
+    void soEntramOsFiltrosInformados() {
+        FiltroBuscaNeo f = new FiltroBuscaNeo(100.0, null, null, 20.0, null, null,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), "Earth", true);
+
+        NeoBuscaSql.Consulta c = NeoBuscaSql.montar(f, NeoBuscaSql.Ordenacao.de("dataPrimeiraAproximacao,desc"), 2,
+                50, i -> "$" + i);
+
+        assertEquals("SELECT * FROM neo_object WHERE diametro_max_m >= $1 AND velocidade_km_s <= $2"
+                + " AND data_primeira_aproximacao >= $3 AND data_primeira_aproximacao < $4 AND planeta_alvo = $5"
+                + " AND eh_potencialmente_perigoso"
+                + " ORDER BY data_primeira_aproximacao DESC, id DESC LIMIT 50 OFFSET 100", c.sql());
+        assertEquals(List.of(100.0, 20.0, LocalDate.of(2025, 1, 1).atStartOfDay(),
+                LocalDate.of(2025, 2, 1).atStartOfDay(), "Earth"), c.parametros());
+    }
+
+    @Test
+    void semFiltrosOrdenaPorId() {
+        NeoBuscaSql.Consulta c = NeoBuscaSql.montar(FiltroBuscaNeo.VAZIO, NeoBuscaSql.Ordenacao.PADRAO, 0, 20,
+                i -> "?");
+
+        assertEquals("SELECT * FROM neo_object ORDER BY id LIMIT 20", c.sql());
+        assertEquals(List.of(), c.parametros());
+    }
+
+    @Test
+    void rejeitaOrdenacaoEFaixasInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> NeoBuscaSql.Ordenacao.de("nome"));
+        assertThrows(IllegalArgumentException.class, () -> NeoBuscaSql.Ordenacao.de("id,para-cima"));
+        assertThrows(IllegalArgumentException.class, () -> NeoBuscaSql.montar(
+                new FiltroBuscaNeo(10.0, 5.0, null, null, null, null, null, null, null, null),
+                NeoBuscaSql.Ordenacao.PADRAO, 0, 20, i -> "?"));
+        assertThrows(IllegalArgumentException.class,
+                () -> NeoBuscaSql.montar(FiltroBuscaNeo.VAZIO, NeoBuscaSql.Ordenacao.PADRAO, 0, 5000, i -> "?"));
+    }
+}
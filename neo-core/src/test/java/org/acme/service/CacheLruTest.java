@@ -0,0 +1,70 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class CacheLruTest {
+
+    @Test
+    void removeOMenosUsadoRecentemente() {
+        CacheLru<Integer, String> cache = new CacheLru<>(2, Duration.ofMinutes(1));
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obter(1, () -> "um" + cargas.incrementAndGet());
+        cache.obter(2, () -> "dois" + cargas.incrementAndGet());
+        cache.obter(1, () -> "um" + cargas.incrementAndGet()); // 1 passa a ser o mais recente
+        cache.obter(3, () -> "tres" + cargas.incrementAndGet()); // sai o 2
+
+        assertEquals("um1", cache.obter(1, () -> "recarregado"));
+        assertEquals("recarregado", cache.obter(2, () -> "recarregado"));
+        CacheLru.Estatisticas e = cache.estatisticas();
+        assertEquals(2, e.acertos());
+        assertEquals(4, e.faltas());
+        assertEquals(2, e.removidasPorTamanho());
+    }
+
+    @Test
+    void entradaExpiraDepoisDoTtl() throws Exception {
+        CacheLru<String, Integer> cache = new CacheLru<>(10, Duration.ofMillis(20));
+        cache.obter("a", () -> 1);
+        Thread.sleep(40);
+
+        assertEquals(2, cache.obter("a", () -> 2));
+        assertEquals(1, cache.estatisticas().expiradas());
+    }
+
+    @Test
+    void cargaConcorrenteComInvalidacaoNaoFicaNoCache() {
+        CacheLru<String, String> cache = new CacheLru<>(10, Duration.ofMinutes(1));
+
+        String lido = cache.obter("neo", () -> {
+            // escrita commitada enquanto a leitura ainda carregava o valor antigo
+            cache.invalidarSe((k, v) -> k.equals("neo"));
+            return "antigo";
+        });
+
+        assertEquals("antigo", lido);
+        assertEquals("novo", cache.obter("neo", () -> "novo"));
+    }
+
+    @Test
+    void cargaAssincronaSoEntraNoCacheAoCompletarSemInvalidacao() {
+        CacheLru<String, String> cache = new CacheLru<>(10, Duration.ofMinutes(1));
+        CompletableFuture<String> pendente = new CompletableFuture<>();
+
+        var lido = cache.obterAssincrono("neo", () -> pendente).toCompletableFuture();
+        cache.limpar(); // escrita enquanto a consulta ainda não voltou
+        pendente.complete("antigo");
+
+        assertEquals("antigo", lido.join());
+        assertEquals("novo", cache.obterAssincrono("neo", () -> CompletableFuture.completedFuture("novo"))
+                .toCompletableFuture().join());
+        assertEquals("novo", cache.obterAssincrono("neo", () -> CompletableFuture.completedFuture("outro"))
+                .toCompletableFuture().join());
+    }
+}
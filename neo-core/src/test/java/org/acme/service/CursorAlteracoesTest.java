@@ -0,0 +1,28 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class CursorAlteracoesTest {
+
+    @Test
+    void idaEVolta() {
+        for (CursorAlteracoes.Posicao p : new CursorAlteracoes.Posicao[] { CursorAlteracoes.INICIO,
+                new CursorAlteracoes.Posicao(0, 17), new CursorAlteracoes.Posicao(4_294_967_999L, 123_456),
+                new CursorAlteracoes.Posicao(Long.MAX_VALUE, Long.MAX_VALUE) }) {
+            assertEquals(p, CursorAlteracoes.decodificar(CursorAlteracoes.codificar(p)));
+        }
+    }
+
+    @Test
+    void rejeitaTokenQueNaoFoiGeradoPeloServidor() {
+        assertThrows(IllegalArgumentException.class, () -> CursorAlteracoes.decodificar("42"));
+        assertThrows(IllegalArgumentException.class, () -> CursorAlteracoes.decodificar(CursorNeo.codificar(42)));
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorAlteracoes.decodificar(Base64.getUrlEncoder().encodeToString("v1:1:x".getBytes())));
+    }
+}
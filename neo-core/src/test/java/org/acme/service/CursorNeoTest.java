@@ -0,0 +1,26 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class CursorNeoTest {
+
+    @Test
+    void idaEVolta() {
+        for (long id : new long[] { 0, 1, 42, Long.MAX_VALUE }) {
+            assertEquals(id, CursorNeo.decodificar(CursorNeo.codificar(id)));
+        }
+    }
+
+    @Test
+    void rejeitaTokenQueNaoFoiGeradoPeloServidor() {
+        assertThrows(IllegalArgumentException.class, () -> CursorNeo.decodificar("123"));
+        assertThrows(IllegalArgumentException.class, () -> CursorNeo.decodificar("%%%"));
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorNeo.decodificar(Base64.getUrlEncoder().encodeToString("v1:abc".getBytes())));
+    }
+}
@@ -0,0 +1,84 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.acme.domain.dtos.NeoEstatisticas;
+import org.acme.repository.NeoEstatisticasRepository;
+import org.junit.jupiter.api.Test;
+
+class EstatisticasServiceTest {
+
+    @Test
+    void faixasUniformesIncluemOMaximoNaUltima() {
+        double[] l = EstatisticasService.uniforme(new double[] { 10, 50 }, 4);
+
+        assertEquals(5, l.length);
+        assertArrayEquals(new double[] { 10, 20, 30, 40 }, Arrays.copyOf(l, 4));
+        assertEquals(Math.nextUp(50.0), l[4]);
+    }
+
+    @Test
+    void rejeitaLimitesForaDeOrdemOuCampoDesconhecido() {
+        EstatisticasService service = new EstatisticasService();
+        service.ttl = Duration.ZERO;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.histograma("diametroMaxM", new double[] { 0, 100, 50 }, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.histograma("nome; DROP TABLE neo_object", null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.histograma("diametroMaxM", null, 0));
+    }
+
+    @Test
+    void memorizaAteInvalidar() {
+        AtomicInteger consultas = new AtomicInteger();
+        EstatisticasService service = new EstatisticasService();
+        service.ttl = Duration.ofMinutes(5);
+        service.maxEntradas = 10;
+        service.init();
+        service.repo = new NeoEstatisticasRepository() {
+            @Override
+            public List<NeoEstatisticas.Resumo> resumo() {
+                consultas.incrementAndGet();
+                return List.of();
+            }
+        };
+
+        service.resumo();
+        service.resumo();
+        assertEquals(1, consultas.get());
+
+        service.invalidar();
+        service.resumo();
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void calculoConcorrenteComEscritaNaoFicaMemorizado() {
+        AtomicInteger consultas = new AtomicInteger();
+        EstatisticasService service = new EstatisticasService();
+        service.ttl = Duration.ofMinutes(5);
+        service.maxEntradas = 10;
+        service.init();
+        service.repo = new NeoEstatisticasRepository() {
+            @Override
+            public List<NeoEstatisticas.Resumo> resumo() {
+                if (consultas.incrementAndGet() == 1) {
+                    service.invalidar(); // escrita confirmada enquanto o agregado era calculado
+                }
+                return List.of();
+            }
+        };
+
+        service.resumo();
+        service.resumo();
+        assertEquals(2, consultas.get());
+    }
+}
@@ -0,0 +1,122 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ExportacaoServiceTest {
+
+    /** Colunas na ordem do SELECT de NeoExportJdbc. */
+    private static final List<Object[]> LINHAS = List.of(
+            new Object[] { 1L, "2000433", "433 Eros", 10.4, 22000.0, 49000.0, false,
+                    LocalDateTime.of(2025, 1, 31, 8, 15), 5.9, "Earth", "raw/a.csv",
+                    LocalDateTime.of(2025, 2, 1, 0, 0), 0.12, "models/rf-1" },
+            new Object[] { 2L, "3542519", "(2010 PK9), \"x\"", null, null, null, true,
+                    null, null, null, null, LocalDateTime.of(2025, 2, 2, 0, 0), null, null });
+
+    private ExportacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        org.jboss.logmanager.Logger.getLogger("org.apache.parquet").setLevel(org.jboss.logmanager.Level.INFO);
+        service = new ExportacaoService();
+        service.mapper = new ObjectMapper();
+        service.compressao = CompressionCodecName.SNAPPY;
+        service.dataSource = proxy(DataSource.class, (m, a) -> m.equals("getConnection") ? conexao() : null);
+    }
+
+    @Test
+    void ndjsonUmaLinhaPorNeo() throws Exception {
+        String saida = exportar(ExportacaoService.Formato.NDJSON);
+
+        String[] linhas = saida.split("\n", -1);
+        assertEquals(3, linhas.length);
+        assertEquals("", linhas[2]);
+        JsonNode eros = new ObjectMapper().readTree(linhas[0]);
+        assertEquals("433 Eros", eros.get("nome").asText());
+        assertEquals("2025-01-31T08:15Z", eros.get("dataPrimeiraAproximacao").asText());
+        assertEquals(0.12, eros.get("probabilidadePerigo").asDouble());
+        assertTrue(new ObjectMapper().readTree(linhas[1]).get("magnitudeAbsoluta").isNull());
+    }
+
+    @Test
+    void csvComCabecalhoEEscape() throws Exception {
+        String[] linhas = exportar(ExportacaoService.Formato.CSV).split("\n");
+
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[0].startsWith("id,neoId,nome,"), linhas[0]);
+        assertTrue(linhas[2].startsWith("2,3542519,\"(2010 PK9), \"\"x\"\"\",,,,true,"), linhas[2]);
+    }
+
+    @Test
+    void parquetLegivelComoParticaoDoLake() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, service.exportar(ExportacaoService.Formato.PARQUET, null, out));
+
+        NeoParquet.Colunas c = NeoParquet.lerColunas(NeoParquet.entrada(out.toByteArray()),
+                NeoParquet.COL_DIAMETRO_MAX, NeoParquet.COL_PERIGOSO, NeoParquet.COL_DIA);
+        assertEquals(2, c.linhas);
+        assertEquals(49000.0, c.doubles(NeoParquet.COL_DIAMETRO_MAX)[0]);
+        assertTrue(Double.isNaN(c.doubles(NeoParquet.COL_DIAMETRO_MAX)[1]));
+        assertEquals(true, c.booleans(NeoParquet.COL_PERIGOSO)[1]);
+        assertEquals("2025-02-01", c.strings(NeoParquet.COL_DIA)[0]);
+    }
+
+    private String exportar(ExportacaoService.Formato formato) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, service.exportar(formato, null, out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private interface Metodo {
+        Object chamar(String nome, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, Metodo m) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+                (p, metodo, args) -> m.chamar(metodo.getName(), args));
+    }
+
+    private static Connection conexao() {
+        return proxy(Connection.class, (m, a) -> m.equals("prepareStatement")
+                ? proxy(PreparedStatement.class, (m2, a2) -> m2.equals("executeQuery") ? resultado() : null)
+                : null);
+    }
+
+    private static ResultSet resultado() {
+        int[] atual = { -1 };
+        return proxy(ResultSet.class, (m, a) -> {
+            if (m.equals("next")) {
+                return ++atual[0] < LINHAS.size();
+            }
+            if (m.equals("close")) {
+                return null;
+            }
+            Object v = LINHAS.get(atual[0])[(Integer) a[0] - 1];
+            return switch (m) {
+                case "getLong" -> v;
+                case "getBoolean" -> v;
+                case "getString", "getObject" -> v;
+                default -> throw new UnsupportedOperationException(m);
+            };
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.acme.domain.dtos.FeedResponse;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class FeedStreamParserTest {
+
+    private static final String FEED = """
+            {
+              "links": {"next": "http://x", "self": "http://y"},
+              "element_count": 3,
+              "near_earth_objects": {
+                "2024-01-02": [
+                  {"id": "1", "name": "(A)", "absolute_magnitude_h": 20.1,
+                   "is_potentially_hazardous_asteroid": true,
+                   "estimated_diameter": {"meters": {"estimated_diameter_min": 10.0, "estimated_diameter_max": 22.0},
+                                          "feet": {"estimated_diameter_min": 1, "estimated_diameter_max": 2}},
+                   "close_approach_data": [{"close_approach_date_full": "2024-Jan-02 10:00",
+                                            "orbiting_body": "Earth",
+                                            "relative_velocity": {"kilometers_per_second": "12.5"}}],
+                   "is_sentry_object": false}
+                ],
+                "2024-01-01": [
+                  {"id": "2", "name": "(B)", "close_approach_data": []},
+                  {"id": "3", "name": "(C)", "links": {"self": "z"}}
+                ]
+              }
+            }
+            """;
+
+    @Test
+    void emiteCadaNeoComODiaDeOrigem() throws Exception {
+        try (FeedStreamParser p = new FeedStreamParser(
+                new ByteArrayInputStream(FEED.getBytes(StandardCharsets.UTF_8)), new ObjectMapper())) {
+
+            FeedResponse.Neo a = p.proximo();
+            assertEquals("1", a.id);
+            assertEquals("2024-01-02", p.diaAtual());
+            assertTrue(a.hazardous);
+            assertEquals(22.0, a.estimatedDiameter.meters.max);
+            assertEquals("12.5", a.closeApproachData.get(0).relativeVelocity.kmPerSec);
+
+            FeedResponse.Neo b = p.proximo();
+            assertEquals("2", b.id);
+            assertEquals("2024-01-01", p.diaAtual());
+
+            assertEquals("3", p.proximo().id);
+            assertNull(p.proximo());
+            assertNull(p.proximo());
+        }
+    }
+
+    @Test
+    void feedSemNeosNaoEmiteNada() throws Exception {
+        String vazio = "{\"element_count\": 0, \"near_earth_objects\": {}}";
+        try (FeedStreamParser p = new FeedStreamParser(
+                new ByteArrayInputStream(vazio.getBytes(StandardCharsets.UTF_8)), new ObjectMapper())) {
+            assertNull(p.proximo());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class JanelaFeedTest {
+
+    @Test
+    void divideEmJanelasDeSeteDiasSemSobreposicao() {
+        List<JanelaFeed> janelas = JanelaFeed.dividir(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 20), 7);
+
+        assertEquals(List.of(
+                new JanelaFeed(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7)),
+                new JanelaFeed(LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 14)),
+                new JanelaFeed(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 20))), janelas);
+    }
+
+    @Test
+    void intervaloDeUmDiaGeraUmaJanela() {
+        LocalDate dia = LocalDate.of(2024, 2, 29);
+        assertEquals(List.of(new JanelaFeed(dia, dia)), JanelaFeed.dividir(dia, dia, 7));
+    }
+
+    @Test
+    void dezAnosCobremTodosOsDias() {
+        LocalDate inicio = LocalDate.of(2015, 1, 1);
+        LocalDate fim = LocalDate.of(2024, 12, 31);
+        List<JanelaFeed> janelas = JanelaFeed.dividir(inicio, fim, 7);
+
+        long dias = janelas.stream().mapToLong(j -> j.fim().toEpochDay() - j.inicio().toEpochDay() + 1).sum();
+        assertEquals(fim.toEpochDay() - inicio.toEpochDay() + 1, dias);
+        assertEquals(inicio, janelas.get(0).inicio());
+        assertEquals(fim, janelas.get(janelas.size() - 1).fim());
+    }
+
+    @Test
+    void rejeitaJanelaMaiorQueOLimiteDaNeoWs() {
+        assertThrows(IllegalArgumentException.class,
+                () -> JanelaFeed.dividir(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 8));
+    }
+}
@@ -0,0 +1,94 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.service.ArmazenamentoMinioService.CsvNeoData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.junit.jupiter.api.Test;
+
+class NeoParquetTest {
+
+    private static byte[] escrever(List<CsvNeoData> linhas) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ParquetWriter<GenericRecord> w = NeoParquet.abrirWriter(NeoParquet.saida(out), CompressionCodecName.ZSTD)) {
+            for (CsvNeoData l : linhas) {
+                w.write(NeoParquet.registro(l));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<CsvNeoData> linhas() {
+        return List.of(
+                new CsvNeoData("1", "(2020 AB)", 21.5, 120.0, 260.5, false, "2025-Jan-01 10:00", 12.345, "Earth", "2025-01-01"),
+                new CsvNeoData("2", "(2021 CD)", 18.0, 400.0, 900.0, true, "2025-Jan-01 11:30", 30.0, "Earth", "2025-01-01"),
+                new CsvNeoData("3", null, null, null, null, false, null, null, null, "2025-01-01"));
+    }
+
+    @Test
+    void leSoAsColunasProjetadas() throws Exception {
+        byte[] bytes = escrever(linhas());
+
+        Configuration conf = NeoParquet.projecao(NeoParquet.COL_PERIGOSO, NeoParquet.COL_VELOCIDADE);
+
+        List<GenericRecord> lidos = new ArrayList<>();
+        try (ParquetReader<GenericRecord> r = AvroParquetReader.<GenericRecord>builder(NeoParquet.entrada(bytes))
+                .withConf(conf).build()) {
+            GenericRecord rec;
+            while ((rec = r.read()) != null) {
+                lidos.add(rec);
+            }
+        }
+
+        assertEquals(3, lidos.size());
+        assertEquals(2, lidos.get(0).getSchema().getFields().size());
+        assertEquals(12.345, lidos.get(0).get(NeoParquet.COL_VELOCIDADE));
+        assertEquals(true, lidos.get(1).get(NeoParquet.COL_PERIGOSO));
+        assertNull(lidos.get(2).get(NeoParquet.COL_VELOCIDADE));
+    }
+
+    @Test
+    void leColunasParaArraysPrimitivos() throws Exception {
+        byte[] bytes = escrever(linhas());
+
+        NeoParquet.Colunas c = NeoParquet.lerColunas(NeoParquet.entrada(bytes),
+                NeoParquet.COL_VELOCIDADE, NeoParquet.COL_PERIGOSO, NeoParquet.COL_NEO_ID);
+
+        assertEquals(3, c.linhas);
+        assertArrayEquals(new double[] { 12.345, 30.0, Double.NaN }, c.doubles(NeoParquet.COL_VELOCIDADE));
+        assertArrayEquals(new boolean[] { false, true, false }, c.booleans(NeoParquet.COL_PERIGOSO));
+        assertArrayEquals(new String[] { "1", "2", "3" }, c.strings(NeoParquet.COL_NEO_ID));
+    }
+
+    @Test
+    void gravaEstatisticasDoRowGroup() throws Exception {
+        byte[] bytes = escrever(linhas());
+
+        try (ParquetFileReader r = ParquetFileReader.open(NeoParquet.entrada(bytes))) {
+            assertEquals(1, r.getRowGroups().size());
+            ColumnChunkMetaData velocidade = r.getRowGroups().get(0).getColumns().stream()
+                    .filter(c -> c.getPath().toDotString().equals(NeoParquet.COL_VELOCIDADE))
+                    .findFirst().orElseThrow();
+            Statistics<?> stats = velocidade.getStatistics();
+
+            assertEquals(CompressionCodecName.ZSTD, velocidade.getCodec());
+            assertEquals(12.345, stats.genericGetMin());
+            assertEquals(30.0, stats.genericGetMax());
+            assertEquals(1, stats.getNumNulls());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.acme.domain.dtos.FeedResponse;
+import org.acme.domain.models.NeoObject;
+import org.junit.jupiter.api.Test;
+
+class NeoServiceTest {
+
+    private static FeedResponse.Neo neo(String id, String nome) {
+        FeedResponse.Neo n = new FeedResponse.Neo();
+        n.id = id;
+        n.name = nome;
+        return n;
+    }
+
+    @Test
+    void chunkComNeoRepetidoViraUmaLinhaPorNeoId() {
+        List<FeedResponse.Neo> chunk = List.of(
+                neo("1", "(A) antigo"),
+                neo("2", "(B)"),
+                neo(null, "(sem id)"),
+                neo("1", "(A) atual"),
+                neo("3", "(C)"));
+
+        List<NeoObject> lote = NeoService.normalizarChunk(chunk, "raw/teste.csv");
+
+        assertEquals(List.of("1", "2", "3"), lote.stream().map(n -> n.neoId).toList());
+        assertEquals("(A) atual", lote.get(0).nome);
+    }
+}
@@ -0,0 +1,72 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.acme.domain.dtos.PredicaoLote;
+import org.acme.domain.models.NeoObject;
+import org.junit.jupiter.api.Test;
+
+import jakarta.ws.rs.ProcessingException;
+
+class ScoreIngestaoServiceTest {
+
+    private static ScoreIngestaoService service(Duration pausa, AtomicInteger chamadas, AtomicBoolean fora) {
+        ScoreIngestaoService service = new ScoreIngestaoService();
+        service.habilitado = true;
+        service.pausaAposFalha = pausa;
+        service.modeloIa = linhas -> {
+            chamadas.incrementAndGet();
+            if (fora.get()) {
+                throw new ProcessingException("connect timed out");
+            }
+            PredicaoLote resposta = new PredicaoLote();
+            resposta.versaoModelo = "v1";
+            resposta.resultados = linhas.stream().map(l -> {
+                PredicaoLote.Resultado r = new PredicaoLote.Resultado();
+                r.probabilidadePerigoso = 0.5;
+                return r;
+            }).toList();
+            return resposta;
+        };
+        return service;
+    }
+
+    private static List<NeoObject> chunk() {
+        return List.of(new NeoObject(), new NeoObject());
+    }
+
+    @Test
+    void depoisDeUmaFalhaOsChunksSeguintesNaoChamamOModeloIa() {
+        AtomicInteger chamadas = new AtomicInteger();
+        ScoreIngestaoService service = service(Duration.ofMinutes(1), chamadas, new AtomicBoolean(true));
+
+        for (int i = 0; i < 10; i++) {
+            List<NeoObject> neos = chunk();
+            service.pontuar(neos);
+            assertNull(neos.get(0).probabilidadePerigo);
+        }
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void voltaATentarQuandoAPausaAcaba() {
+        AtomicInteger chamadas = new AtomicInteger();
+        AtomicBoolean fora = new AtomicBoolean(true);
+        ScoreIngestaoService service = service(Duration.ZERO, chamadas, fora);
+
+        service.pontuar(chunk());
+        fora.set(false);
+        List<NeoObject> neos = chunk();
+        service.pontuar(neos);
+
+        assertEquals(2, chamadas.get());
+        assertEquals(0.5, neos.get(1).probabilidadePerigo);
+        assertEquals("v1", neos.get(1).versaoModelo);
+    }
+}
@@ -0,0 +1,64 @@
+package org.acme.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.net.URI;
+
+import org.acme.domain.dtos.NeoObjectResponse;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+@QuarkusTest
+class VersaoCatalogoTest {
+
+    @Inject
+    Event<NeoAlteradoEvent> neoAlterado;
+    @Inject
+    VersaoCatalogo versao;
+    @Inject
+    NeoCacheService cache;
+    @Inject
+    Espiao espiao;
+
+    /** Observa entre as invalidações e o incremento da versão (sem proxy, para ler os campos direto). */
+    @Singleton
+    static class Espiao {
+
+        @Inject
+        VersaoCatalogo versao;
+        @Inject
+        NeoCacheService cache;
+
+        volatile String versaoVista;
+        volatile int entradasVistas = -1;
+
+        void aoAlterar(@Observes(during = TransactionPhase.AFTER_SUCCESS)
+                @Priority(VersaoCatalogo.PRIORIDADE_INVALIDACAO + 1) NeoAlteradoEvent evento) {
+            versaoVista = versao.atual();
+            entradasVistas = cache.estatisticas().get("porId").entradas();
+        }
+    }
+
+    @Test
+    void versaoSoMudaDepoisDeOsCachesSeremLimpos() {
+        URI base = URI.create("http://localhost/");
+        cache.obter(base, 42L, NeoObjectResponse::new);
+        String antes = versao.atual();
+
+        QuarkusTransaction.requiringNew().run(
+                () -> neoAlterado.fire(NeoAlteradoEvent.de(NeoAlteradoEvent.Tipo.ATUALIZADO, 42L)));
+
+        assertEquals(0, espiao.entradasVistas, "cache ainda populado quando os observers seguintes rodaram");
+        assertEquals(antes, espiao.versaoVista, "versão mudou antes de todas as invalidações");
+        assertNotEquals(antes, versao.atual());
+    }
+}